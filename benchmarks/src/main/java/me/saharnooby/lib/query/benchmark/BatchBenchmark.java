@@ -0,0 +1,54 @@
+package me.saharnooby.lib.query.benchmark;
+
+import me.saharnooby.lib.query.batch.BatchBuilder;
+import me.saharnooby.lib.query.query.Query;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding queries to a {@link BatchBuilder} and executing the batch against a stub connection.
+ * @author saharNooby
+ * @since 12:15 16.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+	@Param({"100", "10000"})
+	public int rows;
+
+	private Connection con;
+	private BatchBuilder filled;
+
+	@Setup
+	public void setup() {
+		this.con = StubJdbc.connection(0);
+		this.filled = fill(new BatchBuilder());
+	}
+
+	private BatchBuilder fill(BatchBuilder builder) {
+		for (int i = 0; i < this.rows; i++) {
+			builder.add(Query.insertInto("table").value("key", i).value("a", "text").value("b", (long) i));
+		}
+
+		return builder;
+	}
+
+	@Benchmark
+	public BatchBuilder add() {
+		return fill(new BatchBuilder());
+	}
+
+	@Benchmark
+	public int[] execute() throws SQLException {
+		return this.filled.execute(this.con);
+	}
+
+}
@@ -0,0 +1,52 @@
+package me.saharnooby.lib.query.benchmark;
+
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.Insert;
+import me.saharnooby.lib.query.query.impl.Select;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creation of prepared statements and binding of parameters against a stub connection.
+ * @author saharNooby
+ * @since 12:10 16.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindBenchmark {
+
+	private Connection con;
+	private Select select;
+	private Insert insert;
+
+	@Setup
+	public void setup() {
+		this.con = StubJdbc.connection(1);
+		this.select = Query.select("a", "b").from("table").where("key", 1).whereExpr("`d` > ?", 10L).limit(1);
+		this.insert = Query.insertInto("table").value("key", 1).value("a", "text").value("b", 123L).value("c", new byte[16]).onDuplicateKeyUpdateExcept("key");
+	}
+
+	@Benchmark
+	public PreparedStatement prepareSelect() throws SQLException {
+		return this.select.prepareStatement(this.con);
+	}
+
+	@Benchmark
+	public PreparedStatement prepareInsert() throws SQLException {
+		return this.insert.prepareStatement(this.con);
+	}
+
+	@Benchmark
+	public int updateInsert() throws SQLException {
+		return this.insert.update(this.con);
+	}
+
+}
@@ -0,0 +1,41 @@
+package me.saharnooby.lib.query.benchmark;
+
+import me.saharnooby.lib.query.set.ResultSetWrapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping of result sets with {@link ResultSetWrapper}.
+ * @author saharNooby
+ * @since 12:20 16.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapBenchmark {
+
+	@Param({"100", "10000"})
+	public int rows;
+
+	@Benchmark
+	public List<Long> mapAllLongs() throws SQLException {
+		return new ResultSetWrapper(StubJdbc.resultSet(this.rows)).mapAll(s -> s.getLong(1));
+	}
+
+	@Benchmark
+	public List<String> mapAllByLabel() throws SQLException {
+		return new ResultSetWrapper(StubJdbc.resultSet(this.rows)).mapAll(s -> s.getString("name"));
+	}
+
+	@Benchmark
+	public List<String> mapAllRowsByLabel() throws SQLException {
+		return new ResultSetWrapper(StubJdbc.resultSet(this.rows)).mapAllRows(r -> r.getString("name"));
+	}
+
+}
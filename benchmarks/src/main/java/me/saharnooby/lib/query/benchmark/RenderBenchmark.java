@@ -0,0 +1,136 @@
+package me.saharnooby.lib.query.benchmark;
+
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building of queries and rendering of their SQL text and parameter lists.
+ * @author saharNooby
+ * @since 12:05 16.10.2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+	private Select select;
+	private Insert insert;
+	private Update update;
+	private Delete delete;
+	private CreateTable createTable;
+
+	@Setup
+	public void setup() {
+		this.select = select(1);
+		this.insert = insert(1);
+		this.update = update(1);
+		this.delete = delete(1);
+		this.createTable = createTable();
+	}
+
+	private static Select select(int key) {
+		return Query.select("a", "b", "c").from("db", "table").where("key", key).whereExpr("`d` > ?", 10).orderBy("a").limit(10);
+	}
+
+	private static Insert insert(int key) {
+		return Query.insertInto("db", "table").value("key", key).value("a", "text").value("b", 123L).onDuplicateKeyUpdateExcept("key");
+	}
+
+	private static Update update(int key) {
+		return Query.update("db", "table").value("a", "text").value("b", 123L).where("key", key);
+	}
+
+	private static Delete delete(int key) {
+		return Query.deleteFrom("db", "table").where("key", key).whereExpr("`d` > ?", 10);
+	}
+
+	private static CreateTable createTable() {
+		return Query.createTable("db", "table").ifNotExists().intKey("key").varchar("a", 16).NN().bigint("b").defaultValue(0L);
+	}
+
+	@Benchmark
+	public String selectSQL() {
+		return this.select.getSQL();
+	}
+
+	@Benchmark
+	public Object selectParams() {
+		return this.select.getParams();
+	}
+
+	@Benchmark
+	public void selectBuildAndRender(Blackhole bh) {
+		Select select = select(1);
+		bh.consume(select.getSQL());
+		bh.consume(select.getParams());
+	}
+
+	@Benchmark
+	public String insertSQL() {
+		return this.insert.getSQL();
+	}
+
+	@Benchmark
+	public Object insertParams() {
+		return this.insert.getParams();
+	}
+
+	@Benchmark
+	public void insertBuildAndRender(Blackhole bh) {
+		Insert insert = insert(1);
+		bh.consume(insert.getSQL());
+		bh.consume(insert.getParams());
+	}
+
+	@Benchmark
+	public String updateSQL() {
+		return this.update.getSQL();
+	}
+
+	@Benchmark
+	public Object updateParams() {
+		return this.update.getParams();
+	}
+
+	@Benchmark
+	public void updateBuildAndRender(Blackhole bh) {
+		Update update = update(1);
+		bh.consume(update.getSQL());
+		bh.consume(update.getParams());
+	}
+
+	@Benchmark
+	public String deleteSQL() {
+		return this.delete.getSQL();
+	}
+
+	@Benchmark
+	public Object deleteParams() {
+		return this.delete.getParams();
+	}
+
+	@Benchmark
+	public void deleteBuildAndRender(Blackhole bh) {
+		Delete delete = delete(1);
+		bh.consume(delete.getSQL());
+		bh.consume(delete.getParams());
+	}
+
+	@Benchmark
+	public String createTableSQL() {
+		return this.createTable.getSQL();
+	}
+
+	@Benchmark
+	public Object createTableParams() {
+		return this.createTable.getParams();
+	}
+
+}
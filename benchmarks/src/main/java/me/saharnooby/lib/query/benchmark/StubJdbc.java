@@ -0,0 +1,123 @@
+package me.saharnooby.lib.query.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Creates JDBC objects that do nothing, so benchmarks measure only the library overhead.
+ * Stubs are based on {@link Proxy}; the cost of the proxy dispatch is the same for every run,
+ * so it does not affect comparisons between library versions.
+ * @author saharNooby
+ * @since 12:00 16.10.2026
+ */
+final class StubJdbc {
+
+	/**
+	 * @param rows Count of rows in result sets returned by statements of the connection.
+	 * @return A connection which returns stub statements.
+	 */
+	static Connection connection(int rows) {
+		return (Connection) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "prepareStatement":
+					return statement(rows);
+				case "getAutoCommit":
+				case "isClosed":
+					return false;
+				case "isWrapperFor":
+					return false;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	/**
+	 * @param rows Count of rows in result sets returned by the statement.
+	 * @return A statement which ignores parameters.
+	 */
+	static PreparedStatement statement(int rows) {
+		int[] batchSize = new int[1];
+
+		return (PreparedStatement) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "executeQuery":
+				case "getGeneratedKeys":
+					return resultSet(rows);
+				case "executeUpdate":
+					return 1;
+				case "addBatch":
+					batchSize[0]++;
+					return null;
+				case "executeBatch":
+					int[] counts = new int[batchSize[0]];
+					batchSize[0] = 0;
+					return counts;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	/**
+	 * @param rows Count of rows.
+	 * @return A result set, in which every column of every row contains the row number.
+	 */
+	static ResultSet resultSet(int rows) {
+		int[] row = new int[1];
+
+		return (ResultSet) Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "next":
+					return ++row[0] <= rows;
+				case "getInt":
+					return row[0];
+				case "getLong":
+					return (long) row[0];
+				case "getString":
+					return "row";
+				case "findColumn":
+					return 1;
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "equals":
+					return proxy == args[0];
+				default:
+					return defaultValue(method.getReturnType());
+			}
+		});
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		} else if (type == boolean.class) {
+			return false;
+		} else if (type == long.class) {
+			return 0L;
+		} else if (type == double.class) {
+			return 0D;
+		} else if (type == float.class) {
+			return 0F;
+		} else if (type == short.class) {
+			return (short) 0;
+		} else if (type == byte.class) {
+			return (byte) 0;
+		} else if (type == char.class) {
+			return (char) 0;
+		}
+
+		return 0;
+	}
+
+}
@@ -1,8 +1,11 @@
 package me.saharnooby.lib.query.batch;
 
 import lombok.NonNull;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.cache.StatementCache;
+import me.saharnooby.lib.query.listener.QueryExecution;
 import me.saharnooby.lib.query.query.AbstractQuery;
-import me.saharnooby.lib.query.query.impl.Raw;
+import me.saharnooby.lib.query.util.ExecutorUtil;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
@@ -10,37 +13,87 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Allows executing a query with multiple parameter lists in a single batch using {@link PreparedStatement#executeBatch()} method.
+ * Parameters are stored column-wise: long, integer and double values are kept in primitive arrays, nulls in bitmaps.
  * @author saharNooby
  * @since 19:34 28.03.2020
  */
 public final class BatchBuilder {
 
-	private final List<AbstractQuery> queries = new ArrayList<>();
+	private String sql;
+	private List<String> tables;
+	private ParamColumn[] columns;
+	private int size;
 
 	/**
 	 * Adds a query to the batch. If this builder is not empty, the SQL text of the query must be exactly equal to the first added query.
-	 * @param query Query to be added.
+	 * @param query Query to be added, must be a single statement, see {@link AbstractQuery#isSingleStatement()}.
 	 * @return This object.
 	 */
 	public BatchBuilder add(@NonNull AbstractQuery query) {
-		AbstractQuery raw = new Raw(query.getSQL(), query.getParams());
+		if (!query.isSingleStatement()) {
+			throw new IllegalArgumentException("Can't add a query with an IN list executed in parts or temporary tables to a batch");
+		}
+
+		String sql = query.getSQL();
+
+		if (this.sql == null) {
+			this.sql = sql;
+			this.tables = query.getTables();
+			this.columns = new ParamColumn[query.getParams().size()];
+
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = new ParamColumn();
+			}
+		} else if (!sql.equals(this.sql)) {
+			throw new IllegalArgumentException("Can't add a query '" + sql + "' to a batch. Expected the query to be '" + this.sql + "'");
+		}
 
-		if (!this.queries.isEmpty()) {
-			String first = this.queries.get(0).getSQL();
+		ParamColumn[] columns = this.columns;
+		int[] count = new int[1];
+
+		try {
+			query.forEachParam((index, value) -> {
+				if (index > columns.length) {
+					throw new IllegalArgumentException("Query '" + sql + "' has more than " + columns.length + " parameters");
+				}
+
+				columns[index - 1].add(value);
+				count[0]++;
+			});
+
+			if (count[0] != columns.length) {
+				throw new IllegalArgumentException("Query '" + sql + "' has " + count[0] + " parameters, expected " + columns.length);
+			}
+		} catch (SQLException | RuntimeException e) {
+			for (ParamColumn column : columns) {
+				column.truncate(this.size);
+			}
 
-			if (!raw.getSQL().equals(first)) {
-				throw new IllegalArgumentException("Can't add a query '" + raw.getSQL() + "' to a batch. Expected the query to be '" + first + "'");
+			if (e instanceof SQLException) {
+				// Builders do not throw SQLExceptions when iterating parameters
+				throw new IllegalStateException(e);
 			}
+
+			throw (RuntimeException) e;
 		}
 
-		this.queries.add(raw);
+		this.size++;
 
 		return this;
 	}
 
+	/**
+	 * @return Count of added queries.
+	 */
+	public int size() {
+		return this.size;
+	}
+
 	/**
 	 * Executes all added queries as a batch.
 	 * @param con Connection.
@@ -48,22 +101,70 @@ public final class BatchBuilder {
 	 * @throws SQLException On SQL error.
 	 */
 	public int[] execute(@NonNull Connection con) throws SQLException {
-		if (this.queries.isEmpty()) {
+		if (this.size == 0) {
 			return new int[0];
 		}
 
-		try (PreparedStatement s = con.prepareStatement(this.queries.get(0).getSQL())) {
-			for (AbstractQuery query : this.queries) {
-				List<Object> params = query.getParams();
+		QueryExecution execution = QueryExecution.startBatch(this.sql, this.size, this::firstParams);
+
+		try (PreparedStatement s = StatementCache.prepare(con, this.sql, PreparedStatement.NO_GENERATED_KEYS)) {
+			boolean[] direct = new boolean[this.columns.length];
 
-				for (int i = 0; i < params.size(); i++) {
-					s.setObject(i + 1, params.get(i));
+			for (int i = 0; i < this.columns.length; i++) {
+				direct[i] = this.columns[i].canBindDirectly();
+			}
+
+			for (int row = 0; row < this.size; row++) {
+				for (int i = 0; i < this.columns.length; i++) {
+					this.columns[i].bind(s, i + 1, row, direct[i]);
 				}
 
 				s.addBatch();
 			}
 
-			return s.executeBatch();
+			execution.bound();
+			int[] counts = s.executeBatch();
+			execution.executed();
+
+			long updated = 0;
+
+			for (int count : counts) {
+				if (count > 0) {
+					updated += count;
+				}
+			}
+
+			execution.succeeded(updated);
+
+			return counts;
+		} catch (SQLException | RuntimeException e) {
+			execution.failed(e);
+			throw e;
+		} finally {
+			invalidateCachedResults();
+		}
+	}
+
+	/**
+	 * @return Parameter values of the first added query.
+	 */
+	private List<Object> firstParams() {
+		List<Object> params = new ArrayList<>(this.columns.length);
+
+		for (ParamColumn column : this.columns) {
+			params.add(column.value(0));
+		}
+
+		return params;
+	}
+
+	/**
+	 * Marks cached results that depend on the table of the added queries as stale.
+	 * Called again by callers that commit the transaction after executing this batch.
+	 */
+	void invalidateCachedResults() {
+		if (this.tables != null) {
+			QueryResultCache.invalidate(this.tables);
 		}
 	}
 
@@ -79,4 +180,23 @@ public final class BatchBuilder {
 		}
 	}
 
+	/**
+	 * Executes {@link #execute(DataSource)} asynchronously using the default executor, see {@link #executeAsync(DataSource, Executor)}.
+	 * @param source Data source.
+	 * @return Future of an array of update counts for each executed statement.
+	 */
+	public CompletableFuture<int[]> executeAsync(@NonNull DataSource source) {
+		return executeAsync(source, ExecutorUtil.defaultExecutor());
+	}
+
+	/**
+	 * Executes {@link #execute(DataSource)} asynchronously. The builder must not be modified until the future is completed.
+	 * @param source Data source.
+	 * @param executor Executor to run the batch on.
+	 * @return Future of an array of update counts for each executed statement, completed exceptionally with {@link SQLException} on SQL error.
+	 */
+	public CompletableFuture<int[]> executeAsync(@NonNull DataSource source, @NonNull Executor executor) {
+		return ExecutorUtil.supplyAsync(() -> execute(source), executor);
+	}
+
 }
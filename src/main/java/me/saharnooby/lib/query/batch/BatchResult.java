@@ -0,0 +1,38 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aggregated result of a batch executed in several chunks.
+ * @author saharNooby
+ * @since 20:07 16.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public final class BatchResult {
+
+	/**
+	 * Count of executed rows.
+	 */
+	private final long rows;
+	/**
+	 * Sum of non-negative update counts. Drivers may return {@link java.sql.Statement#SUCCESS_NO_INFO}
+	 * instead of actual counts, such rows are not counted.
+	 */
+	private final long updateCount;
+	/**
+	 * Count of executed chunks.
+	 */
+	private final int chunks;
+	/**
+	 * Total time spent executing chunks.
+	 */
+	private final long nanos;
+
+	@Override
+	public String toString() {
+		return this.rows + " rows in " + this.chunks + " chunks, " + this.updateCount + " updated, " + (this.nanos / 1_000_000) + " ms";
+	}
+
+}
@@ -0,0 +1,41 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Statistics of a single chunk executed by a {@link ChunkedBatch}.
+ * @author saharNooby
+ * @since 20:05 16.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public final class ChunkStats {
+
+	/**
+	 * Index of the chunk, starting from 0.
+	 */
+	private final int index;
+	/**
+	 * Count of rows in the chunk.
+	 */
+	private final int rows;
+	/**
+	 * Estimated size of parameter values in the chunk.
+	 */
+	private final long bytes;
+	/**
+	 * Sum of non-negative update counts returned for the chunk.
+	 */
+	private final long updateCount;
+	/**
+	 * Time spent executing (and committing, if enabled) the chunk.
+	 */
+	private final long nanos;
+
+	@Override
+	public String toString() {
+		return "Chunk #" + this.index + ": " + this.rows + " rows, ~" + this.bytes + " bytes, " + this.updateCount + " updated, " + (this.nanos / 1_000_000) + " ms";
+	}
+
+}
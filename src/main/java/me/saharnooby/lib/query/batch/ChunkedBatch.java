@@ -0,0 +1,285 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.bind.Binders;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.cache.StatementCache;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Executes a query with multiple parameter lists in chunks of bounded size, using a single prepared statement.
+ * Unlike {@link BatchBuilder}, added queries are not stored: their parameters are bound to the statement right away,
+ * and the batch is executed each time the chunk reaches the configured row count or parameter size.
+ * <p>
+ * Like in {@link BatchBuilder}, the SQL text of all added queries must be exactly equal.
+ * Must be closed after use. Not thread-safe.
+ * @author saharNooby
+ * @since 20:10 16.10.2026
+ */
+public final class ChunkedBatch implements AutoCloseable {
+
+	private final Connection con;
+
+	private int chunkRows = 1000;
+	private long chunkBytes;
+	private boolean commitPerChunk;
+	private Consumer<ChunkStats> listener;
+
+	private String sql;
+	private List<String> tables;
+	private PreparedStatement statement;
+	private boolean restoreAutoCommit;
+
+	private int rowsInChunk;
+	private long bytesInChunk;
+
+	private long rows;
+	private long updateCount;
+	private int chunks;
+	private long nanos;
+
+	/**
+	 * Constructs a new batch.
+	 * @param con Connection to execute the batch on. Is not closed by this batch.
+	 */
+	public ChunkedBatch(@NonNull Connection con) {
+		this.con = con;
+	}
+
+	/**
+	 * Sets max count of rows in a chunk. Default is 1000.
+	 * @param rows Max count of rows, must be positive.
+	 * @return This object.
+	 */
+	public ChunkedBatch chunkRows(int rows) {
+		if (rows < 1) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.chunkRows = rows;
+
+		return this;
+	}
+
+	/**
+	 * Sets max estimated size of parameter values in a chunk. By default, chunk size is not limited.
+	 * @param bytes Max size in bytes, must be positive.
+	 * @return This object.
+	 */
+	public ChunkedBatch chunkBytes(long bytes) {
+		if (bytes < 1) {
+			throw new IllegalArgumentException("" + bytes);
+		}
+
+		this.chunkBytes = bytes;
+
+		return this;
+	}
+
+	/**
+	 * Commits the transaction after each chunk. If the connection is in auto-commit mode,
+	 * auto-commit is disabled for the lifetime of this batch.
+	 * @return This object.
+	 */
+	public ChunkedBatch commitPerChunk() {
+		this.commitPerChunk = true;
+
+		return this;
+	}
+
+	/**
+	 * Sets a listener which is called after each executed chunk.
+	 * @param listener Listener.
+	 * @return This object.
+	 */
+	public ChunkedBatch onChunk(@NonNull Consumer<ChunkStats> listener) {
+		this.listener = listener;
+
+		return this;
+	}
+
+	/**
+	 * Binds parameters of the query and adds them to the current chunk. Executes the chunk if it is full.
+	 * @param query Query to be added, must be a single statement, see {@link AbstractQuery#isSingleStatement()}.
+	 * @return This object.
+	 * @throws SQLException On SQL error.
+	 */
+	public ChunkedBatch add(@NonNull AbstractQuery query) throws SQLException {
+		if (!query.isSingleStatement()) {
+			throw new IllegalArgumentException("Can't add a query with an IN list executed in parts or temporary tables to a batch");
+		}
+
+		String sql = query.getSQL();
+
+		if (this.statement == null) {
+			open(sql);
+			this.tables = query.getTables();
+		} else if (!sql.equals(this.sql)) {
+			throw new IllegalArgumentException("Can't add a query '" + sql + "' to a batch. Expected the query to be '" + this.sql + "'");
+		}
+
+		PreparedStatement s = this.statement;
+		long[] bytes = new long[1];
+
+		query.forEachParam((index, value) -> {
+			Binders.bind(s, index, value);
+			bytes[0] += SQLUtil.estimateSize(value);
+		});
+
+		s.addBatch();
+
+		this.rowsInChunk++;
+		this.bytesInChunk += bytes[0];
+
+		if (this.rowsInChunk >= this.chunkRows || (this.chunkBytes > 0 && this.bytesInChunk >= this.chunkBytes)) {
+			flush();
+		}
+
+		return this;
+	}
+
+	/**
+	 * Adds all queries from the iterator, see {@link #add(AbstractQuery)}.
+	 * @param queries Queries.
+	 * @return This object.
+	 * @throws SQLException On SQL error.
+	 */
+	public ChunkedBatch addAll(@NonNull Iterator<? extends AbstractQuery> queries) throws SQLException {
+		while (queries.hasNext()) {
+			add(queries.next());
+		}
+
+		return this;
+	}
+
+	/**
+	 * Adds all queries from the stream, see {@link #add(AbstractQuery)}. The stream is consumed lazily.
+	 * @param queries Queries.
+	 * @return This object.
+	 * @throws SQLException On SQL error.
+	 */
+	public ChunkedBatch addAll(@NonNull Stream<? extends AbstractQuery> queries) throws SQLException {
+		return addAll(queries.iterator());
+	}
+
+	/**
+	 * Executes the current chunk, if it is not empty. If the execution fails, rows of the chunk are discarded,
+	 * and rows added after that start a new chunk.
+	 * @throws SQLException On SQL error.
+	 */
+	public void flush() throws SQLException {
+		if (this.rowsInChunk == 0) {
+			return;
+		}
+
+		int rowsInChunk = this.rowsInChunk;
+		long bytesInChunk = this.bytesInChunk;
+
+		long start = System.nanoTime();
+
+		int[] counts;
+
+		try {
+			counts = this.statement.executeBatch();
+		} catch (SQLException | RuntimeException e) {
+			// Drivers differ in whether a failed batch is cleared, so the next chunk must not include these rows
+			try {
+				this.statement.clearBatch();
+			} catch (SQLException ex) {
+				e.addSuppressed(ex);
+			}
+
+			throw e;
+		} finally {
+			this.rowsInChunk = 0;
+			this.bytesInChunk = 0;
+
+			QueryResultCache.invalidate(this.tables);
+		}
+
+		if (this.commitPerChunk) {
+			this.con.commit();
+
+			// A concurrent reader could have cached uncommitted data between the invalidation above and the commit
+			QueryResultCache.invalidate(this.tables);
+		}
+
+		long time = System.nanoTime() - start;
+
+		long updated = 0;
+
+		for (int count : counts) {
+			if (count > 0) {
+				updated += count;
+			}
+		}
+
+		ChunkStats stats = new ChunkStats(this.chunks, rowsInChunk, bytesInChunk, updated, time);
+
+		this.rows += rowsInChunk;
+		this.updateCount += updated;
+		this.chunks++;
+		this.nanos += time;
+
+		if (this.listener != null) {
+			this.listener.accept(stats);
+		}
+	}
+
+	/**
+	 * Executes the last chunk and returns aggregated results of all executed chunks.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public BatchResult finish() throws SQLException {
+		flush();
+
+		return new BatchResult(this.rows, this.updateCount, this.chunks, this.nanos);
+	}
+
+	/**
+	 * Closes the statement. Rows that were added after the last executed chunk are discarded.
+	 * Restores auto-commit mode of the connection if it was changed.
+	 * @throws SQLException On SQL error.
+	 */
+	@Override
+	public void close() throws SQLException {
+		try {
+			if (this.statement != null) {
+				this.statement.close();
+			}
+		} finally {
+			this.statement = null;
+
+			if (this.restoreAutoCommit) {
+				this.restoreAutoCommit = false;
+
+				try {
+					this.con.rollback();
+				} finally {
+					this.con.setAutoCommit(true);
+				}
+			}
+		}
+	}
+
+	private void open(@NonNull String sql) throws SQLException {
+		if (this.commitPerChunk && this.con.getAutoCommit()) {
+			this.con.setAutoCommit(false);
+			this.restoreAutoCommit = true;
+		}
+
+		this.statement = StatementCache.prepare(this.con, sql, PreparedStatement.NO_GENERATED_KEYS);
+		this.sql = sql;
+	}
+
+}
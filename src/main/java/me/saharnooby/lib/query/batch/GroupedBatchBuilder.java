@@ -0,0 +1,223 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.bind.Binders;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.cache.StatementCache;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.query.impl.Raw;
+import me.saharnooby.lib.query.set.IntList;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Allows executing queries with different SQL text as batches in a single transaction.
+ * Added queries are grouped by SQL text, and each group is executed using a single
+ * {@link PreparedStatement} and {@link PreparedStatement#executeBatch()}.
+ * <p>
+ * Queries of the same group are always executed in order of adding. By default, groups are executed one after another,
+ * in order of adding their first queries. If {@link #preserveOrder()} is enabled, the order across groups is kept too:
+ * each run of consecutive queries with the same SQL text is executed as a separate batch.
+ * @author saharNooby
+ * @since 21:40 16.10.2026
+ */
+public final class GroupedBatchBuilder {
+
+	private final List<AbstractQuery> queries = new ArrayList<>();
+	private final Set<String> tables = new LinkedHashSet<>();
+
+	private boolean preserveOrder;
+
+	/**
+	 * Makes the batch execute queries in the exact order of adding, including order across groups.
+	 * This requires more round trips if queries with different SQL text are interleaved.
+	 * @return This object.
+	 */
+	public GroupedBatchBuilder preserveOrder() {
+		this.preserveOrder = true;
+		return this;
+	}
+
+	/**
+	 * Adds a query to the batch.
+	 * @param query Query to be added, must be a single statement, see {@link AbstractQuery#isSingleStatement()}.
+	 * @return This object.
+	 */
+	public GroupedBatchBuilder add(@NonNull AbstractQuery query) {
+		if (!query.isSingleStatement()) {
+			throw new IllegalArgumentException("Can't add a query with an IN list executed in parts or temporary tables to a batch");
+		}
+
+		this.queries.add(new Raw(query.getSQL(), query.getParams()));
+		this.tables.addAll(query.getTables());
+		return this;
+	}
+
+	/**
+	 * @return Count of added queries.
+	 */
+	public int size() {
+		return this.queries.size();
+	}
+
+	/**
+	 * Executes all added queries. If the connection is in auto-commit mode, queries are executed in a transaction,
+	 * which is rolled back on error; otherwise, queries become a part of the current transaction.
+	 * @param con Connection.
+	 * @return An array of update counts for each added query, in order of adding.
+	 * @throws SQLException On SQL error.
+	 */
+	public int[] execute(@NonNull Connection con) throws SQLException {
+		if (this.queries.isEmpty()) {
+			return new int[0];
+		}
+
+		try {
+			if (!con.getAutoCommit()) {
+				return executeAll(con);
+			}
+
+			con.setAutoCommit(false);
+
+			Exception error = null;
+
+			try {
+				int[] counts = executeAll(con);
+				con.commit();
+				return counts;
+			} catch (SQLException | RuntimeException e) {
+				error = e;
+
+				try {
+					con.rollback();
+				} catch (SQLException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+
+				throw e;
+			} finally {
+				try {
+					con.setAutoCommit(true);
+				} catch (SQLException e) {
+					// Don't hide the original exception
+					if (error == null) {
+						throw e;
+					}
+
+					error.addSuppressed(e);
+				}
+			}
+		} finally {
+			QueryResultCache.invalidate(this.tables);
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, executes all added queries and closes the connection.
+	 * @param source Data source.
+	 * @return An array of update counts for each added query, in order of adding.
+	 * @throws SQLException On SQL error.
+	 */
+	public int[] execute(@NonNull DataSource source) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			return execute(con);
+		}
+	}
+
+	private int[] executeAll(@NonNull Connection con) throws SQLException {
+		int[] counts = new int[this.queries.size()];
+
+		if (!this.preserveOrder) {
+			// Indices of queries by SQL text, in order of adding
+			Map<String, IntList> groups = new LinkedHashMap<>();
+
+			for (int i = 0; i < this.queries.size(); i++) {
+				groups.computeIfAbsent(this.queries.get(i).getSQL(), k -> new IntList()).add(i);
+			}
+
+			for (Map.Entry<String, IntList> e : groups.entrySet()) {
+				try (PreparedStatement s = StatementCache.prepare(con, e.getKey(), PreparedStatement.NO_GENERATED_KEYS)) {
+					executeBatch(s, e.getValue(), counts);
+				}
+			}
+
+			return counts;
+		}
+
+		Map<String, PreparedStatement> statements = new HashMap<>();
+
+		try {
+			int start = 0;
+
+			while (start < this.queries.size()) {
+				String sql = this.queries.get(start).getSQL();
+
+				int end = start + 1;
+
+				while (end < this.queries.size() && this.queries.get(end).getSQL().equals(sql)) {
+					end++;
+				}
+
+				PreparedStatement s = statements.get(sql);
+
+				if (s == null) {
+					s = StatementCache.prepare(con, sql, PreparedStatement.NO_GENERATED_KEYS);
+					statements.put(sql, s);
+				}
+
+				IntList run = new IntList(end - start);
+
+				for (int i = start; i < end; i++) {
+					run.add(i);
+				}
+
+				executeBatch(s, run, counts);
+
+				start = end;
+			}
+		} finally {
+			closeAll(statements.values());
+		}
+
+		return counts;
+	}
+
+	private void executeBatch(@NonNull PreparedStatement s, @NonNull IntList indices, int[] counts) throws SQLException {
+		for (int i = 0; i < indices.size(); i++) {
+			this.queries.get(indices.get(i)).forEachParam((index, value) -> Binders.bind(s, index, value));
+
+			s.addBatch();
+		}
+
+		int[] result = s.executeBatch();
+
+		for (int i = 0; i < result.length && i < indices.size(); i++) {
+			counts[indices.get(i)] = result[i];
+		}
+	}
+
+	private static void closeAll(@NonNull Collection<PreparedStatement> statements) throws SQLException {
+		SQLException error = null;
+
+		for (PreparedStatement s : statements) {
+			try {
+				s.close();
+			} catch (SQLException e) {
+				if (error == null) {
+					error = e;
+				} else {
+					error.addSuppressed(e);
+				}
+			}
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Splits a batch into partitions and executes each partition on its own connection
+ * and in its own transaction, in parallel.
+ * <p>
+ * Queries added without a key are distributed across partitions in round-robin order.
+ * Queries added with a key are put into the partition determined by the key hash,
+ * so queries with the same key are executed in order of adding.
+ * <p>
+ * Like in {@link BatchBuilder}, the SQL text of all added queries must be exactly equal.
+ * Not thread-safe.
+ * @author saharNooby
+ * @since 10:20 16.10.2026
+ */
+public final class ParallelBatch {
+
+	private final BatchBuilder[] partitions;
+
+	private Executor executor;
+	private int next;
+
+	/**
+	 * Constructs a new batch.
+	 * @param partitions Count of partitions, must be positive. At most this count of connections is used at once.
+	 */
+	public ParallelBatch(int partitions) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("" + partitions);
+		}
+
+		this.partitions = new BatchBuilder[partitions];
+
+		for (int i = 0; i < partitions; i++) {
+			this.partitions[i] = new BatchBuilder();
+		}
+	}
+
+	/**
+	 * Sets an executor for running partitions. By default, virtual threads are used on Java 21+,
+	 * and a shared bounded thread pool is used on older versions.
+	 * @param executor Executor.
+	 * @return This object.
+	 */
+	public ParallelBatch executor(@NonNull Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Adds a query to the next partition in round-robin order.
+	 * @param query Query to be added.
+	 * @return This object.
+	 */
+	public ParallelBatch add(@NonNull AbstractQuery query) {
+		this.partitions[this.next].add(query);
+		this.next = (this.next + 1) % this.partitions.length;
+		return this;
+	}
+
+	/**
+	 * Adds a query to the partition determined by the key. Queries with equal keys are executed in order of adding.
+	 * @param key Partition key.
+	 * @param query Query to be added.
+	 * @return This object.
+	 */
+	public ParallelBatch add(@NonNull Object key, @NonNull AbstractQuery query) {
+		this.partitions[Math.floorMod(key.hashCode(), this.partitions.length)].add(query);
+		return this;
+	}
+
+	/**
+	 * Executes all partitions in parallel and waits for them to complete. Each partition obtains its own connection from the source,
+	 * and is executed in a transaction which is committed on success and rolled back on error.
+	 * Failure of a partition does not affect other partitions. If the executor rejects a partition,
+	 * the {@link java.util.concurrent.RejectedExecutionException} is reported as its failure.
+	 * @param source Data source.
+	 * @return Combined result, including failures of partitions.
+	 */
+	public ParallelBatchResult execute(@NonNull DataSource source) {
+		Executor executor = this.executor != null ? this.executor : ExecutorUtil.defaultExecutor();
+
+		int[][] counts = new int[this.partitions.length][];
+		Map<Integer, Exception> failures = new TreeMap<>();
+
+		List<CompletableFuture<int[]>> futures = new ArrayList<>(this.partitions.length);
+
+		for (BatchBuilder partition : this.partitions) {
+			if (partition.size() == 0) {
+				futures.add(CompletableFuture.completedFuture(new int[0]));
+			} else {
+				// If the executor rejects the partition, the future completes exceptionally, and the partition is reported as failed
+				futures.add(ExecutorUtil.supplyAsync(() -> executePartition(source, partition), executor));
+			}
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				counts[i] = futures.get(i).join();
+			} catch (CompletionException e) {
+				if (!(e.getCause() instanceof Exception)) {
+					throw e;
+				}
+
+				counts[i] = new int[0];
+				failures.put(i, (Exception) e.getCause());
+			}
+		}
+
+		return new ParallelBatchResult(counts, failures);
+	}
+
+	private static int[] executePartition(@NonNull DataSource source, @NonNull BatchBuilder partition) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			boolean autoCommit = con.getAutoCommit();
+
+			if (autoCommit) {
+				con.setAutoCommit(false);
+			}
+
+			Exception error = null;
+
+			try {
+				int[] counts = partition.execute(con);
+				con.commit();
+
+				// The batch invalidated cached results before the commit, when a concurrent reader could cache old data again
+				partition.invalidateCachedResults();
+
+				return counts;
+			} catch (SQLException | RuntimeException e) {
+				error = e;
+
+				try {
+					con.rollback();
+				} catch (SQLException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+
+				throw e;
+			} finally {
+				if (autoCommit) {
+					try {
+						con.setAutoCommit(true);
+					} catch (SQLException e) {
+						// Don't hide the original exception
+						if (error == null) {
+							throw e;
+						}
+
+						error.addSuppressed(e);
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of a {@link ParallelBatch} execution.
+ * @author saharNooby
+ * @since 10:30 16.10.2026
+ */
+public final class ParallelBatchResult {
+
+	private final int[][] counts;
+	private final Map<Integer, Exception> failures;
+
+	ParallelBatchResult(int[][] counts, @NonNull Map<Integer, Exception> failures) {
+		this.counts = counts;
+		this.failures = Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * @param partition Partition index.
+	 * @return Update counts of the partition, in order of adding. Empty if the partition failed or contained no queries.
+	 */
+	public int[] getCounts(int partition) {
+		return this.counts[partition].clone();
+	}
+
+	/**
+	 * @return Sum of non-negative update counts of all successful partitions.
+	 */
+	public long getUpdateCount() {
+		long sum = 0;
+
+		for (int[] partition : this.counts) {
+			for (int count : partition) {
+				if (count > 0) {
+					sum += count;
+				}
+			}
+		}
+
+		return sum;
+	}
+
+	/**
+	 * @return Count of partitions.
+	 */
+	public int getPartitionCount() {
+		return this.counts.length;
+	}
+
+	/**
+	 * @return Exceptions thrown by failed partitions, by partition index. Transactions of failed partitions were rolled back.
+	 */
+	public Map<Integer, Exception> getFailures() {
+		return this.failures;
+	}
+
+	/**
+	 * @return True if all partitions were executed successfully.
+	 */
+	public boolean isSuccessful() {
+		return this.failures.isEmpty();
+	}
+
+	/**
+	 * Throws the first failure, with other failures added as suppressed exceptions.
+	 * @return This object, if all partitions were executed successfully.
+	 * @throws SQLException If any partition failed.
+	 */
+	public ParallelBatchResult throwIfFailed() throws SQLException {
+		if (this.failures.isEmpty()) {
+			return this;
+		}
+
+		SQLException error = null;
+
+		for (Map.Entry<Integer, Exception> e : this.failures.entrySet()) {
+			if (error == null) {
+				error = e.getValue() instanceof SQLException ? (SQLException) e.getValue() : new SQLException("Partition " + e.getKey() + " failed", e.getValue());
+			} else {
+				error.addSuppressed(e.getValue());
+			}
+		}
+
+		throw error;
+	}
+
+}
@@ -0,0 +1,237 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.bind.Binders;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Stores values of a single parameter of all rows in a batch.
+ * While all values have the same class, <code>Long</code>, <code>Integer</code> and <code>Double</code>
+ * values are stored in primitive arrays. If values of different classes are added, the column
+ * falls back to storing boxed values. Nulls are stored in a bitmap.
+ * @author saharNooby
+ * @since 22:20 16.10.2026
+ */
+final class ParamColumn {
+
+	private enum Kind {
+
+		/**
+		 * Only nulls were added.
+		 */
+		EMPTY,
+		LONG,
+		INT,
+		DOUBLE,
+		/**
+		 * Values are stored in the object array, but all non-null values are strings.
+		 */
+		STRING,
+		OBJECT
+
+	}
+
+	private Kind kind = Kind.EMPTY;
+	private int size;
+
+	private long[] longs;
+	private int[] ints;
+	private double[] doubles;
+	private Object[] objects;
+
+	private long[] nulls = new long[1];
+
+	void add(Object value) {
+		int row = this.size++;
+
+		if ((row >> 6) >= this.nulls.length) {
+			this.nulls = Arrays.copyOf(this.nulls, this.nulls.length * 2);
+		}
+
+		if (value == null) {
+			this.nulls[row >> 6] |= 1L << row;
+			ensureCapacity();
+			return;
+		}
+
+		if (this.kind == Kind.EMPTY) {
+			this.kind = kindOf(value);
+			ensureCapacity();
+		} else if (this.kind != Kind.OBJECT && this.kind != kindOf(value)) {
+			convertToObjects();
+		} else {
+			ensureCapacity();
+		}
+
+		switch (this.kind) {
+			case LONG:
+				this.longs[row] = (Long) value;
+				break;
+			case INT:
+				this.ints[row] = (Integer) value;
+				break;
+			case DOUBLE:
+				this.doubles[row] = (Double) value;
+				break;
+			default:
+				this.objects[row] = value;
+		}
+	}
+
+	/**
+	 * Removes values of rows starting from the specified row.
+	 */
+	void truncate(int size) {
+		for (int row = size; row < this.size; row++) {
+			this.nulls[row >> 6] &= ~(1L << row);
+
+			if (this.objects != null) {
+				this.objects[row] = null;
+			}
+		}
+
+		this.size = Math.min(this.size, size);
+	}
+
+	/**
+	 * Checks whether values of this column can be bound using their specific setters, see {@link #bind(PreparedStatement, int, int, boolean)}.
+	 * This is true when all values have the same class, and no custom binder is registered for it.
+	 */
+	boolean canBindDirectly() {
+		switch (this.kind) {
+			case LONG:
+				return Binders.isBuiltIn(Long.class);
+			case INT:
+				return Binders.isBuiltIn(Integer.class);
+			case DOUBLE:
+				return Binders.isBuiltIn(Double.class);
+			case STRING:
+				return Binders.isBuiltIn(String.class);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Binds a value of the row to the statement.
+	 * If <code>direct</code> is true, long, integer, double and string values are bound using their specific setters,
+	 * otherwise all values are bound using {@link Binders}.
+	 */
+	void bind(@NonNull PreparedStatement s, int index, int row, boolean direct) throws SQLException {
+		if ((this.nulls[row >> 6] & (1L << row)) != 0) {
+			s.setObject(index, null);
+			return;
+		}
+
+		if (!direct) {
+			Binders.bind(s, index, get(row));
+			return;
+		}
+
+		switch (this.kind) {
+			case LONG:
+				s.setLong(index, this.longs[row]);
+				break;
+			case INT:
+				s.setInt(index, this.ints[row]);
+				break;
+			case DOUBLE:
+				s.setDouble(index, this.doubles[row]);
+				break;
+			case STRING:
+				s.setString(index, (String) this.objects[row]);
+				break;
+			default:
+				Binders.bind(s, index, this.objects[row]);
+		}
+	}
+
+	/**
+	 * @return Value of the row, possibly null.
+	 */
+	Object value(int row) {
+		return (this.nulls[row >> 6] & (1L << row)) != 0 ? null : get(row);
+	}
+
+	private Object get(int row) {
+		switch (this.kind) {
+			case LONG:
+				return this.longs[row];
+			case INT:
+				return this.ints[row];
+			case DOUBLE:
+				return this.doubles[row];
+			default:
+				return this.objects[row];
+		}
+	}
+
+	private void ensureCapacity() {
+		int capacity = this.size < 16 ? 16 : this.size + (this.size >> 1);
+
+		switch (this.kind) {
+			case LONG:
+				if (this.longs == null || this.longs.length < this.size) {
+					this.longs = this.longs == null ? new long[capacity] : Arrays.copyOf(this.longs, capacity);
+				}
+				break;
+			case INT:
+				if (this.ints == null || this.ints.length < this.size) {
+					this.ints = this.ints == null ? new int[capacity] : Arrays.copyOf(this.ints, capacity);
+				}
+				break;
+			case DOUBLE:
+				if (this.doubles == null || this.doubles.length < this.size) {
+					this.doubles = this.doubles == null ? new double[capacity] : Arrays.copyOf(this.doubles, capacity);
+				}
+				break;
+			case STRING:
+			case OBJECT:
+				if (this.objects == null || this.objects.length < this.size) {
+					this.objects = this.objects == null ? new Object[capacity] : Arrays.copyOf(this.objects, capacity);
+				}
+				break;
+			default:
+				// Nulls are stored only in the bitmap
+		}
+	}
+
+	private void convertToObjects() {
+		Object[] objects = new Object[Math.max(16, this.size + (this.size >> 1))];
+		int previous = this.size - 1;
+
+		for (int row = 0; row < previous; row++) {
+			if ((this.nulls[row >> 6] & (1L << row)) != 0) {
+				continue;
+			}
+
+			objects[row] = get(row);
+		}
+
+		this.kind = Kind.OBJECT;
+		this.longs = null;
+		this.ints = null;
+		this.doubles = null;
+		this.objects = objects;
+	}
+
+	private static Kind kindOf(@NonNull Object value) {
+		Class<?> type = value.getClass();
+
+		if (type == Long.class) {
+			return Kind.LONG;
+		} else if (type == Integer.class) {
+			return Kind.INT;
+		} else if (type == Double.class) {
+			return Kind.DOUBLE;
+		} else if (type == String.class) {
+			return Kind.STRING;
+		}
+
+		return Kind.OBJECT;
+	}
+
+}
@@ -0,0 +1,803 @@
+package me.saharnooby.lib.query.batch;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.BulkInsert;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Buffers writes of rows of a table in memory, merging repeated writes of the same primary key,
+ * and writes them to the database in the background with multi-row upserts:
+ * <code>INSERT INTO t (...) VALUES (...), (...) ON DUPLICATE KEY UPDATE ...</code>.
+ * <p>
+ * By default, the last written value of a column wins. Columns marked by {@link #sum(String...)} accumulate
+ * written values, which are added to the stored values on flush, like counters. Other merge functions can be set
+ * by {@link #merge(String, BinaryOperator)}; their result replaces the stored value.
+ * <p>
+ * Buffered rows are flushed periodically and when their count reaches the threshold. Count of buffered rows
+ * is bounded: when the buffer is full, writing a new key waits for a flush. Each flush is executed in a transaction;
+ * if it fails, its rows are merged back into the buffer and retried by the next flush after the {@link #retryDelay(Duration)}.
+ * Rows which failed to be written {@link #maxAttempts(int)} times are dropped and passed to {@link #onDrop(Consumer)}. Buffered writes are lost
+ * if the process is killed, and sums may be applied twice if committing the transaction fails after the database
+ * applied it. A shutdown hook flushes the buffer when the JVM exits normally.
+ * <p>
+ * Writing does not take locks except those of {@link ConcurrentHashMap} bins; flushes are serialized,
+ * so writes of the same key reach the database in order.
+ * <pre>
+ * WriteBehindBuffer views = new WriteBehindBuffer(dataSource, "page_views")
+ *     .keys("page_id", "day")
+ *     .columns("views", "last_seen")
+ *     .sum("views")
+ *     .start();
+ * ...
+ * views.put(pageId, day, 1, now);
+ * </pre>
+ * @author saharNooby
+ * @since 18:30 16.10.2026
+ */
+public final class WriteBehindBuffer implements AutoCloseable {
+
+	private final DataSource source;
+	private final String database;
+	private final String table;
+
+	private final List<String> keys = new ArrayList<>();
+	private final List<String> columns = new ArrayList<>();
+	private final Set<String> sums = new HashSet<>();
+	private final Map<String, BinaryOperator<Object>> mergers = new HashMap<>();
+
+	private int maxRows = 100_000;
+	private int flushRows = 10_000;
+	private long flushIntervalNanos = TimeUnit.SECONDS.toNanos(1);
+	private long maxWaitNanos = TimeUnit.SECONDS.toNanos(30);
+	private int maxAttempts = 5;
+	private long retryDelayNanos = TimeUnit.SECONDS.toNanos(1);
+	private Executor executor = ExecutorUtil.defaultExecutor();
+	private Consumer<Throwable> errorHandler;
+	private Consumer<Object[]> dropHandler;
+
+	/**
+	 * Merge functions of value columns, null elements mean that the last value wins. Set on start.
+	 */
+	private List<BinaryOperator<Object>> columnMergers;
+
+	private final Map<List<Object>, Object[]> rows = new ConcurrentHashMap<>();
+	private final AtomicInteger rowCount = new AtomicInteger();
+	/**
+	 * Monitor notified when buffered rows are flushed.
+	 */
+	private final Object space = new Object();
+	private final Object flushLock = new Object();
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	/**
+	 * Count of failed flushes of buffered keys, accessed only under the flush lock.
+	 */
+	private final Map<List<Object>, Integer> failedAttempts = new HashMap<>();
+	/**
+	 * Count of consecutive failed flushes, written only under the flush lock.
+	 */
+	private volatile int failedFlushes;
+	/**
+	 * Time before which background flushes are skipped, valid if the last flush failed.
+	 */
+	private volatile long retryAt;
+
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder flushedRows = new LongAdder();
+	private final LongAdder droppedRows = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+
+	private volatile boolean started;
+	private volatile boolean closed;
+	private ScheduledFuture<?> periodicFlush;
+	private Thread shutdownHook;
+
+	/**
+	 * Creates a buffer.
+	 * @param source Source of connections.
+	 * @param table Table name.
+	 */
+	public WriteBehindBuffer(@NonNull DataSource source, @NonNull String table) {
+		this(source, null, table);
+	}
+
+	/**
+	 * Creates a buffer.
+	 * @param source Source of connections.
+	 * @param database Database name, may be null.
+	 * @param table Table name.
+	 */
+	public WriteBehindBuffer(@NonNull DataSource source, String database, @NonNull String table) {
+		SQLUtil.validateIdentifier(table);
+
+		this.source = source;
+		this.database = database;
+		this.table = table;
+	}
+
+	/**
+	 * Adds primary key columns.
+	 * @param columns Column names.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer keys(@NonNull String... columns) {
+		addColumns(this.keys, columns);
+
+		return this;
+	}
+
+	/**
+	 * Adds value columns, which are written after key columns.
+	 * @param columns Column names.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer columns(@NonNull String... columns) {
+		addColumns(this.columns, columns);
+
+		return this;
+	}
+
+	/**
+	 * Makes written values of specified numeric columns be summed in the buffer, and added to stored values on flush.
+	 * Values must not be null.
+	 * @param columns Value column names.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer sum(@NonNull String... columns) {
+		checkNotStarted();
+
+		for (String column : columns) {
+			checkValueColumn(column);
+
+			this.sums.add(column);
+			this.mergers.put(column, WriteBehindBuffer::add);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Sets a function which merges a buffered value of a column with a new written value. The result replaces the stored value on flush.
+	 * @param column Value column name.
+	 * @param merger Function, accepts the buffered value and the new value.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer merge(@NonNull String column, @NonNull BinaryOperator<Object> merger) {
+		checkNotStarted();
+		checkValueColumn(column);
+
+		this.sums.remove(column);
+		this.mergers.put(column, merger);
+
+		return this;
+	}
+
+	/**
+	 * Sets max count of buffered rows. When it is reached, writes of new keys wait for a flush. Default is 100000.
+	 * @param rows Max count of rows.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer maxRows(int rows) {
+		checkNotStarted();
+
+		if (rows < 1) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.maxRows = rows;
+
+		return this;
+	}
+
+	/**
+	 * Sets count of buffered rows which triggers a flush. Default is 10000.
+	 * @param rows Count of rows.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer flushAt(int rows) {
+		checkNotStarted();
+
+		if (rows < 1) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.flushRows = rows;
+
+		return this;
+	}
+
+	/**
+	 * Sets the interval of periodic flushes. Default is 1 second.
+	 * @param interval Interval, zero disables periodic flushes.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer flushEvery(@NonNull Duration interval) {
+		checkNotStarted();
+
+		if (interval.isNegative()) {
+			throw new IllegalArgumentException("" + interval);
+		}
+
+		this.flushIntervalNanos = interval.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Sets max time to wait for space in a full buffer, after which {@link #put(Object...)} throws an exception. Default is 30 seconds.
+	 * @param maxWait Max time to wait.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer maxWait(@NonNull Duration maxWait) {
+		checkNotStarted();
+
+		if (maxWait.isNegative()) {
+			throw new IllegalArgumentException("" + maxWait);
+		}
+
+		this.maxWaitNanos = maxWait.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Sets count of failed flushes after which a row is dropped from the buffer instead of being retried. Default is 5.
+	 * Since a flush writes all rows in a single transaction, a row which always fails makes other rows of its flushes be dropped too.
+	 * @param attempts Max count of attempts to write a row.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer maxAttempts(int attempts) {
+		checkNotStarted();
+
+		if (attempts < 1) {
+			throw new IllegalArgumentException("" + attempts);
+		}
+
+		this.maxAttempts = attempts;
+
+		return this;
+	}
+
+	/**
+	 * Sets the delay of background flushes after a failed flush, so a short outage does not use up {@link #maxAttempts(int)} at once.
+	 * The delay is doubled after each consecutive failed flush, up to 32 times the specified delay. Explicit calls of {@link #flush()}
+	 * are not delayed. Default is 1 second.
+	 * @param delay Delay after the first failed flush, zero disables delays.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer retryDelay(@NonNull Duration delay) {
+		checkNotStarted();
+
+		if (delay.isNegative()) {
+			throw new IllegalArgumentException("" + delay);
+		}
+
+		this.retryDelayNanos = delay.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Sets the executor to run background flushes on. By default, virtual threads are used on Java 21+,
+	 * and a shared bounded thread pool on older versions.
+	 * @param executor Executor.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer executor(@NonNull Executor executor) {
+		checkNotStarted();
+
+		this.executor = executor;
+
+		return this;
+	}
+
+	/**
+	 * Sets the handler of errors of background flushes. By default, errors are only counted, see {@link #getErrorCount()}.
+	 * @param handler Handler.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer onError(@NonNull Consumer<Throwable> handler) {
+		checkNotStarted();
+
+		this.errorHandler = handler;
+
+		return this;
+	}
+
+	/**
+	 * Sets the handler of rows dropped after {@link #maxAttempts(int)} failed flushes, like a dead letter queue.
+	 * By default, dropped rows are only counted, see {@link #getDroppedRowCount()}.
+	 * @param handler Handler, accepts values of key columns, then values of value columns, like {@link #put(Object...)}.
+	 * Called on the flushing thread before the error of the flush is thrown.
+	 * @return This object.
+	 */
+	public WriteBehindBuffer onDrop(@NonNull Consumer<Object[]> handler) {
+		checkNotStarted();
+
+		this.dropHandler = handler;
+
+		return this;
+	}
+
+	/**
+	 * Starts periodic flushes and registers the shutdown hook. Configuration can't be changed after starting.
+	 * @return This object.
+	 */
+	public synchronized WriteBehindBuffer start() {
+		checkNotStarted();
+
+		if (this.keys.isEmpty() || this.columns.isEmpty()) {
+			throw new IllegalStateException("Specify key and value columns first");
+		}
+
+		this.columnMergers = new ArrayList<>(this.columns.size());
+
+		for (String column : this.columns) {
+			this.columnMergers.add(this.mergers.get(column));
+		}
+
+		if (this.flushIntervalNanos != 0) {
+			this.periodicFlush = ExecutorUtil.scheduler().scheduleWithFixedDelay(this::requestFlush, this.flushIntervalNanos, this.flushIntervalNanos, TimeUnit.NANOSECONDS);
+		}
+
+		this.shutdownHook = new Thread(this::closeQuietly, "query-lib-write-behind-" + this.table);
+		Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+
+		this.started = true;
+
+		return this;
+	}
+
+	/**
+	 * Writes a row to the buffer, merging it with the buffered row with the same key.
+	 * Waits for a flush if the key is not buffered and the buffer is full.
+	 * @param values Values of key columns, then values of value columns, in order of adding.
+	 * @throws IllegalStateException If the buffer is not started or closed, or if there was no space in the buffer for the max wait time.
+	 */
+	public void put(@NonNull Object... values) {
+		if (!this.started || this.closed) {
+			throw new IllegalStateException(this.started ? "Buffer is closed" : "Buffer is not started");
+		}
+
+		int keyCount = this.keys.size();
+
+		if (values.length != keyCount + this.columns.size()) {
+			throw new IllegalArgumentException("Expected " + (keyCount + this.columns.size()) + " values, got " + values.length);
+		}
+
+		List<Object> key = Arrays.asList(Arrays.copyOf(values, keyCount));
+		Object[] row = Arrays.copyOfRange(values, keyCount, values.length);
+
+		this.writes.increment();
+
+		// Merging into a buffered row does not need space
+		if (this.rows.computeIfPresent(key, (k, buffered) -> merge(buffered, row)) != null) {
+			return;
+		}
+
+		reserveSpace();
+
+		if (!insertOrMerge(key, row)) {
+			this.rowCount.decrementAndGet();
+		}
+
+		if (this.rowCount.get() >= this.flushRows) {
+			requestFlush();
+		}
+	}
+
+	/**
+	 * Writes all buffered rows to the database on the calling thread.
+	 * @return Count of written rows.
+	 * @throws SQLException On SQL error. Rows are kept in the buffer, except rows which failed {@link #maxAttempts(int)} times.
+	 */
+	public int flush() throws SQLException {
+		synchronized (this.flushLock) {
+			Map<List<Object>, Object[]> batch = new HashMap<>();
+
+			for (List<Object> key : this.rows.keySet()) {
+				Object[] row = this.rows.remove(key);
+
+				if (row != null) {
+					batch.put(key, row);
+				}
+			}
+
+			if (batch.isEmpty()) {
+				return 0;
+			}
+
+			try {
+				write(batch);
+			} catch (SQLException | RuntimeException e) {
+				int failedFlushes = this.failedFlushes + 1;
+				this.retryAt = System.nanoTime() + (this.retryDelayNanos << Math.min(failedFlushes - 1, 5));
+				this.failedFlushes = failedFlushes;
+
+				List<Object[]> dropped = new ArrayList<>();
+
+				// The transaction was rolled back, writes made since the rows were taken are merged after them
+				batch.forEach((key, row) -> {
+					int attempts = this.failedAttempts.merge(key, 1, Integer::sum);
+
+					if (attempts >= this.maxAttempts) {
+						this.failedAttempts.remove(key);
+
+						Object[] values = key.toArray(new Object[key.size() + row.length]);
+						System.arraycopy(row, 0, values, key.size(), row.length);
+						dropped.add(values);
+
+						return;
+					}
+
+					boolean[] added = new boolean[1];
+
+					this.rows.compute(key, (k, newer) -> {
+						if (newer == null) {
+							added[0] = true;
+							return row;
+						}
+
+						return merge(row, newer);
+					});
+
+					if (added[0]) {
+						this.rowCount.incrementAndGet();
+					}
+				});
+
+				drop(dropped, e);
+
+				throw e;
+			} finally {
+				this.rowCount.addAndGet(-batch.size());
+
+				synchronized (this.space) {
+					this.space.notifyAll();
+				}
+			}
+
+			this.failedFlushes = 0;
+
+			if (!this.failedAttempts.isEmpty()) {
+				this.failedAttempts.keySet().removeAll(batch.keySet());
+			}
+
+			this.flushedRows.add(batch.size());
+
+			return batch.size();
+		}
+	}
+
+	/**
+	 * Stops periodic flushes and flushes buffered rows. Rows can't be written after closing;
+	 * rows written concurrently with closing may be left in the buffer.
+	 * @throws SQLException If the final flush failed.
+	 */
+	@Override
+	public void close() throws SQLException {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+
+			this.closed = true;
+
+			if (this.periodicFlush != null) {
+				this.periodicFlush.cancel(false);
+			}
+
+			if (this.shutdownHook != null && Thread.currentThread() != this.shutdownHook) {
+				try {
+					Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+				} catch (IllegalStateException e) {
+					// The JVM is shutting down
+				}
+			}
+		}
+
+		flush();
+	}
+
+	/**
+	 * @return Count of buffered rows.
+	 */
+	public int getBufferedRowCount() {
+		return Math.max(0, this.rowCount.get());
+	}
+
+	/**
+	 * @return Count of {@link #put(Object...)} calls.
+	 */
+	public long getWriteCount() {
+		return this.writes.sum();
+	}
+
+	/**
+	 * @return Count of rows written to the database. The ratio of writes to this count shows the effect of merging.
+	 */
+	public long getFlushedRowCount() {
+		return this.flushedRows.sum();
+	}
+
+	/**
+	 * @return Count of rows dropped after {@link #maxAttempts(int)} failed flushes.
+	 */
+	public long getDroppedRowCount() {
+		return this.droppedRows.sum();
+	}
+
+	/**
+	 * @return Count of errors of background flushes and of the final flush on shutdown.
+	 */
+	public long getErrorCount() {
+		return this.errors.sum();
+	}
+
+	private void write(@NonNull Map<List<Object>, Object[]> batch) throws SQLException {
+		List<String> all = new ArrayList<>(this.keys);
+		all.addAll(this.columns);
+
+		BulkInsert insert = (this.database != null ? Query.bulkInsertInto(this.database, this.table) : Query.bulkInsertInto(this.table))
+				.columns(all.toArray(new String[0]))
+				.onDuplicateKeyUpdateExcept(this.keys.toArray(new String[0]))
+				.onDuplicateKeyIncrement(this.sums.toArray(new String[0]));
+
+		Object[] values = new Object[all.size()];
+
+		batch.forEach((key, row) -> {
+			for (int i = 0; i < key.size(); i++) {
+				values[i] = key.get(i);
+			}
+
+			System.arraycopy(row, 0, values, key.size(), row.length);
+
+			insert.row(values);
+		});
+
+		try (Connection con = this.source.getConnection()) {
+			boolean autoCommit = con.getAutoCommit();
+
+			if (autoCommit) {
+				con.setAutoCommit(false);
+			}
+
+			Exception error = null;
+
+			try {
+				insert.update(con);
+				con.commit();
+			} catch (SQLException | RuntimeException e) {
+				error = e;
+
+				try {
+					con.rollback();
+				} catch (SQLException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+
+				throw e;
+			} finally {
+				if (autoCommit) {
+					try {
+						con.setAutoCommit(true);
+					} catch (SQLException e) {
+						// Don't hide the original exception
+						if (error == null) {
+							throw e;
+						}
+
+						error.addSuppressed(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes dropped rows to the drop handler. Errors of the handler are added to the error of the flush as suppressed.
+	 */
+	private void drop(@NonNull List<Object[]> dropped, @NonNull Exception error) {
+		this.droppedRows.add(dropped.size());
+
+		if (this.dropHandler == null) {
+			return;
+		}
+
+		for (Object[] values : dropped) {
+			try {
+				this.dropHandler.accept(values);
+			} catch (RuntimeException e) {
+				error.addSuppressed(e);
+			}
+		}
+	}
+
+	/**
+	 * Buffers the row, or merges it into the buffered row with the same key.
+	 * @return True if the row was added as a new row.
+	 */
+	private boolean insertOrMerge(@NonNull List<Object> key, @NonNull Object[] row) {
+		boolean[] added = new boolean[1];
+
+		this.rows.compute(key, (k, buffered) -> {
+			if (buffered == null) {
+				added[0] = true;
+				return row;
+			}
+
+			return merge(buffered, row);
+		});
+
+		return added[0];
+	}
+
+	/**
+	 * @return A new array of merged values. Buffered arrays are never modified, so flushes may read them without locking.
+	 */
+	private Object[] merge(@NonNull Object[] buffered, @NonNull Object[] row) {
+		Object[] merged = new Object[row.length];
+
+		for (int i = 0; i < row.length; i++) {
+			BinaryOperator<Object> merger = this.columnMergers.get(i);
+			merged[i] = merger != null ? merger.apply(buffered[i], row[i]) : row[i];
+		}
+
+		return merged;
+	}
+
+	/**
+	 * Increments count of buffered rows, waiting for a flush while the buffer is full.
+	 */
+	private void reserveSpace() {
+		long deadline = System.nanoTime() + this.maxWaitNanos;
+
+		while (true) {
+			int count = this.rowCount.get();
+
+			if (count < this.maxRows) {
+				if (this.rowCount.compareAndSet(count, count + 1)) {
+					return;
+				}
+
+				continue;
+			}
+
+			requestFlush();
+
+			long remaining = deadline - System.nanoTime();
+
+			if (remaining <= 0) {
+				throw new IllegalStateException("No space in the buffer of " + this.table + " for " + TimeUnit.NANOSECONDS.toMillis(this.maxWaitNanos) + " ms");
+			}
+
+			synchronized (this.space) {
+				if (this.rowCount.get() >= this.maxRows) {
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this.space, remaining);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("Interrupted while waiting for space in the buffer", e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs a flush on the executor, unless one is already requested or the retry delay after a failed flush has not passed yet.
+	 * Skipped flushes are requested again by the periodic flush and by writes.
+	 */
+	private void requestFlush() {
+		if (this.failedFlushes != 0 && this.retryAt - System.nanoTime() > 0) {
+			return;
+		}
+
+		if (!this.flushRequested.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			this.executor.execute(() -> {
+				this.flushRequested.set(false);
+
+				try {
+					flush();
+				} catch (Throwable t) {
+					handleError(t);
+				}
+			});
+		} catch (RuntimeException e) {
+			this.flushRequested.set(false);
+			handleError(e);
+		}
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		} catch (Throwable t) {
+			handleError(t);
+		}
+	}
+
+	private void handleError(@NonNull Throwable t) {
+		this.errors.increment();
+
+		if (this.errorHandler != null) {
+			this.errorHandler.accept(t);
+		}
+	}
+
+	private void addColumns(@NonNull List<String> list, @NonNull String[] columns) {
+		checkNotStarted();
+
+		for (String column : columns) {
+			SQLUtil.validateIdentifier(column);
+
+			if (this.keys.contains(column) || this.columns.contains(column)) {
+				throw new IllegalArgumentException("Column " + column + " already exists");
+			}
+
+			list.add(column);
+		}
+	}
+
+	private void checkValueColumn(@NonNull String column) {
+		if (!this.columns.contains(column)) {
+			throw new IllegalArgumentException("Unknown value column " + column + ", add it by columns() first");
+		}
+	}
+
+	private void checkNotStarted() {
+		if (this.started) {
+			throw new IllegalStateException("Buffer is already started");
+		}
+	}
+
+	private static Object add(Object a, Object b) {
+		if (!(a instanceof Number) || !(b instanceof Number)) {
+			throw new IllegalArgumentException("Summed values must be numbers, got " + a + " and " + b);
+		}
+
+		if (a instanceof BigDecimal || b instanceof BigDecimal) {
+			return toBigDecimal((Number) a).add(toBigDecimal((Number) b));
+		}
+
+		if (a instanceof Double || a instanceof Float || b instanceof Double || b instanceof Float) {
+			return ((Number) a).doubleValue() + ((Number) b).doubleValue();
+		}
+
+		return ((Number) a).longValue() + ((Number) b).longValue();
+	}
+
+	private static BigDecimal toBigDecimal(@NonNull Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+
+		if (number instanceof Double || number instanceof Float) {
+			return BigDecimal.valueOf(number.doubleValue());
+		}
+
+		return BigDecimal.valueOf(number.longValue());
+	}
+
+}
@@ -0,0 +1,176 @@
+package me.saharnooby.lib.query.bind;
+
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of parameter binders by value class. Values of registered classes are bound using
+ * type-specific setters like {@link PreparedStatement#setLong(int, long)}, other values are bound
+ * using {@link PreparedStatement#setObject(int, Object)}.
+ * <p>
+ * A binder registered for a class is also used for its subclasses and implementations,
+ * unless a more specific binder is registered. For example, binding all enums by their names:
+ * <code>Binders.register(Enum.class, ParamBinder.mapping(Enum::name))</code>.
+ * @author saharNooby
+ * @since 16:45 16.10.2026
+ */
+public final class Binders {
+
+	private static final ParamBinder<Object> DEFAULT = PreparedStatement::setObject;
+
+	/**
+	 * Registered binders with the cache of binders resolved from them. Registration replaces the whole registry,
+	 * so a lookup that started before a registration can only fill the cache of the replaced registry.
+	 */
+	private static final class Registry {
+
+		final Map<Class<?>, ParamBinder<Object>> registered;
+		/**
+		 * Binders found for concrete value classes, including the default binder.
+		 */
+		final Map<Class<?>, ParamBinder<Object>> resolved = new ConcurrentHashMap<>();
+
+		Registry(@NonNull Map<Class<?>, ParamBinder<Object>> registered) {
+			this.registered = registered;
+		}
+
+	}
+
+	/**
+	 * Binders registered by this class, before any user registrations.
+	 */
+	private static final Map<Class<?>, ParamBinder<Object>> BUILT_IN = new HashMap<>();
+
+	private static volatile Registry registry;
+
+	static {
+		builtIn(String.class, PreparedStatement::setString);
+		builtIn(Integer.class, PreparedStatement::setInt);
+		builtIn(Long.class, PreparedStatement::setLong);
+		builtIn(Short.class, PreparedStatement::setShort);
+		builtIn(Byte.class, PreparedStatement::setByte);
+		builtIn(Boolean.class, PreparedStatement::setBoolean);
+		builtIn(Double.class, PreparedStatement::setDouble);
+		builtIn(Float.class, PreparedStatement::setFloat);
+		builtIn(BigDecimal.class, PreparedStatement::setBigDecimal);
+		builtIn(byte[].class, PreparedStatement::setBytes);
+		builtIn(Timestamp.class, PreparedStatement::setTimestamp);
+		builtIn(Date.class, PreparedStatement::setDate);
+		builtIn(Time.class, PreparedStatement::setTime);
+
+		registry = new Registry(new HashMap<>(BUILT_IN));
+	}
+
+	/**
+	 * Registers a binder for the class, replacing existing binder.
+	 * @param type Value class.
+	 * @param binder Binder.
+	 * @param <T> Value type.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void register(@NonNull Class<T> type, @NonNull ParamBinder<? super T> binder) {
+		update(type, (ParamBinder<Object>) binder);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> void builtIn(@NonNull Class<T> type, @NonNull ParamBinder<? super T> binder) {
+		BUILT_IN.put(type, (ParamBinder<Object>) binder);
+	}
+
+	/**
+	 * Removes the binder registered for the class, restoring the built-in binder if there is one.
+	 * @param type Value class.
+	 */
+	static void unregister(@NonNull Class<?> type) {
+		update(type, BUILT_IN.get(type));
+	}
+
+	private static synchronized void update(@NonNull Class<?> type, ParamBinder<Object> binder) {
+		Map<Class<?>, ParamBinder<Object>> registered = new HashMap<>(registry.registered);
+
+		if (binder != null) {
+			registered.put(type, binder);
+		} else {
+			registered.remove(type);
+		}
+
+		registry = new Registry(registered);
+	}
+
+	/**
+	 * Checks whether values of the class are bound by the built-in binder, that is, no binder
+	 * was registered for the class by the user. Allows binding values of such classes directly.
+	 * @param type Value class.
+	 * @return True if the built-in binder is used for the class.
+	 */
+	public static boolean isBuiltIn(@NonNull Class<?> type) {
+		ParamBinder<Object> binder = BUILT_IN.get(type);
+		return binder != null && registry.registered.get(type) == binder;
+	}
+
+	/**
+	 * Sets a parameter value using the binder registered for the value class.
+	 * Null values are bound using {@link PreparedStatement#setObject(int, Object)}.
+	 * @param s Statement.
+	 * @param index Parameter index, starting from 1.
+	 * @param value Value, may be null.
+	 * @throws SQLException On SQL error.
+	 */
+	public static void bind(@NonNull PreparedStatement s, int index, Object value) throws SQLException {
+		if (value == null) {
+			s.setObject(index, null);
+			return;
+		}
+
+		Registry registry = Binders.registry;
+		ParamBinder<Object> binder = registry.resolved.get(value.getClass());
+
+		if (binder == null) {
+			binder = resolve(registry.registered, value.getClass());
+			registry.resolved.put(value.getClass(), binder);
+		}
+
+		binder.bind(s, index, value);
+	}
+
+	private static ParamBinder<Object> resolve(@NonNull Map<Class<?>, ParamBinder<Object>> registered, @NonNull Class<?> type) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			ParamBinder<Object> binder = registered.get(c);
+
+			if (binder != null) {
+				return binder;
+			}
+		}
+
+		Deque<Class<?>> queue = new ArrayDeque<>();
+
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Class<?> i : c.getInterfaces()) {
+				queue.add(i);
+			}
+		}
+
+		while (!queue.isEmpty()) {
+			Class<?> i = queue.poll();
+			ParamBinder<Object> binder = registered.get(i);
+
+			if (binder != null) {
+				return binder;
+			}
+
+			for (Class<?> parent : i.getInterfaces()) {
+				queue.add(parent);
+			}
+		}
+
+		return DEFAULT;
+	}
+
+}
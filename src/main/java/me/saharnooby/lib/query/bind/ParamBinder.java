@@ -0,0 +1,38 @@
+package me.saharnooby.lib.query.bind;
+
+import lombok.NonNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * Sets a parameter value of a {@link PreparedStatement}.
+ * @author saharNooby
+ * @since 16:40 16.10.2026
+ */
+@FunctionalInterface
+public interface ParamBinder<T> {
+
+	/**
+	 * Sets a parameter value.
+	 * @param s Statement.
+	 * @param index Parameter index, starting from 1.
+	 * @param value Value, not null.
+	 * @throws SQLException On SQL error.
+	 */
+	void bind(PreparedStatement s, int index, T value) throws SQLException;
+
+	/**
+	 * Creates a binder which converts values using the specified function and binds
+	 * converted values using binders registered in {@link Binders}.
+	 * For example, <code>ParamBinder.mapping(UUID::toString)</code>.
+	 * @param converter Converter function.
+	 * @param <T> Value type.
+	 * @return Binder.
+	 */
+	static <T> ParamBinder<T> mapping(@NonNull Function<? super T, ?> converter) {
+		return (s, index, value) -> Binders.bind(s, index, converter.apply(value));
+	}
+
+}
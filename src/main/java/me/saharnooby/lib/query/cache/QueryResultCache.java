@@ -0,0 +1,390 @@
+package me.saharnooby.lib.query.cache;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * A cache of query results, see {@link AbstractQuery#cacheResults(QueryResultCache)}.
+ * Results are keyed by SQL text, parameter values, mapper and the kind of the result. Array parameter values,
+ * like <code>byte[]</code>, are compared by content.
+ * <p>
+ * Entries are evicted in LRU order when the total weight exceeds the limit (by default, weight of each entry is 1),
+ * and expire after the configured time to live. The cache is split into 16 independently locked segments,
+ * and the limit is divided evenly between them, rounding up, so small limits are approximate.
+ * <p>
+ * Each table has a version, which is incremented on each write executed through this library to the table
+ * (see {@link AbstractQuery#getTables()}); an entry is stale when a version of any of its tables has changed since
+ * the entry was loaded. Writes made by other means, for example by {@link me.saharnooby.lib.query.query.impl.Raw} queries,
+ * must be reported using {@link #invalidate(String)}. Versions are tracked by table name without the database name, ignoring case
+ * and backticks, so <code>db.t</code>, <code>`T`</code> and <code>t</code> invalidate each other, and a write to a table
+ * also invalidates results of tables with the same name in other databases. Note that a table is invalidated when the write is executed,
+ * not when its transaction is committed, so a result read concurrently with a long transaction may stay cached
+ * until it expires.
+ * @author saharNooby
+ * @since 12:20 16.10.2026
+ */
+public final class QueryResultCache {
+
+	private static final int SEGMENTS = 16;
+
+	/**
+	 * Versions of tables, shared by all caches. A table without an entry has version 0.
+	 */
+	private static final Map<String, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * Allows skipping invalidation when no caches were ever created.
+	 */
+	private static volatile boolean anyCreated;
+
+	@RequiredArgsConstructor
+	private static final class Key {
+
+		final String sql;
+		final List<Object> params;
+		final Object mapper;
+		final String kind;
+		final int hash;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) o;
+			return this.hash == key.hash &&
+					this.mapper == key.mapper &&
+					this.kind.equals(key.kind) &&
+					this.sql.equals(key.sql) &&
+					this.params.equals(key.params);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+	/**
+	 * Wraps an array parameter value, so it is compared by content.
+	 */
+	@RequiredArgsConstructor
+	private static final class ArrayParam {
+
+		final Object array;
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof ArrayParam && Objects.deepEquals(this.array, ((ArrayParam) o).array);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.deepHashCode(new Object[] {this.array});
+		}
+
+	}
+
+	@RequiredArgsConstructor
+	private static final class Entry {
+
+		final Object value;
+		final String[] tables;
+		final long[] versions;
+		final long loadedAt;
+		final long weight;
+
+	}
+
+	private static final class Segment extends LinkedHashMap<Key, Entry> {
+
+		private static final long serialVersionUID = 1L;
+
+		long weight;
+
+		Segment() {
+			super(16, 0.75F, true);
+		}
+
+	}
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private volatile long maxWeight = 10_000;
+	private volatile ToLongFunction<Object> weigher = value -> 1;
+	private volatile long ttlNanos;
+
+	public QueryResultCache() {
+		for (int i = 0; i < SEGMENTS; i++) {
+			this.segments[i] = new Segment();
+		}
+
+		anyCreated = true;
+	}
+
+	/**
+	 * Limits count of entries in the cache. Default limit is 10000.
+	 * @param maxEntries Max count of entries.
+	 * @return This object.
+	 */
+	public QueryResultCache maxEntries(long maxEntries) {
+		return maxWeight(maxEntries, value -> 1);
+	}
+
+	/**
+	 * Limits total weight of entries in the cache.
+	 * @param maxWeight Max total weight.
+	 * @param weigher Function that calculates weight of a result, for example, size of a list.
+	 *                Results heavier than the limit of a segment are not cached.
+	 * @return This object.
+	 */
+	public QueryResultCache maxWeight(long maxWeight, @NonNull ToLongFunction<Object> weigher) {
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("" + maxWeight);
+		}
+
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+
+		return this;
+	}
+
+	/**
+	 * Sets time after which entries expire. By default, entries do not expire.
+	 * @param ttl Time to live, zero means no expiration.
+	 * @return This object.
+	 */
+	public QueryResultCache ttl(@NonNull Duration ttl) {
+		if (ttl.isNegative()) {
+			throw new IllegalArgumentException("" + ttl);
+		}
+
+		this.ttlNanos = ttl.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Returns a cached result of the query, or loads, caches and returns it.
+	 * Concurrent misses of the same key may load the result more than once.
+	 * @param query Query.
+	 * @param mapper Mapper used by the loader. Compared by identity, so the same instance must be used to get cache hits.
+	 * @param kind Kind of the result, distinguishes results of different methods using the same mapper.
+	 * @param loader Loader of the result.
+	 * @param <T> Result type.
+	 * @return Result.
+	 * @throws SQLException If thrown by the loader.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(@NonNull AbstractQuery query, @NonNull Object mapper, @NonNull String kind, @NonNull ExecutorUtil.SQLSupplier<T> loader) throws SQLException {
+		String sql = query.getSQL();
+		List<Object> params = keyParams(query.getParams());
+		Key key = new Key(sql, params, mapper, kind, ((sql.hashCode() * 31 + params.hashCode()) * 31 + System.identityHashCode(mapper)) * 31 + kind.hashCode());
+
+		Segment segment = segment(key);
+
+		long now = System.nanoTime();
+
+		synchronized (segment) {
+			Entry entry = segment.get(key);
+
+			if (entry != null) {
+				if (isValid(entry, now)) {
+					this.hits.increment();
+					return (T) entry.value;
+				}
+
+				remove(segment, key);
+			}
+		}
+
+		this.misses.increment();
+
+		// Versions are read before loading, so a write during loading makes the entry stale
+		String[] tables = query.getTables().toArray(new String[0]);
+		long[] versions = new long[tables.length];
+
+		for (int i = 0; i < tables.length; i++) {
+			tables[i] = normalize(tables[i]);
+			versions[i] = version(tables[i]);
+		}
+
+		T value = loader.get();
+
+		long weight = this.weigher.applyAsLong(value);
+		long limit = segmentLimit();
+
+		if (weight <= limit) {
+			Entry entry = new Entry(value, tables, versions, now, weight);
+
+			synchronized (segment) {
+				remove(segment, key);
+
+				segment.put(key, entry);
+				segment.weight += weight;
+
+				Iterator<Entry> it = segment.values().iterator();
+
+				while (segment.weight > limit && it.hasNext()) {
+					segment.weight -= it.next().weight;
+					it.remove();
+				}
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Removes all entries from this cache.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+				segment.weight = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return Count of entries in this cache, including stale entries that were not evicted yet.
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * @return Count of results that were returned from this cache.
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return Count of results that were loaded.
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * @return True if any cache was created. Allows callers to skip collecting names of written tables.
+	 */
+	public static boolean isInUse() {
+		return anyCreated;
+	}
+
+	/**
+	 * Marks cached results that depend on the table as stale in all caches.
+	 * @param table Table name, may be qualified with the database name and quoted with backticks.
+	 */
+	public static void invalidate(@NonNull String table) {
+		if (anyCreated) {
+			VERSIONS.computeIfAbsent(normalize(table), k -> new AtomicLong()).incrementAndGet();
+		}
+	}
+
+	/**
+	 * Marks cached results that depend on any of the tables as stale in all caches.
+	 * @param tables Table names.
+	 */
+	public static void invalidate(@NonNull Collection<String> tables) {
+		for (String table : tables) {
+			invalidate(table);
+		}
+	}
+
+	private Segment segment(@NonNull Key key) {
+		int h = key.hash;
+		return this.segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	private long segmentLimit() {
+		return (this.maxWeight + SEGMENTS - 1) / SEGMENTS;
+	}
+
+	private boolean isValid(@NonNull Entry entry, long now) {
+		long ttl = this.ttlNanos;
+
+		if (ttl != 0 && now - entry.loadedAt >= ttl) {
+			return false;
+		}
+
+		for (int i = 0; i < entry.tables.length; i++) {
+			if (version(entry.tables[i]) != entry.versions[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static void remove(@NonNull Segment segment, @NonNull Key key) {
+		Entry removed = segment.remove(key);
+
+		if (removed != null) {
+			segment.weight -= removed.weight;
+		}
+	}
+
+	private static long version(@NonNull String normalizedTable) {
+		AtomicLong version = VERSIONS.get(normalizedTable);
+		return version == null ? 0 : version.get();
+	}
+
+	/**
+	 * @param table Table name, may be qualified and quoted.
+	 * @return Table name without the database name and backticks, in lower case.
+	 */
+	private static String normalize(@NonNull String table) {
+		String name = table.replace("`", "");
+		return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+	}
+
+	private static List<Object> keyParams(@NonNull List<Object> params) {
+		List<Object> result = params;
+
+		for (int i = 0; i < params.size(); i++) {
+			Object value = params.get(i);
+
+			if (value != null && value.getClass().isArray()) {
+				if (result == params) {
+					result = new ArrayList<>(params);
+				}
+
+				result.set(i, new ArrayParam(value));
+			}
+		}
+
+		return result;
+	}
+
+}
@@ -0,0 +1,310 @@
+package me.saharnooby.lib.query.cache;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * An LRU cache of prepared statements attached to a single {@link Connection}.
+ * When a cache is attached to a connection, all queries and batches executed on that connection
+ * reuse prepared statements with the same SQL text instead of preparing them again.
+ * <p>
+ * Statements returned by the cache are wrappers; closing a wrapper returns the statement to the cache.
+ * A statement is not shared while it is in use, so nested queries with the same SQL text are safe.
+ * <p>
+ * The cache is a handle held by the caller: connections are mapped to their caches by weak references only,
+ * so a cache stays attached while the caller keeps a reference to it, and neither the connection nor its
+ * idle statements are kept reachable by this class. The cache should be closed, which detaches it and closes
+ * its idle statements, before the connection is closed or returned to the pool:
+ * <pre>
+ * try (Connection con = dataSource.getConnection(); StatementCache cache = StatementCache.attach(con, 64)) {
+ *     ...
+ * }
+ * </pre>
+ * Note that connection pools usually return a new connection wrapper on every checkout,
+ * so the cache must be attached to the connection object that is used to execute queries.
+ * @author saharNooby
+ * @since 15:20 16.10.2026
+ */
+public final class StatementCache implements AutoCloseable {
+
+	/**
+	 * Caches by connection. Both are referenced weakly, since idle statements reference their connection.
+	 */
+	private static final Map<Connection, WeakReference<StatementCache>> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Allows skipping the map lookup when no caches were ever attached.
+	 */
+	private static volatile boolean anyAttached;
+
+	@RequiredArgsConstructor
+	static final class Key {
+
+		final String sql;
+		final int autoGeneratedKeys;
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key) o;
+			return this.autoGeneratedKeys == key.autoGeneratedKeys && this.sql.equals(key.sql);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * this.sql.hashCode() + this.autoGeneratedKeys;
+		}
+
+	}
+
+	private final Connection connection;
+	private final int maxSize;
+
+	/**
+	 * Idle statements in access order.
+	 */
+	private final LinkedHashMap<Key, PreparedStatement> idle;
+
+	private long hits;
+	private long misses;
+
+	private StatementCache(@NonNull Connection connection, int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("" + maxSize);
+		}
+
+		this.connection = connection;
+		this.maxSize = maxSize;
+		this.idle = new LinkedHashMap<>(16, 0.75F, true);
+	}
+
+	/**
+	 * Attaches a new cache to the connection. If a cache is already attached, returns it.
+	 * The cache stays attached while it is reachable; it should be closed before the connection is closed, see {@link #close()}.
+	 * @param con Connection.
+	 * @param maxSize Max count of idle statements kept in the cache, must be positive.
+	 * @return Cache attached to the connection.
+	 */
+	public static StatementCache attach(@NonNull Connection con, int maxSize) {
+		synchronized (CACHES) {
+			StatementCache cache = forConnection(con);
+
+			if (cache == null) {
+				cache = new StatementCache(con, maxSize);
+				CACHES.put(con, new WeakReference<>(cache));
+				anyAttached = true;
+			}
+
+			return cache;
+		}
+	}
+
+	/**
+	 * Detaches the cache from the connection, if it is attached, and closes all idle statements.
+	 * Should be called before the connection is closed.
+	 * @param con Connection.
+	 * @throws SQLException On SQL error.
+	 */
+	public static void detach(@NonNull Connection con) throws SQLException {
+		WeakReference<StatementCache> ref = CACHES.remove(con);
+		StatementCache cache = ref != null ? ref.get() : null;
+
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @param con Connection.
+	 * @return Cache attached to the connection, or null if there is no cache.
+	 */
+	public static StatementCache forConnection(@NonNull Connection con) {
+		if (!anyAttached) {
+			return null;
+		}
+
+		WeakReference<StatementCache> ref = CACHES.get(con);
+		return ref != null ? ref.get() : null;
+	}
+
+	/**
+	 * Prepares a statement using the cache attached to the connection, or directly, if there is no cache.
+	 * @param con Connection.
+	 * @param sql SQL text.
+	 * @param autoGeneratedKeys A value to be passed to <code>autoGeneratedKeys</code> parameter of <code>prepareStatement</code>.
+	 * @return Prepared statement. Must be closed by the caller.
+	 * @throws SQLException On SQL error.
+	 */
+	public static PreparedStatement prepare(@NonNull Connection con, @NonNull String sql, int autoGeneratedKeys) throws SQLException {
+		StatementCache cache = forConnection(con);
+
+		return cache != null ? cache.prepare(sql, autoGeneratedKeys) : con.prepareStatement(sql, autoGeneratedKeys);
+	}
+
+	/**
+	 * Returns an idle statement with the specified SQL text, or prepares a new one.
+	 * @param sql SQL text.
+	 * @param autoGeneratedKeys A value to be passed to <code>autoGeneratedKeys</code> parameter of <code>prepareStatement</code>.
+	 * @return Prepared statement. Must be closed by the caller, which returns it to the cache.
+	 * @throws SQLException On SQL error.
+	 */
+	public PreparedStatement prepare(@NonNull String sql, int autoGeneratedKeys) throws SQLException {
+		Key key = new Key(sql, autoGeneratedKeys);
+
+		PreparedStatement s;
+
+		synchronized (this) {
+			s = this.idle.remove(key);
+
+			if (s != null && s.isClosed()) {
+				s = null;
+			}
+
+			if (s != null) {
+				this.hits++;
+			} else {
+				this.misses++;
+			}
+		}
+
+		if (s == null) {
+			s = this.connection.prepareStatement(sql, autoGeneratedKeys);
+		}
+
+		return new CachedStatement(this, key, s);
+	}
+
+	void release(Key key, PreparedStatement s, boolean batched, boolean modified) throws SQLException {
+		if (s.isClosed()) {
+			return;
+		}
+
+		if (modified) {
+			// Resetting every property to its default value is driver-specific, so such statements are not reused
+			s.close();
+			return;
+		}
+
+		try {
+			s.clearParameters();
+
+			if (batched) {
+				s.clearBatch();
+			}
+		} catch (SQLException e) {
+			s.close();
+			throw e;
+		}
+
+		PreparedStatement evicted = null;
+
+		synchronized (this) {
+			if (this.idle.containsKey(key)) {
+				// Another statement with the same SQL was released earlier, no need to keep both
+				evicted = s;
+			} else {
+				this.idle.put(key, s);
+
+				if (this.idle.size() > this.maxSize) {
+					Iterator<PreparedStatement> it = this.idle.values().iterator();
+					evicted = it.next();
+					it.remove();
+				}
+			}
+		}
+
+		if (evicted != null) {
+			evicted.close();
+		}
+	}
+
+	/**
+	 * Detaches this cache from its connection and closes all idle statements.
+	 * @throws SQLException On SQL error.
+	 */
+	@Override
+	public void close() throws SQLException {
+		synchronized (CACHES) {
+			WeakReference<StatementCache> ref = CACHES.get(this.connection);
+
+			if (ref != null && ref.get() == this) {
+				CACHES.remove(this.connection);
+			}
+		}
+
+		clear();
+	}
+
+	/**
+	 * Closes and removes all idle statements.
+	 * @throws SQLException On SQL error.
+	 */
+	public void clear() throws SQLException {
+		List<PreparedStatement> statements;
+
+		synchronized (this) {
+			statements = new ArrayList<>(this.idle.values());
+			this.idle.clear();
+		}
+
+		SQLException error = null;
+
+		for (PreparedStatement s : statements) {
+			try {
+				s.close();
+			} catch (SQLException e) {
+				if (error == null) {
+					error = e;
+				} else {
+					error.addSuppressed(e);
+				}
+			}
+		}
+
+		if (error != null) {
+			throw error;
+		}
+	}
+
+	/**
+	 * @return Count of prepare requests served by an idle statement.
+	 */
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	/**
+	 * @return Count of prepare requests that required preparing a new statement.
+	 */
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	/**
+	 * @return Count of idle statements in the cache.
+	 */
+	public synchronized int size() {
+		return this.idle.size();
+	}
+
+	/**
+	 * @return Max count of idle statements in the cache.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+}
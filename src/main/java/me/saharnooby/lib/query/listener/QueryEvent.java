@@ -0,0 +1,99 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import java.util.List;
+
+/**
+ * Describes a single execution of a query or a batch.
+ * @author saharNooby
+ * @since 13:10 16.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public final class QueryEvent {
+
+	public enum Kind {
+		/**
+		 * {@link AbstractQuery#update(java.sql.Connection)}.
+		 */
+		UPDATE,
+		/**
+		 * {@link AbstractQuery#updateWithKeys(java.sql.Connection)}.
+		 */
+		UPDATE_WITH_KEYS,
+		/**
+		 * {@link AbstractQuery#query(java.sql.Connection)}.
+		 */
+		QUERY,
+		/**
+		 * {@link me.saharnooby.lib.query.batch.BatchBuilder#execute(java.sql.Connection)}.
+		 */
+		BATCH
+	}
+
+	@NonNull
+	private final Kind kind;
+	@NonNull
+	private final String sql;
+	/**
+	 * Executed query, null for batches. Must not be retained by listeners, since the caller may modify it after execution.
+	 */
+	private final AbstractQuery query;
+	/**
+	 * Parameter values of the executed statement, captured when the execution started.
+	 * For queries with an <code>IN</code> list executed in parts, these are the values of the executed part;
+	 * for batches, the values of the first parameter list.
+	 */
+	private final List<Object> params;
+	/**
+	 * Count of parameter lists in the batch, 1 for queries.
+	 */
+	private final int batchSize;
+	/**
+	 * Time spent preparing the statement and binding parameters.
+	 */
+	private final long bindNanos;
+	/**
+	 * Time spent executing the statement.
+	 */
+	private final long executeNanos;
+	/**
+	 * Time spent reading and mapping rows of the result set, 0 for updates.
+	 */
+	private final long fetchNanos;
+	/**
+	 * For updates and batches, total update count; for queries, count of rows read through the {@link me.saharnooby.lib.query.set.ResultSetWrapper}.
+	 */
+	private final long rows;
+	/**
+	 * Error which the execution failed with, or null.
+	 */
+	private final Throwable error;
+
+	/**
+	 * @return Sum of bind, execute and fetch times.
+	 */
+	public long getTotalNanos() {
+		return this.bindNanos + this.executeNanos + this.fetchNanos;
+	}
+
+	/**
+	 * @return Fingerprint of the SQL text, see {@link SQLUtil#fingerprint(String)}.
+	 */
+	public String getFingerprint() {
+		return SQLUtil.fingerprint(this.sql);
+	}
+
+	/**
+	 * @return True if the execution failed.
+	 */
+	public boolean isFailed() {
+		return this.error != null;
+	}
+
+}
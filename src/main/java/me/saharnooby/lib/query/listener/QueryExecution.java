@@ -0,0 +1,122 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.query.AbstractQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Internal class, do not use directly.
+ * Measures a single execution and reports it to registered listeners.
+ * When there are no listeners, a shared instance that does nothing is used.
+ * @author saharNooby
+ * @since 13:10 16.10.2026
+ */
+public final class QueryExecution {
+
+	private static final QueryExecution NONE = new QueryExecution(null, null, null, null, 0);
+
+	private final QueryEvent.Kind kind;
+	private final String sql;
+	private final AbstractQuery query;
+	private final List<Object> params;
+	private final int batchSize;
+
+	private final long startedAt;
+	private long boundAt;
+	private long executedAt;
+	private boolean finished;
+
+	private QueryExecution(QueryEvent.Kind kind, String sql, AbstractQuery query, List<Object> params, int batchSize) {
+		this.kind = kind;
+		this.sql = sql;
+		this.query = query;
+		this.params = params;
+		this.batchSize = batchSize;
+		this.startedAt = kind == null ? 0 : System.nanoTime();
+	}
+
+	/**
+	 * Starts measuring execution of a query. The SQL text and parameter values are captured at this point.
+	 * @param kind Kind of the execution.
+	 * @param query Query.
+	 * @return Execution.
+	 */
+	public static QueryExecution start(@NonNull QueryEvent.Kind kind, @NonNull AbstractQuery query) {
+		return QueryListeners.isEmpty() ? NONE : new QueryExecution(kind, query.getSQL(), query, Collections.unmodifiableList(new ArrayList<>(query.getParams())), 1);
+	}
+
+	/**
+	 * Starts measuring execution of a batch.
+	 * @param sql SQL text of the batch.
+	 * @param batchSize Count of parameter lists.
+	 * @param firstParams Supplier of parameter values of the first parameter list, called only if there are listeners.
+	 * @return Execution.
+	 */
+	public static QueryExecution startBatch(@NonNull String sql, int batchSize, @NonNull Supplier<List<Object>> firstParams) {
+		return QueryListeners.isEmpty() ? NONE : new QueryExecution(QueryEvent.Kind.BATCH, sql, null, Collections.unmodifiableList(new ArrayList<>(firstParams.get())), batchSize);
+	}
+
+	/**
+	 * Marks the end of preparing the statement and binding parameters.
+	 */
+	public void bound() {
+		if (this != NONE) {
+			this.boundAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Marks the end of executing the statement.
+	 */
+	public void executed() {
+		if (this != NONE) {
+			this.executedAt = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Reports a successful execution. Has no effect if the execution was already reported.
+	 * @param rows Update count or count of read rows.
+	 */
+	public void succeeded(long rows) {
+		finish(rows, null);
+	}
+
+	/**
+	 * Reports a failed execution. Has no effect if the execution was already reported.
+	 * @param error Error.
+	 */
+	public void failed(@NonNull Throwable error) {
+		finish(0, error);
+	}
+
+	private void finish(long rows, Throwable error) {
+		if (this == NONE || this.finished) {
+			return;
+		}
+
+		this.finished = true;
+
+		long now = System.nanoTime();
+		long boundAt = this.boundAt == 0 ? now : this.boundAt;
+		long executedAt = this.executedAt == 0 ? now : this.executedAt;
+
+		QueryListeners.fire(new QueryEvent(
+				this.kind,
+				this.sql,
+				this.query,
+				this.params,
+				this.batchSize,
+				boundAt - this.startedAt,
+				executedAt - boundAt,
+				now - executedAt,
+				rows,
+				error
+		));
+	}
+
+}
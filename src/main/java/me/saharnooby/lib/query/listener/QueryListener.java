@@ -0,0 +1,22 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.NonNull;
+
+/**
+ * Receives events about executed queries and batches, see {@link QueryListeners#register(QueryListener)}.
+ * Listeners are called synchronously on the thread that executed the query, so they must be fast and thread-safe.
+ * @author saharNooby
+ * @since 13:10 16.10.2026
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+	/**
+	 * Called after an execution was completed or failed.
+	 * For queries returning a result set, it is called when the result set is closed.
+	 * Exceptions thrown by listeners are ignored.
+	 * @param event Event.
+	 */
+	void onExecution(@NonNull QueryEvent event);
+
+}
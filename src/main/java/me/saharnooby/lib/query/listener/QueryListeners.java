@@ -0,0 +1,62 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Global registry of {@link QueryListener}s.
+ * @author saharNooby
+ * @since 13:10 16.10.2026
+ */
+public final class QueryListeners {
+
+	private static final QueryListener[] EMPTY = new QueryListener[0];
+
+	/**
+	 * Registered listeners. The array is replaced on each change, so it can be read without locking.
+	 */
+	private static volatile QueryListener[] listeners = EMPTY;
+
+	/**
+	 * Registers a listener. Has no effect if the listener is already registered.
+	 * @param listener Listener.
+	 */
+	public static synchronized void register(@NonNull QueryListener listener) {
+		for (QueryListener l : listeners) {
+			if (l == listener) {
+				return;
+			}
+		}
+
+		QueryListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+		copy[copy.length - 1] = listener;
+		listeners = copy;
+	}
+
+	/**
+	 * Unregisters a listener. Has no effect if the listener is not registered.
+	 * @param listener Listener.
+	 */
+	public static synchronized void unregister(@NonNull QueryListener listener) {
+		listeners = Arrays.stream(listeners).filter(l -> l != listener).toArray(QueryListener[]::new);
+	}
+
+	/**
+	 * @return True if there are no registered listeners.
+	 */
+	public static boolean isEmpty() {
+		return listeners.length == 0;
+	}
+
+	static void fire(@NonNull QueryEvent event) {
+		for (QueryListener listener : listeners) {
+			try {
+				listener.onExecution(event);
+			} catch (RuntimeException ignored) {
+				// A broken listener must not break query execution
+			}
+		}
+	}
+
+}
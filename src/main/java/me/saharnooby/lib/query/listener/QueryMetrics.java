@@ -0,0 +1,168 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A listener that aggregates counts and latency histograms of executions by SQL fingerprint.
+ * Recording does not take locks: counters are {@link LongAdder}s, and the histogram has a bucket for each power of 2 nanoseconds.
+ * <pre>
+ * QueryMetrics metrics = new QueryMetrics();
+ * QueryListeners.register(metrics);
+ * ...
+ * metrics.snapshot().forEach(s -&gt; log.info(s.getFingerprint() + ": p99 " + s.getPercentileNanos(0.99)));
+ * </pre>
+ * @author saharNooby
+ * @since 13:40 16.10.2026
+ */
+public final class QueryMetrics implements QueryListener {
+
+	private static final int BUCKETS = 64;
+
+	private static final class Stats {
+
+		final LongAdder count = new LongAdder();
+		final LongAdder errors = new LongAdder();
+		final LongAdder rows = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		/**
+		 * Bucket <code>i</code> counts executions which took from <code>2^(i-1)</code> inclusive to <code>2^i</code> exclusive nanoseconds.
+		 */
+		final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	}
+
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public void onExecution(@NonNull QueryEvent event) {
+		String fingerprint = event.getFingerprint();
+
+		Stats stats = this.stats.get(fingerprint);
+
+		if (stats == null) {
+			stats = this.stats.computeIfAbsent(fingerprint, k -> new Stats());
+		}
+
+		long nanos = Math.max(0, event.getTotalNanos());
+
+		stats.count.increment();
+		stats.rows.add(event.getRows());
+		stats.totalNanos.add(nanos);
+		stats.maxNanos.accumulate(nanos);
+		stats.buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(nanos));
+
+		if (event.isFailed()) {
+			stats.errors.increment();
+		}
+	}
+
+	/**
+	 * Returns current values of metrics. Values are read without stopping recording,
+	 * so a snapshot may be slightly inconsistent if executions are recorded concurrently.
+	 * @return Snapshots of metrics for each fingerprint, sorted by total time, descending.
+	 */
+	public List<Snapshot> snapshot() {
+		List<Snapshot> list = new ArrayList<>();
+
+		this.stats.forEach((fingerprint, stats) -> {
+			long[] buckets = new long[BUCKETS];
+
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = stats.buckets.get(i);
+			}
+
+			list.add(new Snapshot(
+					fingerprint,
+					stats.count.sum(),
+					stats.errors.sum(),
+					stats.rows.sum(),
+					stats.totalNanos.sum(),
+					stats.maxNanos.get(),
+					buckets
+			));
+		});
+
+		list.sort(Comparator.comparingLong(Snapshot::getTotalNanos).reversed());
+
+		return list;
+	}
+
+	/**
+	 * Removes all recorded metrics.
+	 */
+	public void reset() {
+		this.stats.clear();
+	}
+
+	/**
+	 * Metrics of a single fingerprint.
+	 */
+	@Getter
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static final class Snapshot {
+
+		private final String fingerprint;
+		private final long count;
+		private final long errors;
+		private final long rows;
+		private final long totalNanos;
+		private final long maxNanos;
+		@Getter(AccessLevel.NONE)
+		private final long[] buckets;
+
+		/**
+		 * @return Mean execution time, or 0 if there were no executions.
+		 */
+		public long getMeanNanos() {
+			return this.count == 0 ? 0 : this.totalNanos / this.count;
+		}
+
+		/**
+		 * Estimates a percentile of execution time. The result is the upper bound of the histogram bucket
+		 * containing the percentile, so it is at most twice as large as the exact value, and not larger than the max time.
+		 * @param percentile Percentile, from 0 to 1.
+		 * @return Estimated execution time, or 0 if there were no executions.
+		 */
+		public long getPercentileNanos(double percentile) {
+			if (percentile < 0 || percentile > 1) {
+				throw new IllegalArgumentException("" + percentile);
+			}
+
+			long total = 0;
+
+			for (long count : this.buckets) {
+				total += count;
+			}
+
+			if (total == 0) {
+				return 0;
+			}
+
+			long rank = Math.max(1, (long) Math.ceil(total * percentile));
+			long seen = 0;
+
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += this.buckets[i];
+
+				if (seen >= rank) {
+					// For the last bucket, it overflows to Long.MAX_VALUE
+					return Math.min((1L << i) - 1, this.maxNanos);
+				}
+			}
+
+			return this.maxNanos;
+		}
+
+	}
+
+}
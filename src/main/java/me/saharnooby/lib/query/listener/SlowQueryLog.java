@@ -0,0 +1,539 @@
+package me.saharnooby.lib.query.listener;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * A listener that records executions slower than the threshold, and optionally a random sample of other executions,
+ * to a bounded ring buffer. Each record contains the SQL text, parameter values, times, row count and the caller stack.
+ * <p>
+ * Values of parameters bound to sensitive columns can be redacted. The column of a parameter is resolved from the SQL text
+ * only when the placeholder is the whole value of a quoted column: compared with it, like <code>`password` = ?</code>
+ * or <code>`id` IN (?, ?)</code>, or inserted into it, like <code>INSERT ... (`a`, `password`) VALUES (?, ?)</code>.
+ * Placeholders in expressions, like <code>`a` = 1 + ?</code> or <code>? = `a`</code>, and in raw SQL without quoted identifiers
+ * can't be resolved, and their values are redacted by default, see {@link #redactUnresolved(boolean)}.
+ * <p>
+ * Recording does not take locks; when the buffer is full, the oldest records are overwritten.
+ * <pre>
+ * SlowQueryLog log = new SlowQueryLog(1000).threshold(Duration.ofMillis(200)).samplePercent(0.1).redact("password", "token");
+ * QueryListeners.register(log);
+ * ...
+ * log.dump().forEach(System.out::println);
+ * </pre>
+ * @author saharNooby
+ * @since 14:30 16.10.2026
+ */
+public final class SlowQueryLog implements QueryListener {
+
+	private static final String REDACTED = "<redacted>";
+
+	private static final String LIBRARY_PACKAGE = "me.saharnooby.lib.query.";
+
+	private static final String COMPARISON_CHARS = "<>=!";
+	private static final Set<String> COMPARISONS = new HashSet<>(Arrays.asList("=", "<=>", "!=", "<>", "<", ">", "<=", ">=", "LIKE"));
+	private static final Set<String> OPERATORS = new HashSet<>(Arrays.asList("+", "-", "*", "/", "%", "|", "&", "^", "DIV", "MOD", "COLLATE"));
+
+	private final AtomicReferenceArray<Record> records;
+	private final AtomicLong written = new AtomicLong();
+
+	private volatile long thresholdNanos = Duration.ofSeconds(1).toNanos();
+	private volatile double samplePercent;
+	private volatile Predicate<String> redactedColumn = column -> false;
+	private volatile boolean redactUnresolved = true;
+	private volatile int stackDepth = 16;
+
+	/**
+	 * Creates a log.
+	 * @param capacity Max count of records stored.
+	 */
+	public SlowQueryLog(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("" + capacity);
+		}
+
+		this.records = new AtomicReferenceArray<>(capacity);
+	}
+
+	/**
+	 * Sets the threshold. Executions that took at least this time are recorded. Default threshold is 1 second.
+	 * @param threshold Threshold.
+	 * @return This object.
+	 */
+	public SlowQueryLog threshold(@NonNull Duration threshold) {
+		if (threshold.isNegative()) {
+			throw new IllegalArgumentException("" + threshold);
+		}
+
+		this.thresholdNanos = threshold.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Sets the percentage of executions faster than the threshold to record. Default is 0.
+	 * @param percent Percent, from 0 to 100.
+	 * @return This object.
+	 */
+	public SlowQueryLog samplePercent(double percent) {
+		if (!(percent >= 0 && percent <= 100)) {
+			throw new IllegalArgumentException("" + percent);
+		}
+
+		this.samplePercent = percent;
+
+		return this;
+	}
+
+	/**
+	 * Redacts values of parameters bound to columns with specified names, case-insensitive.
+	 * Adds to the columns specified previously.
+	 * @param columns Column names.
+	 * @return This object.
+	 */
+	public SlowQueryLog redact(@NonNull String... columns) {
+		Set<String> set = new HashSet<>();
+
+		for (String column : columns) {
+			set.add(column.toLowerCase(Locale.ROOT));
+		}
+
+		return redactIf(column -> set.contains(column.toLowerCase(Locale.ROOT)));
+	}
+
+	/**
+	 * Redacts values of parameters bound to columns matching the rule. Adds to the rules specified previously.
+	 * @param rule Rule, accepts column names.
+	 * @return This object.
+	 */
+	public SlowQueryLog redactIf(@NonNull Predicate<String> rule) {
+		this.redactedColumn = this.redactedColumn.or(rule);
+
+		return this;
+	}
+
+	/**
+	 * Sets whether values of parameters which column can't be resolved are redacted. Default is true.
+	 * @param redact True to redact.
+	 * @return This object.
+	 */
+	public SlowQueryLog redactUnresolved(boolean redact) {
+		this.redactUnresolved = redact;
+
+		return this;
+	}
+
+	/**
+	 * Sets max count of caller stack frames in records. Frames of this library are skipped. Default is 16.
+	 * @param depth Depth, 0 disables capturing the stack.
+	 * @return This object.
+	 */
+	public SlowQueryLog stackDepth(int depth) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("" + depth);
+		}
+
+		this.stackDepth = depth;
+
+		return this;
+	}
+
+	@Override
+	public void onExecution(@NonNull QueryEvent event) {
+		boolean slow = event.getTotalNanos() >= this.thresholdNanos;
+
+		if (!slow) {
+			double percent = this.samplePercent;
+
+			if (percent == 0 || ThreadLocalRandom.current().nextDouble() * 100 >= percent) {
+				return;
+			}
+		}
+
+		long sequence = this.written.getAndIncrement();
+
+		Record record = new Record(
+				sequence,
+				System.currentTimeMillis(),
+				event.getKind(),
+				event.getSql(),
+				event.getParams() != null ? redactedParams(event.getSql(), event.getParams()) : null,
+				event.getBindNanos(),
+				event.getExecuteNanos(),
+				event.getFetchNanos(),
+				event.getRows(),
+				event.getError(),
+				!slow,
+				callerStack()
+		);
+
+		this.records.set((int) (sequence % this.records.length()), record);
+	}
+
+	/**
+	 * Returns stored records. Records written concurrently with this method may be missing.
+	 * @return Records, from oldest to newest.
+	 */
+	public List<Record> dump() {
+		long written = this.written.get();
+		int capacity = this.records.length();
+
+		List<Record> list = new ArrayList<>();
+
+		for (long i = Math.max(0, written - capacity); i < written; i++) {
+			Record record = this.records.get((int) (i % capacity));
+
+			// A slot may still contain an older record, or already a newer one
+			if (record != null && record.sequence == i) {
+				list.add(record);
+			}
+		}
+
+		return list;
+	}
+
+	/**
+	 * Removes all records.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.records.length(); i++) {
+			this.records.set(i, null);
+		}
+	}
+
+	private List<Object> redactedParams(@NonNull String sql, @NonNull List<Object> executedParams) {
+		List<Object> params = new ArrayList<>(executedParams);
+		List<String> columns = placeholderColumns(sql);
+
+		Predicate<String> rule = this.redactedColumn;
+		boolean redactUnresolved = this.redactUnresolved;
+
+		for (int i = 0; i < params.size(); i++) {
+			String column = i < columns.size() ? columns.get(i) : null;
+
+			if (column == null ? redactUnresolved : rule.test(column)) {
+				params.set(i, REDACTED);
+			}
+		}
+
+		return Collections.unmodifiableList(params);
+	}
+
+	/**
+	 * Resolves a column for each placeholder in the SQL text, see the class description.
+	 * @param sql SQL text.
+	 * @return List of column names, an element is null if the column can't be resolved.
+	 */
+	static List<String> placeholderColumns(@NonNull String sql) {
+		List<String> tokens = tokenize(sql);
+		List<String> columns = new ArrayList<>();
+
+		int i = tokens.isEmpty() || !tokens.get(0).equals("INSERT") ? 0 : resolveInsertValues(tokens, columns);
+
+		int depth = 0;
+		// Column of the IN list and the depth of its parentheses, if the tokens are in a list
+		String inColumn = null;
+		int inDepth = -1;
+
+		for (; i < tokens.size(); i++) {
+			String token = tokens.get(i);
+
+			if (token.equals("?")) {
+				String previous = i > 0 ? tokens.get(i - 1) : "";
+				String next = i + 1 < tokens.size() ? tokens.get(i + 1) : "";
+				String column = null;
+
+				if (inDepth == depth) {
+					if (next.equals(",") || next.equals(")")) {
+						column = inColumn;
+					}
+				} else if (COMPARISONS.contains(previous) && !isOperator(next)) {
+					column = identifierBefore(tokens, i - 1);
+				}
+
+				columns.add(column);
+			} else if (token.equals("(")) {
+				depth++;
+
+				if (i > 0 && tokens.get(i - 1).equals("IN")) {
+					inColumn = identifierBefore(tokens, i - 1);
+					inDepth = depth;
+				}
+			} else if (token.equals(")")) {
+				if (inDepth == depth) {
+					inColumn = null;
+					inDepth = -1;
+				}
+
+				depth--;
+			}
+		}
+
+		return columns;
+	}
+
+	/**
+	 * Resolves placeholders of the <code>VALUES</code> clause of an <code>INSERT</code> by position in the column list.
+	 * @return Index of the first token after the clause, or 0 if the query has no column list or no <code>VALUES</code> clause.
+	 */
+	private static int resolveInsertValues(@NonNull List<String> tokens, @NonNull List<String> columns) {
+		int i = tokens.indexOf("(");
+
+		if (i < 0) {
+			return 0;
+		}
+
+		List<String> insertColumns = new ArrayList<>();
+
+		for (i++; i < tokens.size() && !tokens.get(i).equals(")"); i++) {
+			String token = tokens.get(i);
+
+			if (isIdentifier(token)) {
+				insertColumns.add(unquote(token));
+			} else if (!token.equals(",")) {
+				return 0;
+			}
+		}
+
+		i++;
+
+		if (i >= tokens.size() || !(tokens.get(i).equals("VALUES") || tokens.get(i).equals("VALUE"))) {
+			return 0;
+		}
+
+		i++;
+
+		while (i < tokens.size() && tokens.get(i).equals("(")) {
+			List<String> row = new ArrayList<>();
+			int value = 0;
+			int valueStart = i + 1;
+			int depth = 0;
+
+			for (; i < tokens.size(); i++) {
+				String token = tokens.get(i);
+
+				if (token.equals("(")) {
+					depth++;
+				} else if (token.equals(")")) {
+					depth--;
+				}
+
+				if (depth == 0 || (depth == 1 && token.equals(","))) {
+					// End of a value expression, its placeholder is resolved only if the expression is a single placeholder
+					boolean single = i - valueStart == 1 && tokens.get(valueStart).equals("?");
+
+					for (int j = valueStart; j < i; j++) {
+						if (tokens.get(j).equals("?")) {
+							row.add(single && value < insertColumns.size() ? insertColumns.get(value) : null);
+						}
+					}
+
+					value++;
+					valueStart = i + 1;
+
+					if (depth == 0) {
+						break;
+					}
+				}
+			}
+
+			if (value != insertColumns.size()) {
+				Collections.fill(row, null);
+			}
+
+			columns.addAll(row);
+
+			i++;
+
+			if (i < tokens.size() && tokens.get(i).equals(",")) {
+				i++;
+			}
+		}
+
+		return i;
+	}
+
+	/**
+	 * @return Unquoted identifier before the operator at the index, skipping <code>NOT</code>; or null if there is no identifier.
+	 */
+	private static String identifierBefore(@NonNull List<String> tokens, int operator) {
+		int i = operator - 1;
+
+		if (i >= 0 && tokens.get(i).equals("NOT")) {
+			i--;
+		}
+
+		return i >= 0 && isIdentifier(tokens.get(i)) ? unquote(tokens.get(i)) : null;
+	}
+
+	private static boolean isOperator(@NonNull String token) {
+		return OPERATORS.contains(token) || COMPARISONS.contains(token);
+	}
+
+	private static boolean isIdentifier(@NonNull String token) {
+		return token.length() >= 2 && token.charAt(0) == '`';
+	}
+
+	private static String unquote(@NonNull String identifier) {
+		return identifier.substring(1, identifier.length() - 1);
+	}
+
+	/**
+	 * Splits SQL text into tokens: quoted identifiers with quotes, upper-cased words, runs of comparison characters and single other characters.
+	 * String literals are replaced with a single <code>'</code> token, whitespace is skipped.
+	 */
+	private static List<String> tokenize(@NonNull String sql) {
+		List<String> tokens = new ArrayList<>();
+
+		int i = 0;
+
+		while (i < sql.length()) {
+			char c = sql.charAt(i);
+			int end = i + 1;
+
+			if (c == '`') {
+				end = sql.indexOf('`', i + 1) + 1;
+
+				if (end == 0) {
+					// Unterminated identifier
+					break;
+				}
+
+				tokens.add(sql.substring(i, end));
+			} else if (c == '\'' || c == '"') {
+				// Skip string literals, they may contain placeholder characters
+				while (end < sql.length() && sql.charAt(end) != c) {
+					end += sql.charAt(end) == '\\' ? 2 : 1;
+				}
+
+				end++;
+
+				if (end < sql.length() && sql.charAt(end) == c) {
+					// A doubled quote inside of the literal, continue it
+					i = end;
+					continue;
+				}
+
+				tokens.add("'");
+			} else if (Character.isLetterOrDigit(c) || c == '_') {
+				while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+					end++;
+				}
+
+				tokens.add(sql.substring(i, end).toUpperCase(Locale.ROOT));
+			} else if (COMPARISON_CHARS.indexOf(c) >= 0) {
+				while (end < sql.length() && COMPARISON_CHARS.indexOf(sql.charAt(end)) >= 0) {
+					end++;
+				}
+
+				tokens.add(sql.substring(i, end));
+			} else if (!Character.isWhitespace(c)) {
+				tokens.add(String.valueOf(c));
+			}
+
+			i = end;
+		}
+
+		return tokens;
+	}
+
+	private List<StackTraceElement> callerStack() {
+		int depth = this.stackDepth;
+
+		if (depth == 0) {
+			return Collections.emptyList();
+		}
+
+		List<StackTraceElement> stack = new ArrayList<>(depth);
+
+		for (StackTraceElement element : new Throwable().getStackTrace()) {
+			if (stack.size() == depth) {
+				break;
+			}
+
+			if (!element.getClassName().startsWith(LIBRARY_PACKAGE)) {
+				stack.add(element);
+			}
+		}
+
+		return Collections.unmodifiableList(stack);
+	}
+
+	/**
+	 * A recorded execution.
+	 */
+	@Getter
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static final class Record {
+
+		@Getter(AccessLevel.NONE)
+		private final long sequence;
+		/**
+		 * Time of recording, in milliseconds since the epoch.
+		 */
+		private final long timestamp;
+		private final QueryEvent.Kind kind;
+		private final String sql;
+		/**
+		 * Parameter values with sensitive values redacted; for batches, values of the first parameter list.
+		 */
+		private final List<Object> params;
+		private final long bindNanos;
+		private final long executeNanos;
+		private final long fetchNanos;
+		private final long rows;
+		private final Throwable error;
+		/**
+		 * True if the execution was faster than the threshold and was recorded as a sample.
+		 */
+		private final boolean sampled;
+		/**
+		 * Stack of the thread that executed the query, excluding frames of this library.
+		 */
+		private final List<StackTraceElement> stack;
+
+		/**
+		 * @return Sum of bind, execute and fetch times.
+		 */
+		public long getTotalNanos() {
+			return this.bindNanos + this.executeNanos + this.fetchNanos;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+
+			sb.append(new Date(this.timestamp)).append(' ')
+					.append(this.sampled ? "Sampled " : "Slow ")
+					.append(this.kind).append(" took ").append(getTotalNanos() / 1_000_000).append(" ms")
+					.append(" (bind ").append(this.bindNanos / 1_000_000)
+					.append(" ms, execute ").append(this.executeNanos / 1_000_000)
+					.append(" ms, fetch ").append(this.fetchNanos / 1_000_000)
+					.append(" ms), rows ").append(this.rows).append(": ").append(this.sql);
+
+			if (this.params != null) {
+				sb.append(this.kind == QueryEvent.Kind.BATCH ? " with first parameters " : " with parameters ").append(this.params);
+			}
+
+			if (this.error != null) {
+				sb.append(", failed with ").append(this.error);
+			}
+
+			for (StackTraceElement element : this.stack) {
+				sb.append("\n\tat ").append(element);
+			}
+
+			return sb.toString();
+		}
+
+	}
+
+}
@@ -1,23 +1,45 @@
 package me.saharnooby.lib.query.query;
 
 import lombok.NonNull;
-import me.saharnooby.lib.query.set.ResultSetMapper;
-import me.saharnooby.lib.query.set.ResultSetWrapper;
+import me.saharnooby.lib.query.bind.Binders;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.cache.StatementCache;
+import me.saharnooby.lib.query.listener.QueryEvent;
+import me.saharnooby.lib.query.listener.QueryExecution;
+import me.saharnooby.lib.query.set.*;
+import me.saharnooby.lib.query.util.ExecutorUtil;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * Represents an SQL query with some parameters to be filled in placeholders.
+ * The default executor of <code>*Async</code> methods uses virtual threads on Java 21+,
+ * and a shared bounded thread pool on older versions.
  * @author saharNooby
  * @since 13:08 14.11.2019
  */
 public abstract class AbstractQuery {
 
+	/**
+	 * Fetch size hint for the statement, 0 means driver default.
+	 */
+	private int fetchSize;
+	private boolean forwardOnly;
+	private boolean useCursor;
+
+	private QueryResultCache resultCache;
+
 	/**
 	 * @return The SQL query.
 	 */
@@ -28,6 +50,130 @@ public abstract class AbstractQuery {
 	 */
 	public abstract List<Object> getParams();
 
+	/**
+	 * @return Names of tables this query reads or writes, qualified with the database name if it is specified.
+	 * Writes invalidate cached results of queries that read these tables, see {@link QueryResultCache}.
+	 */
+	public List<String> getTables() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Passes values of the query parameters to the consumer, in order of occurrence.
+	 * Unlike {@link #getParams()}, does not collect the values to a new list.
+	 * @param consumer Consumer.
+	 * @throws SQLException If thrown by the consumer.
+	 */
+	public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+		List<Object> params = getParams();
+		for (int i = 0; i < params.size(); i++) {
+			consumer.accept(i + 1, params.get(i));
+		}
+	}
+
+	/**
+	 * Passes values to the consumer.
+	 * @param consumer Consumer.
+	 * @param index Index of the first value.
+	 * @param params Values.
+	 * @return Index of the value after the last passed value.
+	 * @throws SQLException If thrown by the consumer.
+	 */
+	protected static int acceptParams(@NonNull ParamConsumer consumer, int index, @NonNull Object[] params) throws SQLException {
+		for (Object param : params) {
+			consumer.accept(index++, param);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Sets the fetch size hint used when executing this query, see {@link java.sql.Statement#setFetchSize(int)}.
+	 * @param rows Count of rows to fetch from the database at once, 0 means driver default.
+	 * @return This object.
+	 */
+	public AbstractQuery fetchSize(int rows) {
+		if (rows < 0) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.fetchSize = rows;
+
+		return this;
+	}
+
+	/**
+	 * Makes queries create result sets of type <code>TYPE_FORWARD_ONLY</code>
+	 * with concurrency <code>CONCUR_READ_ONLY</code>, allowing the driver to read rows incrementally.
+	 * @return This object.
+	 */
+	public AbstractQuery forwardOnly() {
+		this.forwardOnly = true;
+
+		return this;
+	}
+
+	/**
+	 * Enables row-by-row streaming of results in MySQL Connector/J by using forward-only
+	 * read-only result sets with fetch size <code>Integer.MIN_VALUE</code>.
+	 * Note that no other statements can be executed on the connection until the result set is closed.
+	 * @return This object.
+	 */
+	public AbstractQuery streamRows() {
+		this.forwardOnly = true;
+		this.fetchSize = Integer.MIN_VALUE;
+
+		return this;
+	}
+
+	/**
+	 * Executes queries with auto-commit disabled, which is required by some drivers, like PostgreSQL,
+	 * to use a server-side cursor and honor the fetch size. If the connection is in auto-commit mode,
+	 * auto-commit is disabled before executing the query; when the result set is closed, the transaction
+	 * is committed and auto-commit is enabled again. Also enables {@link #forwardOnly()}.
+	 * @return This object.
+	 */
+	public AbstractQuery useCursor() {
+		this.forwardOnly = true;
+		this.useCursor = true;
+
+		return this;
+	}
+
+	/**
+	 * Makes {@link #queryAndMap(DataSource, ResultSetMapper)} and {@link #queryAndMapAll(DataSource, ResultSetMapper)}
+	 * return results from the cache when possible. To get cache hits, the same mapper instance must be used.
+	 * Cached lists are unmodifiable and cached results are shared, so mapped objects must not be modified.
+	 * @param cache Cache.
+	 * @return This object.
+	 */
+	public AbstractQuery cacheResults(@NonNull QueryResultCache cache) {
+		this.resultCache = cache;
+
+		return this;
+	}
+
+	/**
+	 * Copies options set by {@link #fetchSize(int)}, {@link #forwardOnly()}, {@link #useCursor()}
+	 * and {@link #cacheResults(QueryResultCache)} to another query.
+	 * @param query Query to copy the options to.
+	 */
+	protected final void copyOptionsTo(@NonNull AbstractQuery query) {
+		query.fetchSize = this.fetchSize;
+		query.forwardOnly = this.forwardOnly;
+		query.useCursor = this.useCursor;
+		query.resultCache = this.resultCache;
+	}
+
+	/**
+	 * Compiles this query into an immutable {@link CompiledQuery}. {@link Param} slots
+	 * used as parameter values will be filled in when binding the compiled query.
+	 * @return Compiled query.
+	 */
+	public CompiledQuery compile() {
+		return CompiledQuery.of(this);
+	}
+
 	/**
 	 * Creates a prepared statement and sets parameter values.
 	 * @param con Connection to the database.
@@ -39,18 +185,35 @@ public abstract class AbstractQuery {
 	}
 
 	/**
-	 * Creates a prepared statement and sets parameter values.
+	 * Creates a prepared statement and sets parameter values using {@link Binders}.
+	 * If a {@link StatementCache} is attached to the connection, the statement is taken from the cache,
+	 * unless a fetch size or result set type is specified for this query.
 	 * @param con Connection to the database.
 	 * @param autoGeneratedKeys A value to be passed to <code>autoGeneratedKeys</code> parameter of <code>prepareStatement</code>.
 	 * @return Prepared statement. Must be closed by the caller.
 	 * @throws SQLException On SQL error.
 	 */
 	public PreparedStatement prepareStatement(@NonNull Connection con, int autoGeneratedKeys) throws SQLException {
-		PreparedStatement s = con.prepareStatement(getSQL(), autoGeneratedKeys);
+		PreparedStatement s;
 
-		List<Object> params = getParams();
-		for (int i = 0; i < params.size(); i++) {
-			s.setObject(i + 1, params.get(i));
+		if (this.forwardOnly && autoGeneratedKeys == PreparedStatement.NO_GENERATED_KEYS) {
+			s = con.prepareStatement(getSQL(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		} else if (this.fetchSize != 0) {
+			// Statements with a non-default fetch size are not cached, so they do not affect other queries
+			s = con.prepareStatement(getSQL(), autoGeneratedKeys);
+		} else {
+			s = StatementCache.prepare(con, getSQL(), autoGeneratedKeys);
+		}
+
+		try {
+			if (this.fetchSize != 0) {
+				s.setFetchSize(this.fetchSize);
+			}
+
+			forEachParam((index, value) -> Binders.bind(s, index, value));
+		} catch (SQLException | RuntimeException e) {
+			s.close();
+			throw e;
 		}
 
 		return s;
@@ -63,8 +226,41 @@ public abstract class AbstractQuery {
 	 * @throws SQLException On SQL error.
 	 */
 	public int update(@NonNull Connection con) throws SQLException {
+		AutoCloseable cleanup = prepareConnection(con);
+
+		try {
+			int parts = partCount();
+
+			if (parts == 1) {
+				return executeUpdate(con);
+			}
+
+			int count = 0;
+
+			for (int i = 0; i < parts; i++) {
+				count += part(i).executeUpdate(con);
+			}
+
+			return count;
+		} finally {
+			closeCleanup(cleanup);
+		}
+	}
+
+	private int executeUpdate(@NonNull Connection con) throws SQLException {
+		QueryExecution execution = QueryExecution.start(QueryEvent.Kind.UPDATE, this);
+
 		try (PreparedStatement s = prepareStatement(con)) {
-			return s.executeUpdate();
+			execution.bound();
+			int count = s.executeUpdate();
+			execution.executed();
+			execution.succeeded(count);
+			return count;
+		} catch (SQLException | RuntimeException e) {
+			execution.failed(e);
+			throw e;
+		} finally {
+			invalidateCachedResults();
 		}
 	}
 
@@ -88,9 +284,51 @@ public abstract class AbstractQuery {
 	 * @throws SQLException On SQL error.
 	 */
 	public ResultSetWrapper updateWithKeys(@NonNull Connection con) throws SQLException {
-		PreparedStatement p = prepareStatement(con, PreparedStatement.RETURN_GENERATED_KEYS);
-		p.executeUpdate();
-		return new ResultSetWrapper(p.getGeneratedKeys(), p);
+		checkSinglePart();
+
+		AutoCloseable cleanup = prepareConnection(con);
+
+		try {
+			return updateWithKeys(con, cleanup);
+		} catch (SQLException | RuntimeException e) {
+			try {
+				closeCleanup(cleanup);
+			} catch (SQLException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+
+			throw e;
+		}
+	}
+
+	private ResultSetWrapper updateWithKeys(@NonNull Connection con, AutoCloseable cleanup) throws SQLException {
+		QueryExecution execution = QueryExecution.start(QueryEvent.Kind.UPDATE_WITH_KEYS, this);
+
+		PreparedStatement p;
+		int count;
+
+		try {
+			p = prepareStatement(con, PreparedStatement.RETURN_GENERATED_KEYS);
+			execution.bound();
+
+			try {
+				count = p.executeUpdate();
+			} catch (SQLException | RuntimeException e) {
+				p.close();
+				throw e;
+			}
+
+			execution.executed();
+		} catch (SQLException | RuntimeException e) {
+			execution.failed(e);
+			throw e;
+		} finally {
+			invalidateCachedResults();
+		}
+
+		execution.succeeded(count);
+
+		return new ResultSetWrapper(p.getGeneratedKeys(), p, cleanup);
 	}
 
 	/**
@@ -128,9 +366,100 @@ public abstract class AbstractQuery {
 	 * @throws SQLException On SQL error.
 	 */
 	public ResultSetWrapper query(@NonNull Connection con) throws SQLException {
-		PreparedStatement p = prepareStatement(con);
+		checkSinglePart();
 
-		return new ResultSetWrapper(p.executeQuery(), p);
+		return query(con, null);
+	}
+
+	/**
+	 * Executes the query without checking that it consists of a single part.
+	 * @param resource A resource to close after the result set.
+	 */
+	private ResultSetWrapper query(@NonNull Connection con, AutoCloseable resource) throws SQLException {
+		AutoCloseable cleanup = prepareConnection(con);
+
+		if (cleanup != null) {
+			AutoCloseable next = resource;
+
+			resource = () -> {
+				try {
+					cleanup.close();
+				} finally {
+					if (next != null) {
+						next.close();
+					}
+				}
+			};
+		}
+
+		QueryExecution execution = QueryExecution.start(QueryEvent.Kind.QUERY, this);
+
+		try {
+			return query(con, resource, execution);
+		} catch (SQLException | RuntimeException e) {
+			execution.failed(e);
+
+			try {
+				closeCleanup(cleanup);
+			} catch (SQLException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+
+			throw e;
+		}
+	}
+
+	private ResultSetWrapper query(@NonNull Connection con, AutoCloseable resource, @NonNull QueryExecution execution) throws SQLException {
+		if (!this.useCursor || !con.getAutoCommit()) {
+			PreparedStatement p = prepareStatement(con);
+			execution.bound();
+
+			try {
+				ResultSet set = p.executeQuery();
+				execution.executed();
+				return new ResultSetWrapper(set, p, resource, execution);
+			} catch (SQLException | RuntimeException e) {
+				p.close();
+				throw e;
+			}
+		}
+
+		con.setAutoCommit(false);
+
+		try {
+			PreparedStatement p = prepareStatement(con);
+			execution.bound();
+
+			try {
+				ResultSet set = p.executeQuery();
+				execution.executed();
+				return new ResultSetWrapper(set, p, () -> {
+					try {
+						con.commit();
+					} finally {
+						try {
+							con.setAutoCommit(true);
+						} finally {
+							if (resource != null) {
+								resource.close();
+							}
+						}
+					}
+				}, execution);
+			} catch (SQLException | RuntimeException e) {
+				p.close();
+				throw e;
+			}
+		} catch (SQLException | RuntimeException e) {
+			try {
+				con.rollback();
+				con.setAutoCommit(true);
+			} catch (SQLException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+
+			throw e;
+		}
 	}
 
 	/**
@@ -144,8 +473,30 @@ public abstract class AbstractQuery {
 	 * @throws SQLException On SQL error.
 	 */
 	public <T> Optional<T> queryAndMap(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
+		if (this.resultCache != null && partCount() == 1) {
+			return this.resultCache.get(this, mapper, "map", () -> loadAndMap(source, mapper));
+		}
+
+		return loadAndMap(source, mapper);
+	}
+
+	private <T> Optional<T> loadAndMap(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
 		try (Connection con = source.getConnection()) {
-			return query(con).map(mapper);
+			int parts = partCount();
+
+			if (parts == 1) {
+				return query(con, null).map(mapper);
+			}
+
+			for (int i = 0; i < parts; i++) {
+				Optional<T> result = part(i).query(con, null).map(mapper);
+
+				if (result.isPresent()) {
+					return result;
+				}
+			}
+
+			return Optional.empty();
 		}
 	}
 
@@ -160,8 +511,296 @@ public abstract class AbstractQuery {
 	 * @throws SQLException On SQL error.
 	 */
 	public <T> List<T> queryAndMapAll(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
+		if (this.resultCache != null && partCount() == 1) {
+			return this.resultCache.get(this, mapper, "mapAll", () -> Collections.unmodifiableList(loadAndMapAll(source, mapper)));
+		}
+
+		return loadAndMapAll(source, mapper);
+	}
+
+	private <T> List<T> loadAndMapAll(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			int parts = partCount();
+
+			if (parts == 1) {
+				return query(con, null).mapAll(mapper);
+			}
+
+			List<T> list = new ArrayList<>();
+
+			for (int i = 0; i < parts; i++) {
+				list.addAll(part(i).query(con, null).mapAll(mapper));
+			}
+
+			return list;
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query, calls
+	 * {@link ResultSetWrapper#mapRow(RowMapper)} with the specified
+	 * mapper and returns the result.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Result type.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> Optional<T> queryAndMapRow(@NonNull DataSource source, @NonNull RowMapper<T> mapper) throws SQLException {
 		try (Connection con = source.getConnection()) {
-			return query(con).mapAll(mapper);
+			return query(con).mapRow(mapper);
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query, calls
+	 * {@link ResultSetWrapper#mapAllRows(RowMapper)} with the specified
+	 * mapper and returns the result.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Result type.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> List<T> queryAndMapAllRows(@NonNull DataSource source, @NonNull RowMapper<T> mapper) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			int parts = partCount();
+
+			if (parts == 1) {
+				return query(con, null).mapAllRows(mapper);
+			}
+
+			List<T> list = new ArrayList<>();
+
+			for (int i = 0; i < parts; i++) {
+				list.addAll(part(i).query(con, null).mapAllRows(mapper));
+			}
+
+			return list;
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query, calls
+	 * {@link ResultSetWrapper#mapAllLongs(LongResultSetMapper)} with the specified
+	 * mapper and returns the result.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public LongList queryAndMapAllLongs(@NonNull DataSource source, @NonNull LongResultSetMapper mapper) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			return query(con).mapAllLongs(mapper);
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query, calls
+	 * {@link ResultSetWrapper#mapAllInts(IntResultSetMapper)} with the specified
+	 * mapper and returns the result.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public IntList queryAndMapAllInts(@NonNull DataSource source, @NonNull IntResultSetMapper mapper) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			return query(con).mapAllInts(mapper);
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query, calls
+	 * {@link ResultSetWrapper#mapAllDoubles(DoubleResultSetMapper)} with the specified
+	 * mapper and returns the result.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @return Result.
+	 * @throws SQLException On SQL error.
+	 */
+	public DoubleList queryAndMapAllDoubles(@NonNull DataSource source, @NonNull DoubleResultSetMapper mapper) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			return query(con).mapAllDoubles(mapper);
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query and returns a lazy stream
+	 * of rows mapped with the specified mapper, see {@link ResultSetWrapper#stream(ResultSetMapper)}.
+	 * The stream must be closed by the caller; closing it closes the statement and the connection.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Result type.
+	 * @return Stream of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> Stream<T> queryAndStream(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
+		checkSinglePart();
+
+		Connection con = source.getConnection();
+
+		try {
+			return query(con, con).stream(mapper);
+		} catch (Throwable t) {
+			try {
+				con.close();
+			} catch (SQLException e) {
+				t.addSuppressed(e);
+			}
+
+			throw t;
+		}
+	}
+
+	/**
+	 * Obtains a connection from the source, performs a query and calls
+	 * {@link ResultSetWrapper#forEach(RowConsumer)} with the specified consumer.
+	 * @param source Source of connections.
+	 * @param consumer Consumer.
+	 * @throws SQLException On SQL error.
+	 */
+	public void queryAndForEach(@NonNull DataSource source, @NonNull RowConsumer consumer) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			int parts = partCount();
+
+			if (parts == 1) {
+				query(con, null).forEach(consumer);
+				return;
+			}
+
+			for (int i = 0; i < parts; i++) {
+				part(i).query(con, null).forEach(consumer);
+			}
+		}
+	}
+
+	/**
+	 * Executes {@link #update(DataSource)} asynchronously using the default executor, see {@link #updateAsync(DataSource, Executor)}.
+	 * @param source Source of connections.
+	 * @return Future of the result of <code>executeUpdate</code>.
+	 */
+	public CompletableFuture<Integer> updateAsync(@NonNull DataSource source) {
+		return updateAsync(source, ExecutorUtil.defaultExecutor());
+	}
+
+	/**
+	 * Executes {@link #update(DataSource)} asynchronously. The query must not be modified until the future is completed.
+	 * @param source Source of connections.
+	 * @param executor Executor to run the update on.
+	 * @return Future of the result of <code>executeUpdate</code>, completed exceptionally with {@link SQLException} on SQL error.
+	 */
+	public CompletableFuture<Integer> updateAsync(@NonNull DataSource source, @NonNull Executor executor) {
+		return ExecutorUtil.supplyAsync(() -> update(source), executor);
+	}
+
+	/**
+	 * Executes {@link #queryAndMap(DataSource, ResultSetMapper)} asynchronously using the default executor,
+	 * see {@link #queryAndMapAsync(DataSource, ResultSetMapper, Executor)}.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Result type.
+	 * @return Future of the result.
+	 */
+	public <T> CompletableFuture<Optional<T>> queryAndMapAsync(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+		return queryAndMapAsync(source, mapper, ExecutorUtil.defaultExecutor());
+	}
+
+	/**
+	 * Executes {@link #queryAndMap(DataSource, ResultSetMapper)} asynchronously. The query must not be modified until the future is completed.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param executor Executor to run the query on.
+	 * @param <T> Result type.
+	 * @return Future of the result, completed exceptionally with {@link SQLException} on SQL error.
+	 */
+	public <T> CompletableFuture<Optional<T>> queryAndMapAsync(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper, @NonNull Executor executor) {
+		return ExecutorUtil.supplyAsync(() -> queryAndMap(source, mapper), executor);
+	}
+
+	/**
+	 * Executes {@link #queryAndMapAll(DataSource, ResultSetMapper)} asynchronously using the default executor,
+	 * see {@link #queryAndMapAllAsync(DataSource, ResultSetMapper, Executor)}.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Result type.
+	 * @return Future of the result.
+	 */
+	public <T> CompletableFuture<List<T>> queryAndMapAllAsync(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+		return queryAndMapAllAsync(source, mapper, ExecutorUtil.defaultExecutor());
+	}
+
+	/**
+	 * Executes {@link #queryAndMapAll(DataSource, ResultSetMapper)} asynchronously. The query must not be modified until the future is completed.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param executor Executor to run the query on.
+	 * @param <T> Result type.
+	 * @return Future of the result, completed exceptionally with {@link SQLException} on SQL error.
+	 */
+	public <T> CompletableFuture<List<T>> queryAndMapAllAsync(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper, @NonNull Executor executor) {
+		return ExecutorUtil.supplyAsync(() -> queryAndMapAll(source, mapper), executor);
+	}
+
+	private void invalidateCachedResults() {
+		if (QueryResultCache.isInUse()) {
+			QueryResultCache.invalidate(getTables());
+		}
+	}
+
+	/**
+	 * @return True if this query is executed as a single statement without preparing the connection, that is,
+	 * it has no <code>IN</code> list executed in parts and no temporary tables, see {@link ConditionalQuery}.
+	 * Only such queries can be compiled.
+	 */
+	public boolean isSingleStatement() {
+		return true;
+	}
+
+	/**
+	 * @return Count of parts this query is executed in, see {@link ConditionalQuery#whereIn(String, java.util.Collection, int)}.
+	 */
+	protected int partCount() {
+		return 1;
+	}
+
+	/**
+	 * Returns a query executing the specified part of this query. This query is not modified,
+	 * so it can be executed by several threads at once.
+	 * @param part Index of the part.
+	 * @return Query of the part, or this query if it consists of a single part.
+	 */
+	AbstractQuery part(int part) {
+		return this;
+	}
+
+	/**
+	 * Prepares the connection for executing this query, like creating temporary tables.
+	 * @param con Connection.
+	 * @return Action that reverts the preparation after the execution, or null if nothing was done.
+	 * @throws SQLException On SQL error.
+	 */
+	AutoCloseable prepareConnection(@NonNull Connection con) throws SQLException {
+		return null;
+	}
+
+	private void checkSinglePart() {
+		if (partCount() != 1) {
+			throw new IllegalStateException("The query has an IN list which is executed in parts, use update, queryAndMap, queryAndMapAll, queryAndMapAllRows or queryAndForEach");
+		}
+	}
+
+	private static void closeCleanup(AutoCloseable cleanup) throws SQLException {
+		if (cleanup == null) {
+			return;
+		}
+
+		try {
+			cleanup.close();
+		} catch (SQLException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SQLException(e);
 		}
 	}
 
@@ -0,0 +1,157 @@
+package me.saharnooby.lib.query.query;
+
+import lombok.NonNull;
+
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable query with final SQL text, constant parameter values and {@link Param} slots.
+ * Binding values to slots creates a lightweight query which can be executed as any other query.
+ * Instances are thread-safe and can be created once and reused.
+ * @author saharNooby
+ * @since 14:05 16.10.2026
+ */
+public final class CompiledQuery {
+
+	private final String sql;
+	private final Object[] constants;
+	/**
+	 * For each parameter, index of the slot which value is bound to it, or -1 if the parameter is a constant.
+	 */
+	private final int[] slots;
+	private final int slotCount;
+	private final List<String> tables;
+	/**
+	 * Query holding execution options of the compiled query, which are copied to bound queries.
+	 */
+	private final Bound options;
+
+	private CompiledQuery(@NonNull AbstractQuery query, @NonNull String sql, @NonNull List<Object> params) {
+		this.sql = sql;
+		this.constants = new Object[params.size()];
+		this.slots = new int[params.size()];
+
+		Map<Param, Integer> slotIndices = new IdentityHashMap<>();
+
+		for (int i = 0; i < params.size(); i++) {
+			Object param = params.get(i);
+
+			if (param instanceof Param) {
+				Integer index = slotIndices.get(param);
+
+				if (index == null) {
+					index = slotIndices.size();
+					slotIndices.put((Param) param, index);
+				}
+
+				this.slots[i] = index;
+			} else {
+				this.constants[i] = param;
+				this.slots[i] = -1;
+			}
+		}
+
+		this.slotCount = slotIndices.size();
+		this.tables = Collections.unmodifiableList(new ArrayList<>(query.getTables()));
+		this.options = new Bound(new Object[0]);
+
+		query.copyOptionsTo(this.options);
+	}
+
+	/**
+	 * Compiles a query.
+	 * Execution options of the query, like fetch size and result cache, are kept in bound queries.
+	 * @param query Query to compile, must be a single statement, see {@link AbstractQuery#isSingleStatement()}.
+	 *              Can be modified or discarded after compiling.
+	 * @return Compiled query.
+	 */
+	public static CompiledQuery of(@NonNull AbstractQuery query) {
+		if (!query.isSingleStatement()) {
+			throw new IllegalArgumentException("Can't compile a query with an IN list executed in parts or temporary tables");
+		}
+
+		return new CompiledQuery(query, query.getSQL(), query.getParams());
+	}
+
+	/**
+	 * @return The SQL query.
+	 */
+	public String getSQL() {
+		return this.sql;
+	}
+
+	/**
+	 * @return Count of distinct {@link Param} slots in the query.
+	 */
+	public int getSlotCount() {
+		return this.slotCount;
+	}
+
+	/**
+	 * Binds values to the slots.
+	 * @param values Slot values, in order of slot occurrence. The array is copied.
+	 * @return A query that can be executed. Its parameter list is a view, only slot values are copied.
+	 */
+	public AbstractQuery bind(@NonNull Object... values) {
+		if (values.length != this.slotCount) {
+			throw new IllegalArgumentException("Expected " + this.slotCount + " values, got " + values.length);
+		}
+
+		Bound bound = new Bound(values.clone());
+		this.options.copyOptionsTo(bound);
+		return bound;
+	}
+
+	private final class Bound extends AbstractQuery {
+
+		private final Object[] values;
+		private final List<Object> params;
+
+		Bound(Object[] values) {
+			this.values = values;
+			this.params = new AbstractList<Object>() {
+				@Override
+				public Object get(int index) {
+					int slot = slots[index];
+					return slot < 0 ? constants[index] : Bound.this.values[slot];
+				}
+
+				@Override
+				public int size() {
+					return slots.length;
+				}
+			};
+		}
+
+		@Override
+		public String getSQL() {
+			return sql;
+		}
+
+		@Override
+		public List<Object> getParams() {
+			return this.params;
+		}
+
+		@Override
+		public List<String> getTables() {
+			return tables;
+		}
+
+		@Override
+		public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+			for (int i = 0; i < slots.length; i++) {
+				int slot = slots[i];
+				consumer.accept(i + 1, slot < 0 ? constants[i] : this.values[slot]);
+			}
+		}
+
+	}
+
+}
@@ -1,9 +1,19 @@
 package me.saharnooby.lib.query.query;
 
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.query.impl.BulkInsert;
+import me.saharnooby.lib.query.query.impl.Raw;
+import me.saharnooby.lib.query.util.SQLCache;
 import me.saharnooby.lib.query.util.SQLUtil;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -13,8 +23,38 @@ import java.util.List;
  */
 public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends AbstractQuery {
 
+	/**
+	 * Default max count of values in a single <code>IN</code> list, see {@link #whereIn(String, Collection)}.
+	 */
+	public static final int DEFAULT_MAX_IN_VALUES = 1000;
+
+	@RequiredArgsConstructor
+	private static final class InList {
+
+		final int conditionIndex;
+		final String column;
+		final Object[] values;
+		final int maxValues;
+
+	}
+
+	@RequiredArgsConstructor
+	private static final class TemporaryTable {
+
+		final String name;
+		final String sqlType;
+		final Object[] values;
+
+	}
+
 	protected final List<Expression> conditions = new ArrayList<>();
 
+	/**
+	 * The <code>IN</code> list which is longer than its max size and is executed in parts, or null.
+	 */
+	private InList splitIn;
+	private List<TemporaryTable> temporaryTables = Collections.emptyList();
+
 	/**
 	 * Adds a <code>WHERE</code> condition that checks that specified column has specified value.
 	 * Conditions are chained with <code>AND</code> operation.
@@ -24,7 +64,7 @@ public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends Ab
 	 */
 	public final T where(@NonNull String column, @NonNull Object value) {
 		SQLUtil.validateIdentifier(column);
-		return whereExpr("`" + column + "` = ?", value);
+		return where(Expression.equal(column, value));
 	}
 
 	/**
@@ -34,10 +74,14 @@ public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends Ab
 	 * @param params Expression parameters (filled in placeholders <code>?</code>).
 	 * @return This object.
 	 */
-	@SuppressWarnings("unchecked")
 	public final T whereExpr(@NonNull String expr, @NonNull Object... params) {
 		SQLUtil.validatePlaceholderCount(expr, params);
-		this.conditions.add(new Expression(expr, params));
+		return where(new Expression(expr, params));
+	}
+
+	@SuppressWarnings("unchecked")
+	private T where(@NonNull Expression condition) {
+		this.conditions.add(condition);
 		return (T) this;
 	}
 
@@ -48,7 +92,7 @@ public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends Ab
 	 * @return This object.
 	 */
 	public final T whereNull(@NonNull String column) {
-		return whereExpr("`" + column + "` IS NULL");
+		return where(Expression.isNull(column));
 	}
 
 	/**
@@ -62,6 +106,276 @@ public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends Ab
 		return value == null ? whereNull(column) : where(column, value);
 	}
 
+	/**
+	 * Adds a <code>WHERE</code> condition that checks that specified column has one of specified values,
+	 * see {@link #whereIn(String, Collection, int)}. At most {@link #DEFAULT_MAX_IN_VALUES} values are used in a single query.
+	 * @param column Column name.
+	 * @param values Values, must not contain nulls.
+	 * @return This object.
+	 */
+	public final T whereIn(@NonNull String column, @NonNull Collection<?> values) {
+		return whereIn(column, values, DEFAULT_MAX_IN_VALUES);
+	}
+
+	/**
+	 * Adds a <code>WHERE</code> condition that checks that specified column has one of specified values.
+	 * Conditions are chained with <code>AND</code> operation.
+	 * <p>
+	 * Count of placeholders is rounded up to a power of 2 (or to the max count) by repeating the last value,
+	 * so lists of different sizes produce only a few distinct SQL texts and reuse cached statements and plans.
+	 * An empty list produces a condition that is always false.
+	 * <p>
+	 * If there are more values than the max count, the query is executed in parts, each with its own part of the list;
+	 * only one such list is allowed per query. Such queries can be executed only by {@link #update(Connection)},
+	 * {@link #queryAndMap}, {@link #queryAndMapAll}, {@link #queryAndMapAllRows} and {@link #queryAndForEach},
+	 * which merge results of the parts; the order of rows and <code>LIMIT</code> apply to each part separately,
+	 * and {@link #getSQL()} and {@link #getParams()} describe the first part.
+	 * For very large lists, consider {@link #whereInTemporaryTable(String, Collection, String)}.
+	 * @param column Column name.
+	 * @param values Values, must not contain nulls.
+	 * @param maxValues Max count of values in a single query.
+	 * @return This object.
+	 */
+	@SuppressWarnings("unchecked")
+	public final T whereIn(@NonNull String column, @NonNull Collection<?> values, int maxValues) {
+		SQLUtil.validateIdentifier(column);
+
+		if (maxValues < 1) {
+			throw new IllegalArgumentException("" + maxValues);
+		}
+
+		Object[] array = values.toArray();
+
+		for (Object value : array) {
+			if (value == null) {
+				throw new IllegalArgumentException("IN list can't contain nulls");
+			}
+		}
+
+		if (array.length == 0) {
+			return whereExpr("0 = 1");
+		}
+
+		if (array.length > maxValues) {
+			if (this.splitIn != null) {
+				throw new IllegalStateException("Only one IN list can exceed the max count of values");
+			}
+
+			this.splitIn = new InList(this.conditions.size(), column, array, maxValues);
+		}
+
+		this.conditions.add(inCondition(column, array, 0, Math.min(array.length, maxValues), maxValues));
+
+		return (T) this;
+	}
+
+	/**
+	 * Adds a <code>WHERE</code> condition that checks that specified column has one of specified values,
+	 * which are loaded into a temporary table before executing the query: <code>`column` IN (SELECT `value` FROM temporary_table)</code>.
+	 * The table is created on the connection the query is executed on, and is dropped after the query or its result set is closed.
+	 * This is supported only by execution methods of the query itself, not by batches.
+	 * <p>
+	 * Useful for very large lists, which would make the SQL text too long or require too many parts with {@link #whereIn(String, Collection)}.
+	 * Temporary table names are fixed per query, so queries with temporary tables must not be nested on the same connection.
+	 * @param column Column name.
+	 * @param values Values, must not contain nulls. Duplicates are ignored.
+	 * @param sqlType SQL type of values, like <code>BIGINT</code> or <code>VARCHAR(64)</code>.
+	 * @return This object.
+	 */
+	public final T whereInTemporaryTable(@NonNull String column, @NonNull Collection<?> values, @NonNull String sqlType) {
+		SQLUtil.validateIdentifier(column);
+
+		if (this.temporaryTables.isEmpty()) {
+			this.temporaryTables = new ArrayList<>();
+		}
+
+		Object[] array = values.toArray();
+
+		for (Object value : array) {
+			if (value == null) {
+				throw new IllegalArgumentException("IN list can't contain nulls");
+			}
+		}
+
+		String table = "query_lib_in_" + this.temporaryTables.size();
+
+		this.temporaryTables.add(new TemporaryTable(table, sqlType, array));
+
+		return whereExpr("`" + column + "` IN (SELECT `value` FROM `" + table + "`)");
+	}
+
+	/**
+	 * See {@link AbstractQuery#fetchSize(int)}.
+	 * @param rows Count of rows to fetch from the database at once, 0 means driver default.
+	 * @return This object.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T fetchSize(int rows) {
+		super.fetchSize(rows);
+		return (T) this;
+	}
+
+	/**
+	 * See {@link AbstractQuery#forwardOnly()}.
+	 * @return This object.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T forwardOnly() {
+		super.forwardOnly();
+		return (T) this;
+	}
+
+	/**
+	 * See {@link AbstractQuery#streamRows()}.
+	 * @return This object.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T streamRows() {
+		super.streamRows();
+		return (T) this;
+	}
+
+	/**
+	 * See {@link AbstractQuery#useCursor()}.
+	 * @return This object.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T useCursor() {
+		super.useCursor();
+		return (T) this;
+	}
+
+	/**
+	 * See {@link AbstractQuery#cacheResults(QueryResultCache)}.
+	 * @param cache Cache.
+	 * @return This object.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T cacheResults(@NonNull QueryResultCache cache) {
+		super.cacheResults(cache);
+		return (T) this;
+	}
+
+	/**
+	 * @return Copy of this query, including execution options.
+	 */
+	protected abstract T copy();
+
+	/**
+	 * Copies conditions, including <code>IN</code> lists executed in parts and temporary tables, to another query.
+	 * @param query Query without conditions.
+	 */
+	protected void copyConditionsTo(@NonNull ConditionalQuery<?> query) {
+		query.conditions.addAll(this.conditions);
+		query.splitIn = this.splitIn;
+		query.temporaryTables = this.temporaryTables.isEmpty() ? Collections.emptyList() : new ArrayList<>(this.temporaryTables);
+	}
+
+	@Override
+	public boolean isSingleStatement() {
+		return this.splitIn == null && this.temporaryTables.isEmpty();
+	}
+
+	@Override
+	protected int partCount() {
+		InList in = this.splitIn;
+		return in == null ? 1 : (in.values.length + in.maxValues - 1) / in.maxValues;
+	}
+
+	@Override
+	AbstractQuery part(int part) {
+		InList in = this.splitIn;
+
+		if (in == null) {
+			return this;
+		}
+
+		ConditionalQuery<?> copy = copy();
+		int from = part * in.maxValues;
+		copy.conditions.set(in.conditionIndex, inCondition(in.column, in.values, from, Math.min(in.values.length, from + in.maxValues), in.maxValues));
+		copy.splitIn = null;
+		return copy;
+	}
+
+	@Override
+	AutoCloseable prepareConnection(@NonNull Connection con) throws SQLException {
+		if (this.temporaryTables.isEmpty()) {
+			return null;
+		}
+
+		List<TemporaryTable> tables = this.temporaryTables;
+
+		try {
+			for (TemporaryTable table : tables) {
+				new Raw("DROP TEMPORARY TABLE IF EXISTS `" + table.name + "`;", Collections.emptyList()).update(con);
+				new Raw("CREATE TEMPORARY TABLE `" + table.name + "` (`value` " + table.sqlType + " NOT NULL PRIMARY KEY);", Collections.emptyList()).update(con);
+
+				BulkInsert insert = Query.bulkInsertInto(table.name).columns("value").ignore();
+
+				for (Object value : table.values) {
+					insert.row(value);
+				}
+
+				insert.update(con);
+			}
+		} catch (SQLException | RuntimeException e) {
+			try {
+				dropTemporaryTables(con, tables);
+			} catch (SQLException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+
+			throw e;
+		}
+
+		return () -> dropTemporaryTables(con, tables);
+	}
+
+	private static void dropTemporaryTables(@NonNull Connection con, @NonNull List<TemporaryTable> tables) throws SQLException {
+		for (TemporaryTable table : tables) {
+			new Raw("DROP TEMPORARY TABLE IF EXISTS `" + table.name + "`;", Collections.emptyList()).update(con);
+		}
+	}
+
+	private static Expression inCondition(@NonNull String column, @NonNull Object[] values, int from, int to, int maxValues) {
+		int size = to - from;
+		int padded = 1;
+
+		while (padded < size) {
+			padded <<= 1;
+		}
+
+		padded = Math.min(padded, maxValues);
+
+		Object[] params = new Object[padded];
+		System.arraycopy(values, from, params, 0, size);
+		// Duplicates do not change the result of IN
+		Arrays.fill(params, size, padded, values[to - 1]);
+
+		return Expression.in(column, params);
+	}
+
+	protected void appendConditionsShape(@NonNull SQLCache.Shape shape) {
+		shape.add(this.conditions.size());
+
+		for (Expression condition : this.conditions) {
+			condition.appendShape(shape);
+		}
+	}
+
+	protected int acceptConditionParams(@NonNull ParamConsumer consumer, int index) throws SQLException {
+		for (Expression condition : this.conditions) {
+			index = acceptParams(consumer, index, condition.params);
+		}
+
+		return index;
+	}
+
 	protected void appendConditions(@NonNull StringBuilder sb) {
 		if (this.conditions.isEmpty()) {
 			return;
@@ -70,7 +384,7 @@ public abstract class ConditionalQuery<T extends ConditionalQuery<T>> extends Ab
 		sb.append("WHERE ");
 
 		for (Expression condition : this.conditions) {
-			sb.append("(").append(condition.expr).append(") AND ");
+			sb.append("(").append(condition.getExpr()).append(") AND ");
 		}
 
 		sb.setLength(sb.length() - 5);
@@ -1,16 +1,138 @@
 package me.saharnooby.lib.query.query;
 
-import lombok.RequiredArgsConstructor;
+import lombok.NonNull;
+import me.saharnooby.lib.query.util.SQLCache;
 
 /**
  * Internal class, do not use directly.
  * @author saharNooby
  * @since 17:06 15.11.2019
  */
-@RequiredArgsConstructor
 public final class Expression {
 
-	public final String expr;
+	/**
+	 * Kinds of expressions over a single column. Their SQL text is rendered only when the query SQL is not cached,
+	 * and their shape consists of the kind and the column name instead of the text.
+	 */
+	private enum Kind {
+
+		COLUMN, EQUALS, IS_NULL, IN
+
+	}
+
+	private static final Object[] NO_PARAMS = new Object[0];
+
+	/**
+	 * Kind of the expression, or null for expressions specified as SQL text.
+	 */
+	private final Kind kind;
+	private final String column;
+	private String expr;
+
 	public final Object[] params;
 
+	public Expression(@NonNull String expr, @NonNull Object[] params) {
+		this.kind = null;
+		this.column = null;
+		this.expr = expr;
+		this.params = params;
+	}
+
+	private Expression(@NonNull Kind kind, @NonNull String column, @NonNull Object[] params) {
+		this.kind = kind;
+		this.column = column;
+		this.params = params;
+	}
+
+	/**
+	 * @param column Column name.
+	 * @return Expression <code>`column`</code>.
+	 */
+	public static Expression column(@NonNull String column) {
+		return new Expression(Kind.COLUMN, column, NO_PARAMS);
+	}
+
+	/**
+	 * @param column Column name.
+	 * @param value Value.
+	 * @return Expression <code>`column` = ?</code>.
+	 */
+	public static Expression equal(@NonNull String column, @NonNull Object value) {
+		return new Expression(Kind.EQUALS, column, new Object[] {value});
+	}
+
+	/**
+	 * @param column Column name.
+	 * @return Expression <code>`column` IS NULL</code>.
+	 */
+	public static Expression isNull(@NonNull String column) {
+		return new Expression(Kind.IS_NULL, column, NO_PARAMS);
+	}
+
+	/**
+	 * @param column Column name.
+	 * @param values Values, must not be empty.
+	 * @return Expression <code>`column` IN (?, ?, ...)</code>.
+	 */
+	public static Expression in(@NonNull String column, @NonNull Object[] values) {
+		if (values.length == 0) {
+			throw new IllegalArgumentException("Empty IN list");
+		}
+
+		return new Expression(Kind.IN, column, values);
+	}
+
+	/**
+	 * @return SQL text of the expression.
+	 */
+	public String getExpr() {
+		String expr = this.expr;
+
+		if (expr == null) {
+			// Rendering twice concurrently is harmless
+			expr = render();
+			this.expr = expr;
+		}
+
+		return expr;
+	}
+
+	/**
+	 * Appends parts that define SQL text of this expression to the shape.
+	 * @param shape Shape.
+	 */
+	public void appendShape(@NonNull SQLCache.Shape shape) {
+		if (this.kind == null) {
+			shape.add(this.expr);
+		} else {
+			shape.add(this.kind).add(this.column);
+
+			if (this.kind == Kind.IN) {
+				shape.add(this.params.length);
+			}
+		}
+	}
+
+	private String render() {
+		switch (this.kind) {
+			case COLUMN:
+				return "`" + this.column + "`";
+			case EQUALS:
+				return "`" + this.column + "` = ?";
+			case IS_NULL:
+				return "`" + this.column + "` IS NULL";
+			case IN:
+				StringBuilder sb = new StringBuilder(this.column.length() + 8 + this.params.length * 3);
+				sb.append('`').append(this.column).append("` IN (");
+
+				for (int i = 0; i < this.params.length; i++) {
+					sb.append(i == 0 ? "?" : ", ?");
+				}
+
+				return sb.append(')').toString();
+			default:
+				throw new IllegalStateException(this.kind.toString());
+		}
+	}
+
 }
@@ -0,0 +1,29 @@
+package me.saharnooby.lib.query.query;
+
+/**
+ * A placeholder for a parameter value that is specified each time a {@link CompiledQuery} is executed.
+ * Can be used anywhere a parameter value is accepted, like <code>where("key", Param.slot())</code>.
+ * @author saharNooby
+ * @since 14:02 16.10.2026
+ */
+public final class Param {
+
+	private Param() {
+
+	}
+
+	/**
+	 * Creates a new slot. Slots are numbered in order of their first occurrence in the query parameters.
+	 * Using the same slot object several times in a query binds the same value to all its occurrences.
+	 * @return A new slot.
+	 */
+	public static Param slot() {
+		return new Param();
+	}
+
+	@Override
+	public String toString() {
+		return "Param.slot()";
+	}
+
+}
@@ -0,0 +1,21 @@
+package me.saharnooby.lib.query.query;
+
+import java.sql.SQLException;
+
+/**
+ * Accepts query parameter values one by one.
+ * @author saharNooby
+ * @since 16:50 16.10.2026
+ */
+@FunctionalInterface
+public interface ParamConsumer {
+
+	/**
+	 * Accepts a parameter value.
+	 * @param index Parameter index, starting from 1.
+	 * @param value Parameter value.
+	 * @throws SQLException On SQL error.
+	 */
+	void accept(int index, Object value) throws SQLException;
+
+}
@@ -31,6 +31,15 @@ public final class Query {
 		return new Insert(null, tableName);
 	}
 
+	/**
+	 * @param tableName Name of the table to be updated.
+	 * @return An <code>INSERT</code> query for many rows.
+	 */
+	public static BulkInsert bulkInsertInto(@NonNull String tableName) {
+		SQLUtil.validateIdentifier(tableName);
+		return new BulkInsert(null, tableName);
+	}
+
 	/**
 	 * @param tableName Name of the table to be updated.
 	 * @return An <code>UPDATE</code> query.
@@ -86,6 +95,17 @@ public final class Query {
 		return new Insert(database, tableName);
 	}
 
+	/**
+	 * @param database Name of the database containing the table.
+	 * @param tableName Name of the table to be updated.
+	 * @return An <code>INSERT</code> query for many rows.
+	 */
+	public static BulkInsert bulkInsertInto(@NonNull String database, @NonNull String tableName) {
+		SQLUtil.validateIdentifier(database);
+		SQLUtil.validateIdentifier(tableName);
+		return new BulkInsert(database, tableName);
+	}
+
 	/**
 	 * @param database Name of the database containing the table.
 	 * @param tableName Name of the table to be updated.
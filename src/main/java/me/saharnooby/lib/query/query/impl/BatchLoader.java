@@ -0,0 +1,256 @@
+package me.saharnooby.lib.query.query.impl;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import me.saharnooby.lib.query.set.RowConsumer;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces lookups of single rows by key into batches: keys requested within a short time window, or until
+ * the max batch size is reached, are loaded by a single query <code>WHERE (conditions) AND (`key` IN (...))</code>,
+ * and each caller receives its own row. Under load, this turns many round trips into one.
+ * <p>
+ * Requesting a key does not take locks; pending keys are kept in a concurrent queue,
+ * and batches are executed on the executor. Duplicate keys in a batch are loaded once.
+ * Values of the key column must be unique and must be present in the selected expression list;
+ * the key mapper must return keys equal to the requested ones, for example, of the same boxed type.
+ * Created by {@link Select#batchLoader(String, DataSource, ResultSetMapper, ResultSetMapper)}.
+ * <pre>
+ * BatchLoader&lt;Long, User&gt; users = Query.select().all().from("users")
+ *     .batchLoader("id", dataSource, set -&gt; set.getLong("id"), USER_MAPPER)
+ *     .window(Duration.ofMillis(2));
+ * ...
+ * users.load(id).thenAccept(user -&gt; ...);
+ * </pre>
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author saharNooby
+ * @since 17:40 16.10.2026
+ */
+public final class BatchLoader<K, V> {
+
+	private static final class Request<K, V> {
+
+		final K key;
+		final CompletableFuture<Optional<V>> future = new CompletableFuture<>();
+
+		Request(@NonNull K key) {
+			this.key = key;
+		}
+
+	}
+
+	/**
+	 * Reads values of requested keys. Mappers are resolved once per result set,
+	 * a query with many keys is executed in parts.
+	 */
+	private final class RowReader implements RowConsumer {
+
+		private final Set<K> keys;
+		private final Map<K, V> values;
+
+		private ResultSet set;
+		private ResultSetMapper<K> keyMapper;
+		private ResultSetMapper<V> mapper;
+
+		RowReader(@NonNull Set<K> keys, @NonNull Map<K, V> values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		@Override
+		public void accept(@NonNull ResultSet set) throws SQLException {
+			if (this.set != set) {
+				this.set = set;
+				this.keyMapper = BatchLoader.this.keyMapper.forResultSet(set);
+				this.mapper = BatchLoader.this.mapper.forResultSet(set);
+			}
+
+			K key = this.keyMapper.map(set);
+
+			if (this.keys.contains(key) && !this.values.containsKey(key)) {
+				this.values.put(key, this.mapper.map(set));
+			}
+		}
+
+	}
+
+	private final Select select;
+	private final String column;
+	private final DataSource source;
+	private final ResultSetMapper<K> keyMapper;
+	private final ResultSetMapper<V> mapper;
+
+	private final Queue<Request<K, V>> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingCount = new AtomicInteger();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private volatile long windowNanos = TimeUnit.MILLISECONDS.toNanos(1);
+	private volatile int maxBatchSize = 100;
+	private volatile Executor executor = ExecutorUtil.defaultExecutor();
+
+	BatchLoader(@NonNull Select select, @NonNull String column, @NonNull DataSource source, @NonNull ResultSetMapper<K> keyMapper, @NonNull ResultSetMapper<V> mapper) {
+		SQLUtil.validateIdentifier(column);
+
+		this.select = select;
+		this.column = column;
+		this.source = source;
+		this.keyMapper = keyMapper;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Sets the time to wait for more keys after the first key of a batch is requested. Default is 1 millisecond.
+	 * @param window Time window, zero means that keys are coalesced only while a previous batch is being dispatched.
+	 * @return This object.
+	 */
+	public BatchLoader<K, V> window(@NonNull Duration window) {
+		if (window.isNegative()) {
+			throw new IllegalArgumentException("" + window);
+		}
+
+		this.windowNanos = window.toNanos();
+
+		return this;
+	}
+
+	/**
+	 * Sets max count of keys in a batch. A batch is dispatched without waiting for the window to end
+	 * when this count of keys is pending. Default is 100.
+	 * @param keys Max count of keys.
+	 * @return This object.
+	 */
+	public BatchLoader<K, V> maxBatchSize(int keys) {
+		if (keys < 1) {
+			throw new IllegalArgumentException("" + keys);
+		}
+
+		this.maxBatchSize = keys;
+
+		return this;
+	}
+
+	/**
+	 * Sets the executor to execute batches on. By default, virtual threads are used on Java 21+,
+	 * and a shared bounded thread pool on older versions.
+	 * @param executor Executor.
+	 * @return This object.
+	 */
+	public BatchLoader<K, V> executor(@NonNull Executor executor) {
+		this.executor = executor;
+
+		return this;
+	}
+
+	/**
+	 * Requests a row by its key.
+	 * @param key Key.
+	 * @return A future completed with the mapped row, or with an empty optional if there is no row with this key,
+	 * or exceptionally if the batch query failed.
+	 */
+	public CompletableFuture<Optional<V>> load(@NonNull K key) {
+		Request<K, V> request = new Request<>(key);
+
+		this.pending.add(request);
+
+		if (this.pendingCount.incrementAndGet() >= this.maxBatchSize) {
+			dispatch();
+		} else if (this.flushScheduled.compareAndSet(false, true)) {
+			ExecutorUtil.scheduler().schedule(this::flush, this.windowNanos, TimeUnit.NANOSECONDS);
+		}
+
+		return request.future;
+	}
+
+	/**
+	 * Dispatches all pending keys without waiting for the window to end.
+	 */
+	public void flush() {
+		// Reset before draining: keys added after draining started schedule a new flush
+		this.flushScheduled.set(false);
+
+		while (dispatch()) {
+			// Dispatch remaining keys in batches of max size
+		}
+	}
+
+	/**
+	 * @return Count of keys which were requested and are not dispatched yet.
+	 */
+	public int getPendingCount() {
+		return Math.max(0, this.pendingCount.get());
+	}
+
+	/**
+	 * Takes up to max batch size pending requests and executes them on the executor.
+	 * @return False if there were no pending requests.
+	 */
+	private boolean dispatch() {
+		int max = this.maxBatchSize;
+
+		List<Request<K, V>> batch = new ArrayList<>(Math.min(max, 16));
+		Request<K, V> request;
+
+		while (batch.size() < max && (request = this.pending.poll()) != null) {
+			batch.add(request);
+		}
+
+		if (batch.isEmpty()) {
+			return false;
+		}
+
+		this.pendingCount.addAndGet(-batch.size());
+
+		try {
+			this.executor.execute(() -> execute(batch));
+		} catch (RuntimeException e) {
+			for (Request<K, V> r : batch) {
+				r.future.completeExceptionally(e);
+			}
+		}
+
+		return true;
+	}
+
+	private void execute(@NonNull List<Request<K, V>> batch) {
+		Map<K, List<Request<K, V>>> requests = new HashMap<>();
+
+		for (Request<K, V> request : batch) {
+			requests.computeIfAbsent(request.key, k -> new ArrayList<>(1)).add(request);
+		}
+
+		Map<K, V> values = new HashMap<>();
+
+		try {
+			this.select.copy().whereIn(this.column, requests.keySet()).queryAndForEach(this.source, new RowReader(requests.keySet(), values));
+		} catch (Throwable t) {
+			for (Request<K, V> request : batch) {
+				request.future.completeExceptionally(t);
+			}
+
+			return;
+		}
+
+		requests.forEach((key, list) -> {
+			Optional<V> value = Optional.ofNullable(values.get(key));
+
+			for (Request<K, V> request : list) {
+				request.future.complete(value);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,415 @@
+package me.saharnooby.lib.query.query.impl;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.util.SQLCache;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * An <code>INSERT</code> of many rows with the same column set, rendered as
+ * <code>INSERT INTO t (...) VALUES (...), (...), ...</code>.
+ * Rows are split into several statements, so each statement stays under
+ * the configured max placeholder count and max packet size.
+ * Works regardless of driver-side batch rewriting settings.
+ * <p>
+ * Only the parts of the SQL text before and after the rows are cached, so texts of big statements
+ * are not kept in memory after execution.
+ * @author saharNooby
+ * @since 21:00 16.10.2026
+ */
+@RequiredArgsConstructor
+public final class BulkInsert {
+
+	private final String database;
+	private final String table;
+
+	private boolean ignore;
+
+	private final List<String> columns = new ArrayList<>();
+	private final List<Object[]> rows = new ArrayList<>();
+
+	/**
+	 * Key columns excluded from <code>ON DUPLICATE KEY UPDATE</code> clause, or null if there is no such clause.
+	 */
+	private Set<String> updateExcept;
+	/**
+	 * Columns which are incremented by inserted values in <code>ON DUPLICATE KEY UPDATE</code> clause instead of being replaced.
+	 */
+	private Set<String> increment = Collections.emptySet();
+
+	private int maxParams = 65535;
+	private long maxPacketSize = 4 * 1024 * 1024;
+
+	/**
+	 * Adds an <code>IGNORE</code> clause to the query.
+	 * @return This object.
+	 */
+	public BulkInsert ignore() {
+		this.ignore = true;
+		return this;
+	}
+
+	/**
+	 * Adds columns to be inserted. Must be called before adding rows.
+	 * @param columns Column names.
+	 * @return This object.
+	 */
+	public BulkInsert columns(@NonNull String... columns) {
+		if (!this.rows.isEmpty()) {
+			throw new IllegalStateException("Can't add columns after adding rows");
+		}
+
+		for (String column : columns) {
+			SQLUtil.validateIdentifier(column);
+
+			if (this.columns.contains(column)) {
+				throw new IllegalArgumentException("Column " + column + " already exists");
+			}
+
+			this.columns.add(column);
+		}
+
+		return this;
+	}
+
+	/**
+	 * Adds a row.
+	 * @param values Values of the columns, in order of adding columns. Values may be null.
+	 * @return This object.
+	 */
+	public BulkInsert row(@NonNull Object... values) {
+		if (this.columns.isEmpty()) {
+			throw new IllegalStateException("No columns specified");
+		}
+
+		if (values.length != this.columns.size()) {
+			throw new IllegalArgumentException("Expected " + this.columns.size() + " values, got " + values.length);
+		}
+
+		this.rows.add(values.clone());
+
+		return this;
+	}
+
+	/**
+	 * Adds <code>ON DUPLICATE KEY UPDATE</code> clause which updates all columns, except columns marked as keys,
+	 * with values of the inserted row (<code>`column` = VALUES(`column`)</code>).
+	 * @param keys Key columns that should not be updated.
+	 * @return This object.
+	 */
+	public BulkInsert onDuplicateKeyUpdateExcept(@NonNull String... keys) {
+		this.updateExcept = new HashSet<>(Arrays.asList(keys));
+		return this;
+	}
+
+	/**
+	 * Makes the <code>ON DUPLICATE KEY UPDATE</code> clause add inserted values of specified columns
+	 * to existing values (<code>`column` = `column` + VALUES(`column`)</code>) instead of replacing them.
+	 * Requires {@link #onDuplicateKeyUpdateExcept(String...)}.
+	 * @param columns Columns to increment.
+	 * @return This object.
+	 */
+	public BulkInsert onDuplicateKeyIncrement(@NonNull String... columns) {
+		for (String column : columns) {
+			SQLUtil.validateIdentifier(column);
+		}
+
+		this.increment = new HashSet<>(Arrays.asList(columns));
+		return this;
+	}
+
+	/**
+	 * Sets max count of placeholders in a single statement. Default is 65535, which is the MySQL limit.
+	 * @param maxParams Max count of placeholders, must be positive.
+	 * @return This object.
+	 */
+	public BulkInsert maxParams(int maxParams) {
+		if (maxParams < 1) {
+			throw new IllegalArgumentException("" + maxParams);
+		}
+
+		this.maxParams = maxParams;
+
+		return this;
+	}
+
+	/**
+	 * Sets max estimated size of a single statement, including SQL text and parameter values.
+	 * Default is 4 MB, which is the default <code>max_allowed_packet</code> in MySQL 5.7.
+	 * A statement always contains at least one row, even if the row is bigger than the limit.
+	 * @param bytes Max size in bytes, must be positive.
+	 * @return This object.
+	 */
+	public BulkInsert maxPacketSize(long bytes) {
+		if (bytes < 1) {
+			throw new IllegalArgumentException("" + bytes);
+		}
+
+		this.maxPacketSize = bytes;
+
+		return this;
+	}
+
+	/**
+	 * @return Count of added rows.
+	 */
+	public int size() {
+		return this.rows.size();
+	}
+
+	/**
+	 * Splits added rows into statements.
+	 * @return Statements, each inserting a part of the rows. Empty if no rows were added.
+	 */
+	public List<AbstractQuery> statements() {
+		if (this.ignore && this.updateExcept != null) {
+			throw new IllegalStateException("Can't use INGORE with ON DUPLICATE KEY UPDATE");
+		}
+
+		if (!this.increment.isEmpty() && this.updateExcept == null) {
+			throw new IllegalStateException("Incremented columns require ON DUPLICATE KEY UPDATE");
+		}
+
+		List<AbstractQuery> statements = new ArrayList<>();
+
+		String prefix = getSQLPart(true);
+		String suffix = getSQLPart(false);
+		String row = rowSQL();
+
+		int columnCount = this.columns.size();
+		int maxRows = Math.max(1, this.maxParams / Math.max(1, columnCount));
+		// Each row adds "(?, ?), " to the SQL text
+		long rowTextSize = row.length() + 2;
+		long baseSize = prefix.length() + suffix.length();
+
+		int start = 0;
+		long size = baseSize;
+
+		for (int i = 0; i < this.rows.size(); i++) {
+			long rowSize = rowTextSize;
+
+			for (Object value : this.rows.get(i)) {
+				rowSize += SQLUtil.estimateSize(value);
+			}
+
+			if (i > start && (i - start >= maxRows || size + rowSize > this.maxPacketSize)) {
+				statements.add(statement(start, i, prefix, row, suffix));
+				start = i;
+				size = baseSize;
+			}
+
+			size += rowSize;
+		}
+
+		if (start < this.rows.size()) {
+			statements.add(statement(start, this.rows.size(), prefix, row, suffix));
+		}
+
+		return statements;
+	}
+
+	/**
+	 * Executes all statements. If the connection is in auto-commit mode and rows are split into several statements,
+	 * statements are executed in a transaction, which is rolled back on error, so either all rows are inserted or none;
+	 * otherwise, statements become a part of the current transaction.
+	 * @param con Connection to the database.
+	 * @return Sum of update counts.
+	 * @throws SQLException On SQL error.
+	 */
+	public long update(@NonNull Connection con) throws SQLException {
+		List<AbstractQuery> statements = statements();
+
+		try {
+			if (statements.size() < 2 || !con.getAutoCommit()) {
+				return update(con, statements);
+			}
+
+			con.setAutoCommit(false);
+
+			Exception error = null;
+
+			try {
+				long count = update(con, statements);
+				con.commit();
+				return count;
+			} catch (SQLException | RuntimeException e) {
+				error = e;
+
+				try {
+					con.rollback();
+				} catch (SQLException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+
+				throw e;
+			} finally {
+				try {
+					con.setAutoCommit(true);
+				} catch (SQLException e) {
+					// Don't hide the original exception
+					if (error == null) {
+						throw e;
+					}
+
+					error.addSuppressed(e);
+				}
+			}
+		} finally {
+			QueryResultCache.invalidate(SQLUtil.qualifiedName(this.database, this.table));
+		}
+	}
+
+	private static long update(@NonNull Connection con, @NonNull List<AbstractQuery> statements) throws SQLException {
+		long count = 0;
+
+		for (AbstractQuery statement : statements) {
+			count += statement.update(con);
+		}
+
+		return count;
+	}
+
+	/**
+	 * Executes all statements.
+	 * A connection will be retrieved from the source and closed after the update.
+	 * @param source Source of connections.
+	 * @return Sum of update counts.
+	 * @throws SQLException On SQL error.
+	 */
+	public long update(@NonNull DataSource source) throws SQLException {
+		try (Connection con = source.getConnection()) {
+			return update(con);
+		}
+	}
+
+	private AbstractQuery statement(int from, int to, @NonNull String prefix, @NonNull String row, @NonNull String suffix) {
+		List<Object> params = new ArrayList<>((to - from) * this.columns.size());
+		StringBuilder sb = new StringBuilder(prefix.length() + (to - from) * (row.length() + 2) + suffix.length());
+
+		sb.append(prefix);
+
+		for (int i = from; i < to; i++) {
+			Collections.addAll(params, this.rows.get(i));
+
+			if (i > from) {
+				sb.append(", ");
+			}
+
+			sb.append(row);
+		}
+
+		sb.append(suffix);
+
+		return new Raw(sb.toString(), params);
+	}
+
+	/**
+	 * @return Placeholders of a single row, like <code>(?, ?)</code>.
+	 */
+	private String rowSQL() {
+		StringBuilder sb = new StringBuilder("(");
+
+		for (int j = 0; j < this.columns.size(); j++) {
+			sb.append("?, ");
+		}
+
+		sb.setLength(sb.length() - 2);
+
+		return sb.append(")").toString();
+	}
+
+	/**
+	 * @param prefix True to get the part before the rows, false to get the part after them.
+	 * @return A part of the SQL text of statements.
+	 */
+	private String getSQLPart(boolean prefix) {
+		if (this.columns.isEmpty()) {
+			throw new IllegalStateException("No columns specified");
+		}
+
+		SQLCache.Shape shape = new SQLCache.Shape(BulkInsert.class);
+		shape.add(this.database);
+		shape.add(this.table);
+		shape.add(this.ignore);
+		shape.add(this.columns.size());
+		for (String column : this.columns) {
+			shape.add(column);
+		}
+		shape.add(this.updateExcept != null ? new TreeSet<>(this.updateExcept) : null);
+		shape.add(new TreeSet<>(this.increment));
+		shape.add(prefix);
+
+		return SQLCache.get(shape, () -> prefix ? renderPrefix() : renderSuffix());
+	}
+
+	private String renderPrefix() {
+		StringBuilder sb = new StringBuilder();
+
+		sb.append("INSERT");
+
+		if (this.ignore) {
+			sb.append(" IGNORE");
+		}
+
+		sb.append(" INTO ");
+
+		if (this.database != null) {
+			sb.append("`").append(this.database).append("`.");
+		}
+
+		sb.append("`").append(this.table).append("` (");
+
+		for (String column : this.columns) {
+			sb.append("`").append(column).append("`, ");
+		}
+
+		sb.setLength(sb.length() - 2);
+
+		sb.append(") VALUES ");
+
+		return sb.toString();
+	}
+
+	private String renderSuffix() {
+		StringBuilder sb = new StringBuilder();
+
+		if (this.updateExcept != null) {
+			int length = sb.length();
+
+			sb.append(" ON DUPLICATE KEY UPDATE ");
+
+			boolean any = false;
+
+			for (String column : this.columns) {
+				if (!this.updateExcept.contains(column)) {
+					sb.append("`").append(column).append("` = ");
+
+					if (this.increment.contains(column)) {
+						sb.append("`").append(column).append("` + ");
+					}
+
+					sb.append("VALUES(`").append(column).append("`), ");
+					any = true;
+				}
+			}
+
+			if (any) {
+				sb.setLength(sb.length() - 2);
+			} else {
+				sb.setLength(length);
+			}
+		}
+
+		sb.append(";");
+
+		return sb.toString();
+	}
+
+}
@@ -1,9 +1,14 @@
 package me.saharnooby.lib.query.query.impl;
 
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.saharnooby.lib.query.query.ConditionalQuery;
 import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.query.ParamConsumer;
+import me.saharnooby.lib.query.util.SQLCache;
+import me.saharnooby.lib.query.util.SQLUtil;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -21,6 +26,15 @@ public final class Delete extends ConditionalQuery<Delete> {
 
 	@Override
 	public String getSQL() {
+		SQLCache.Shape shape = new SQLCache.Shape(Delete.class);
+		shape.add(this.database);
+		shape.add(this.table);
+		appendConditionsShape(shape);
+
+		return SQLCache.get(shape, this::renderSQL);
+	}
+
+	private String renderSQL() {
 		StringBuilder sb = new StringBuilder();
 
 		sb.append("DELETE FROM ");
@@ -38,6 +52,11 @@ public final class Delete extends ConditionalQuery<Delete> {
 		return sb.toString();
 	}
 
+	@Override
+	public List<String> getTables() {
+		return Collections.singletonList(SQLUtil.qualifiedName(this.database, this.table));
+	}
+
 	@Override
 	public List<Object> getParams() {
 		List<Object> params = new ArrayList<>();
@@ -49,4 +68,20 @@ public final class Delete extends ConditionalQuery<Delete> {
 		return params;
 	}
 
+	@Override
+	public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+		acceptConditionParams(consumer, 1);
+	}
+
+	/**
+	 * @return Copy of this query, including execution options.
+	 */
+	@Override
+	protected Delete copy() {
+		Delete copy = new Delete(this.database, this.table);
+		copyConditionsTo(copy);
+		copyOptionsTo(copy);
+		return copy;
+	}
+
 }
@@ -4,8 +4,11 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.saharnooby.lib.query.query.AbstractQuery;
 import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.query.ParamConsumer;
+import me.saharnooby.lib.query.util.SQLCache;
 import me.saharnooby.lib.query.util.SQLUtil;
 
+import java.sql.SQLException;
 import java.util.*;
 
 /**
@@ -108,6 +111,25 @@ public final class Insert extends AbstractQuery {
 			throw new IllegalStateException("Can't use INGORE with ON DUPLICATE KEY UPDATE");
 		}
 
+		SQLCache.Shape shape = new SQLCache.Shape(Insert.class);
+		shape.add(this.database);
+		shape.add(this.table);
+		shape.add(this.ignore);
+		shape.add(this.insert.size());
+		this.insert.forEach((k, v) -> {
+			shape.add(k);
+			v.appendShape(shape);
+		});
+		shape.add(this.update.size());
+		this.update.forEach((k, v) -> {
+			shape.add(k);
+			v.appendShape(shape);
+		});
+
+		return SQLCache.get(shape, this::renderSQL);
+	}
+
+	private String renderSQL() {
 		StringBuilder sb = new StringBuilder();
 
 		sb.append("INSERT");
@@ -130,7 +152,7 @@ public final class Insert extends AbstractQuery {
 
 		sb.append(") VALUES (");
 
-		this.insert.forEach((k, v) -> sb.append(v.expr).append(", "));
+		this.insert.forEach((k, v) -> sb.append(v.getExpr()).append(", "));
 
 		sb.setLength(sb.length() - 2);
 
@@ -139,7 +161,7 @@ public final class Insert extends AbstractQuery {
 		if (!this.update.isEmpty()) {
 			sb.append(" ON DUPLICATE KEY UPDATE ");
 
-			this.update.forEach((k, v) -> sb.append("`").append(k).append("` = ").append(v.expr).append(", "));
+			this.update.forEach((k, v) -> sb.append("`").append(k).append("` = ").append(v.getExpr()).append(", "));
 
 			sb.setLength(sb.length() - 2);
 		}
@@ -149,6 +171,11 @@ public final class Insert extends AbstractQuery {
 		return sb.toString();
 	}
 
+	@Override
+	public List<String> getTables() {
+		return Collections.singletonList(SQLUtil.qualifiedName(this.database, this.table));
+	}
+
 	@Override
 	public List<Object> getParams() {
 		List<Object> params = new ArrayList<>();
@@ -164,4 +191,17 @@ public final class Insert extends AbstractQuery {
 		return params;
 	}
 
+	@Override
+	public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+		int index = 1;
+
+		for (Expression expression : this.insert.values()) {
+			index = acceptParams(consumer, index, expression.params);
+		}
+
+		for (Expression expression : this.update.values()) {
+			index = acceptParams(consumer, index, expression.params);
+		}
+	}
+
 }
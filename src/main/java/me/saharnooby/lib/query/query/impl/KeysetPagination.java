@@ -0,0 +1,254 @@
+package me.saharnooby.lib.query.query.impl;
+
+import lombok.NonNull;
+import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import me.saharnooby.lib.query.set.ResultSetWrapper;
+import me.saharnooby.lib.query.set.UncheckedSQLException;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads results of a {@link Select} page by page, using the key of the last row of a page to select the next page:
+ * <code>WHERE (conditions) AND (`id` &gt; ?) ORDER BY `id` ASC LIMIT n</code>.
+ * Unlike <code>OFFSET</code>, the cost of reading a page does not grow with the page number when there is an index on the key.
+ * <p>
+ * The key may consist of multiple columns, each in its own direction. Values of key columns must be unique
+ * and not <code>NULL</code>, and key columns must be present in the selected expression list under their names.
+ * Created by {@link Select#paginateBy(String, int)}.
+ * <pre>
+ * Query.select().all().from("events").where("type", type)
+ *     .paginateBy("created_at", 1000).desc().thenBy("id").desc()
+ *     .stream(dataSource, mapper)
+ *     .forEach(...);
+ * </pre>
+ * @author saharNooby
+ * @since 15:20 16.10.2026
+ */
+public final class KeysetPagination {
+
+	private final Select select;
+	private final int pageSize;
+
+	private final List<String> columns = new ArrayList<>();
+	private final List<Boolean> descending = new ArrayList<>();
+
+	KeysetPagination(@NonNull Select select, int pageSize) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("" + pageSize);
+		}
+
+		this.select = select;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Adds a key column after previously added columns, in ascending order.
+	 * @param column Column name.
+	 * @return This object.
+	 */
+	public KeysetPagination thenBy(@NonNull String column) {
+		SQLUtil.validateIdentifier(column);
+
+		this.columns.add(column);
+		this.descending.add(false);
+
+		return this;
+	}
+
+	/**
+	 * Makes the last added key column ordered in descending order.
+	 * @return This object.
+	 */
+	public KeysetPagination desc() {
+		this.descending.set(this.descending.size() - 1, true);
+
+		return this;
+	}
+
+	/**
+	 * @return Query selecting the first page.
+	 */
+	public Select firstPage() {
+		return this.select.page(null, orderByTerms(), this.pageSize);
+	}
+
+	/**
+	 * Returns a query selecting the page after the row with specified key.
+	 * Allows passing the key of the last row to clients instead of a page number.
+	 * @param key Values of key columns, in order of adding.
+	 * @return Query.
+	 */
+	public Select pageAfter(@NonNull Object... key) {
+		if (key.length != this.columns.size()) {
+			throw new IllegalArgumentException("Expected " + this.columns.size() + " key values, got " + key.length);
+		}
+
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] == null) {
+				throw new IllegalArgumentException("Value of key column " + this.columns.get(i) + " is null");
+			}
+		}
+
+		return this.select.page(keyCondition(key), orderByTerms(), this.pageSize);
+	}
+
+	/**
+	 * Returns a lazy iterator over all rows. Each page is read on a separate connection
+	 * obtained from the source, when the previous page is exhausted.
+	 * {@link SQLException}s are wrapped into {@link UncheckedSQLException}s.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Element type.
+	 * @return Iterator.
+	 */
+	public <T> Iterator<T> iterator(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+		return new PageIterator<>(source, mapper);
+	}
+
+	/**
+	 * Returns a lazy stream of all rows, see {@link #iterator(DataSource, ResultSetMapper)}.
+	 * No connection is held between pages, so the stream does not need to be closed.
+	 * @param source Source of connections.
+	 * @param mapper Mapper.
+	 * @param <T> Element type.
+	 * @return Stream.
+	 */
+	public <T> Stream<T> stream(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(source, mapper), Spliterator.ORDERED), false);
+	}
+
+	private String orderByTerms() {
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < this.columns.size(); i++) {
+			sb.append('`').append(this.columns.get(i)).append("` ").append(this.descending.get(i) ? "DESC" : "ASC").append(", ");
+		}
+
+		sb.setLength(sb.length() - 2);
+
+		return sb.toString();
+	}
+
+	/**
+	 * Builds the condition <code>a &gt;= ? AND ((a &gt; ?) OR (a = ? AND b &gt; ?) OR ...)</code>, with <code>&lt;</code> for descending columns.
+	 * The first term is redundant and is added only for composite keys, so the database can use a range scan.
+	 */
+	private Expression keyCondition(@NonNull Object[] key) {
+		StringBuilder sb = new StringBuilder();
+		List<Object> params = new ArrayList<>();
+
+		int count = this.columns.size();
+
+		if (count > 1) {
+			sb.append('`').append(this.columns.get(0)).append(this.descending.get(0) ? "` <= ?" : "` >= ?").append(" AND (");
+			params.add(key[0]);
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sb.append(" OR ");
+			}
+
+			sb.append('(');
+
+			for (int j = 0; j < i; j++) {
+				sb.append('`').append(this.columns.get(j)).append("` = ? AND ");
+				params.add(key[j]);
+			}
+
+			sb.append('`').append(this.columns.get(i)).append(this.descending.get(i) ? "` < ?" : "` > ?").append(')');
+			params.add(key[i]);
+		}
+
+		if (count > 1) {
+			sb.append(')');
+		}
+
+		return new Expression(sb.toString(), params.toArray());
+	}
+
+	private final class PageIterator<T> implements Iterator<T> {
+
+		private final DataSource source;
+		private final ResultSetMapper<T> mapper;
+
+		private List<T> page = Collections.emptyList();
+		private int position;
+		private Object[] lastKey;
+		private boolean exhausted;
+
+		PageIterator(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+			this.source = source;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.position == this.page.size() && !this.exhausted) {
+				try {
+					readPage();
+				} catch (SQLException e) {
+					throw new UncheckedSQLException(e);
+				}
+			}
+
+			return this.position < this.page.size();
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return this.page.get(this.position++);
+		}
+
+		private void readPage() throws SQLException {
+			Select query = this.lastKey == null ? firstPage() : pageAfter(this.lastKey);
+			List<T> page = new ArrayList<>(pageSize);
+
+			try (Connection con = this.source.getConnection(); ResultSetWrapper wrapper = query.query(con)) {
+				ResultSet set = wrapper.set();
+				ResultSetMapper<T> mapper = this.mapper.forResultSet(set);
+
+				while (wrapper.next()) {
+					page.add(mapper.map(set));
+
+					if (page.size() == pageSize) {
+						// The last row of a full page, its key selects the next page
+						this.lastKey = readKey(set);
+					}
+				}
+			}
+
+			this.page = page;
+			this.position = 0;
+			this.exhausted = page.size() < pageSize;
+		}
+
+		private Object[] readKey(@NonNull ResultSet set) throws SQLException {
+			Object[] key = new Object[columns.size()];
+
+			for (int i = 0; i < key.length; i++) {
+				key[i] = set.getObject(columns.get(i));
+
+				if (key[i] == null) {
+					throw new IllegalStateException("Value of key column " + columns.get(i) + " is null");
+				}
+			}
+
+			return key;
+		}
+
+	}
+
+}
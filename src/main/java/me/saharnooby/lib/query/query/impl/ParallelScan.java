@@ -0,0 +1,431 @@
+package me.saharnooby.lib.query.query.impl;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import me.saharnooby.lib.query.set.ResultSetWrapper;
+import me.saharnooby.lib.query.set.UncheckedSQLException;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+import me.saharnooby.lib.query.util.SQLUtil;
+
+import javax.sql.DataSource;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits a {@link Select} into disjoint ranges of a key column and reads each range on its own connection, in parallel.
+ * Split points are either specified explicitly, or calculated by evenly dividing the range between
+ * <code>MIN</code> and <code>MAX</code> values of the key, which must be a number, a date or a time.
+ * Rows with <code>NULL</code> key are read by the first partition.
+ * <p>
+ * Throughput scales with partition count as long as the database has idle cores and the key is indexed;
+ * with unevenly distributed keys, explicit split points give better balanced partitions.
+ * Created by {@link Select#parallelScan(String)}.
+ * <pre>
+ * Query.select().all().from("events").parallelScan("id").partitions(8)
+ *     .stream(dataSource, mapper)
+ *     .forEach(...);
+ * </pre>
+ * @author saharNooby
+ * @since 16:10 16.10.2026
+ */
+public final class ParallelScan {
+
+	/**
+	 * Processes all rows of a single partition.
+	 */
+	@FunctionalInterface
+	public interface PartitionConsumer {
+
+		/**
+		 * Called on a thread of the executor. The rows are closed after this method returns.
+		 * @param partition Index of the partition.
+		 * @param rows Rows of the partition.
+		 * @throws SQLException On SQL error.
+		 */
+		void accept(int partition, @NonNull ResultSetWrapper rows) throws SQLException;
+
+	}
+
+	/**
+	 * Marks the end of a partition in the queue of the merged stream.
+	 */
+	@RequiredArgsConstructor
+	private static final class End {
+
+		final Throwable error;
+
+	}
+
+	private final Select select;
+	private final String column;
+
+	private int partitions = Runtime.getRuntime().availableProcessors();
+	private List<Object> splitPoints;
+	private Executor executor = ExecutorUtil.defaultExecutor();
+	private int fetchSize;
+	private int queueSize = 1024;
+
+	ParallelScan(@NonNull Select select, @NonNull String column) {
+		SQLUtil.validateIdentifier(column);
+
+		this.select = select;
+		this.column = column;
+	}
+
+	/**
+	 * Sets count of partitions to split the key range into, when split points are calculated.
+	 * Default is count of available processors.
+	 * @param partitions Count of partitions.
+	 * @return This object.
+	 */
+	public ParallelScan partitions(int partitions) {
+		if (partitions < 1) {
+			throw new IllegalArgumentException("" + partitions);
+		}
+
+		this.partitions = partitions;
+
+		return this;
+	}
+
+	/**
+	 * Sets split points explicitly. <code>n</code> points define <code>n + 1</code> partitions:
+	 * <code>key &lt; p1</code>, <code>p1 &lt;= key &lt; p2</code>, ..., <code>key &gt;= pn</code>.
+	 * @param points Split points in ascending order.
+	 * @return This object.
+	 */
+	public ParallelScan splitPoints(@NonNull Object... points) {
+		this.splitPoints = new ArrayList<>(Arrays.asList(points));
+
+		return this;
+	}
+
+	/**
+	 * Sets the executor to read partitions on. By default, virtual threads are used on Java 21+,
+	 * and a shared bounded thread pool on older versions.
+	 * @param executor Executor. If it runs fewer tasks concurrently than there are partitions, remaining partitions wait.
+	 * @return This object.
+	 */
+	public ParallelScan executor(@NonNull Executor executor) {
+		this.executor = executor;
+
+		return this;
+	}
+
+	/**
+	 * Sets the fetch size for partition queries, see {@link me.saharnooby.lib.query.query.AbstractQuery#fetchSize(int)}.
+	 * @param rows Fetch size.
+	 * @return This object.
+	 */
+	public ParallelScan fetchSize(int rows) {
+		if (rows < 0) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.fetchSize = rows;
+
+		return this;
+	}
+
+	/**
+	 * Sets capacity of the queue between partitions and the consumer of the merged stream. Default is 1024.
+	 * @param rows Count of rows.
+	 * @return This object.
+	 */
+	public ParallelScan queueSize(int rows) {
+		if (rows < 1) {
+			throw new IllegalArgumentException("" + rows);
+		}
+
+		this.queueSize = rows;
+
+		return this;
+	}
+
+	/**
+	 * Creates queries of all partitions. If split points were not specified, queries <code>MIN</code> and <code>MAX</code> values of the key.
+	 * @param source Source of connections.
+	 * @return Queries of partitions.
+	 * @throws SQLException On SQL error.
+	 */
+	public List<Select> partitionQueries(@NonNull DataSource source) throws SQLException {
+		return partitionQueries(this.splitPoints != null ? this.splitPoints : calculateSplitPoints(source));
+	}
+
+	/**
+	 * Reads all partitions in parallel, passing rows of each partition to the consumer.
+	 * Returns when all partitions are processed.
+	 * @param source Source of connections.
+	 * @param consumer Consumer, called concurrently for different partitions.
+	 * @throws SQLException If any partition failed. Errors of other partitions are added as suppressed.
+	 */
+	public void forEachPartition(@NonNull DataSource source, @NonNull PartitionConsumer consumer) throws SQLException {
+		List<Select> queries = partitionQueries(source);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		for (int i = 0; i < queries.size(); i++) {
+			int partition = i;
+			Select query = queries.get(i);
+
+			futures.add(ExecutorUtil.supplyAsync(() -> {
+				try (Connection con = source.getConnection(); ResultSetWrapper rows = query.query(con)) {
+					consumer.accept(partition, rows);
+				}
+
+				return null;
+			}, this.executor));
+		}
+
+		Throwable error = null;
+
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			} catch (CompletionException e) {
+				if (error == null) {
+					error = e.getCause();
+				} else {
+					error.addSuppressed(e.getCause());
+				}
+			}
+		}
+
+		if (error instanceof SQLException) {
+			throw (SQLException) error;
+		} else if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		} else if (error instanceof Error) {
+			throw (Error) error;
+		} else if (error != null) {
+			throw new SQLException(error);
+		}
+	}
+
+	/**
+	 * Returns a stream of rows of all partitions, merged in no particular order.
+	 * Partitions are read in parallel and put mapped rows into a bounded queue, so reading is paused when the consumer is slow.
+	 * The stream must be closed by the caller if it is not consumed fully; closing it stops reading.
+	 * {@link SQLException}s are wrapped into {@link UncheckedSQLException}s.
+	 * @param source Source of connections.
+	 * @param mapper Mapper, called concurrently for different partitions.
+	 * @param <T> Element type.
+	 * @return Stream.
+	 * @throws SQLException On SQL error when calculating split points.
+	 */
+	public <T> Stream<T> stream(@NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) throws SQLException {
+		List<Select> queries = partitionQueries(source);
+
+		BlockingQueue<Object> queue = new ArrayBlockingQueue<>(this.queueSize);
+		AtomicBoolean cancelled = new AtomicBoolean();
+
+		for (Select query : queries) {
+			try {
+				this.executor.execute(() -> {
+					Throwable error = null;
+
+					try (Connection con = source.getConnection(); ResultSetWrapper wrapper = query.query(con)) {
+						ResultSet set = wrapper.set();
+						ResultSetMapper<T> rowMapper = mapper.forResultSet(set);
+
+						while (wrapper.next()) {
+							if (!put(queue, rowMapper.map(set), cancelled)) {
+								return;
+							}
+						}
+					} catch (Throwable t) {
+						error = t;
+					}
+
+					put(queue, new End(error), cancelled);
+				});
+			} catch (RuntimeException e) {
+				// Stop partitions that were already submitted, nobody will read their rows
+				cancelled.set(true);
+				throw e;
+			}
+		}
+
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, 0) {
+
+			private int running = queries.size();
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public boolean tryAdvance(Consumer<? super T> action) {
+				while (this.running > 0) {
+					Object element;
+
+					try {
+						element = queue.take();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException("Interrupted while waiting for rows", e);
+					}
+
+					if (element instanceof End) {
+						this.running--;
+
+						Throwable error = ((End) element).error;
+
+						if (error != null) {
+							cancelled.set(true);
+
+							if (error instanceof SQLException) {
+								throw new UncheckedSQLException((SQLException) error);
+							} else if (error instanceof RuntimeException) {
+								throw (RuntimeException) error;
+							} else if (error instanceof Error) {
+								throw (Error) error;
+							}
+
+							throw new IllegalStateException(error);
+						}
+
+						continue;
+					}
+
+					action.accept((T) element);
+
+					return true;
+				}
+
+				return false;
+			}
+
+		};
+
+		return StreamSupport.stream(spliterator, false).onClose(() -> cancelled.set(true));
+	}
+
+	/**
+	 * Puts an element to the queue, waiting for free space while the stream is not cancelled.
+	 * @return False if the stream was cancelled.
+	 */
+	private static boolean put(@NonNull BlockingQueue<Object> queue, Object element, @NonNull AtomicBoolean cancelled) {
+		try {
+			while (!queue.offer(element, 100, TimeUnit.MILLISECONDS)) {
+				if (cancelled.get()) {
+					return false;
+				}
+			}
+
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private List<Select> partitionQueries(@NonNull List<Object> points) {
+		List<Select> queries = new ArrayList<>();
+
+		String column = "`" + this.column + "`";
+
+		if (points.isEmpty()) {
+			queries.add(this.select.copy());
+		} else {
+			queries.add(this.select.withCondition(new Expression(column + " < ? OR " + column + " IS NULL", new Object[] {points.get(0)})));
+
+			for (int i = 1; i < points.size(); i++) {
+				queries.add(this.select.withCondition(new Expression(column + " >= ? AND " + column + " < ?", new Object[] {points.get(i - 1), points.get(i)})));
+			}
+
+			queries.add(this.select.withCondition(new Expression(column + " >= ?", new Object[] {points.get(points.size() - 1)})));
+		}
+
+		if (this.fetchSize != 0) {
+			for (Select query : queries) {
+				query.fetchSize(this.fetchSize);
+			}
+		}
+
+		return queries;
+	}
+
+	private List<Object> calculateSplitPoints(@NonNull DataSource source) throws SQLException {
+		String column = "`" + this.column + "`";
+		Select minMax = this.select.withExpressions("MIN(" + column + ")", "MAX(" + column + ")");
+
+		Object[] range = minMax.queryAndMap(source, set -> new Object[] {set.getObject(1), set.getObject(2)}).orElseThrow(IllegalStateException::new);
+		Object min = range[0];
+		Object max = range[1];
+
+		Set<Object> points = new LinkedHashSet<>();
+
+		if (min == null || max == null) {
+			// No rows or only NULL keys
+			return new ArrayList<>(points);
+		}
+
+		for (int i = 1; i < this.partitions; i++) {
+			points.add(interpolate(min, max, i, this.partitions));
+		}
+
+		points.remove(min);
+
+		return new ArrayList<>(points);
+	}
+
+	/**
+	 * Returns the point at <code>i / n</code> of the range between min and max.
+	 * Integer keys are interpolated exactly, so large <code>BIGINT UNSIGNED</code> values do not lose precision.
+	 */
+	static Object interpolate(@NonNull Object min, @NonNull Object max, int i, int n) {
+		if (min instanceof Long || min instanceof Integer || min instanceof Short || min instanceof Byte || min instanceof BigInteger) {
+			BigInteger a = toBigInteger((Number) min);
+			BigInteger b = toBigInteger((Number) max);
+			BigInteger point = a.add(b.subtract(a).multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(n)));
+			return min instanceof BigInteger ? point : (Object) point.longValueExact();
+		}
+
+		double fraction = (double) i / n;
+
+		if (min instanceof Number) {
+			double a = ((Number) min).doubleValue();
+			double b = ((Number) max).doubleValue();
+			return a + (b - a) * fraction;
+		} else if (min instanceof Date) {
+			long a = ((Date) min).getTime();
+			long b = ((Date) max).getTime();
+			return new Timestamp(a + (long) ((b - (double) a) * fraction));
+		} else if (min instanceof LocalDateTime) {
+			Instant a = ((LocalDateTime) min).toInstant(ZoneOffset.UTC);
+			Instant b = ((LocalDateTime) max).toInstant(ZoneOffset.UTC);
+			return LocalDateTime.ofInstant(interpolate(a, b, fraction), ZoneOffset.UTC);
+		} else if (min instanceof Instant) {
+			return interpolate((Instant) min, (Instant) max, fraction);
+		} else if (min instanceof LocalDate) {
+			long a = ((LocalDate) min).toEpochDay();
+			long b = ((LocalDate) max).toEpochDay();
+			return LocalDate.ofEpochDay(a + (long) ((b - (double) a) * fraction));
+		}
+
+		throw new IllegalStateException("Can't calculate split points for values of " + min.getClass() + ", specify split points explicitly");
+	}
+
+	private static BigInteger toBigInteger(@NonNull Number number) {
+		return number instanceof BigInteger ? (BigInteger) number : BigInteger.valueOf(number.longValue());
+	}
+
+	private static Instant interpolate(@NonNull Instant min, @NonNull Instant max, double fraction) {
+		long a = min.toEpochMilli();
+		long b = max.toEpochMilli();
+		return Instant.ofEpochMilli(a + (long) ((b - (double) a) * fraction));
+	}
+
+}
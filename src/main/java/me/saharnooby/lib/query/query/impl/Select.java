@@ -4,8 +4,13 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.saharnooby.lib.query.query.ConditionalQuery;
 import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.query.ParamConsumer;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import me.saharnooby.lib.query.util.SQLCache;
 import me.saharnooby.lib.query.util.SQLUtil;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +32,10 @@ public final class Select extends ConditionalQuery<Select> {
 	private String orderBy;
 	private Object[] orderByParams;
 	private boolean desc;
+	/**
+	 * Rendered list of ordering terms with directions, used by keyset pagination instead of {@link #orderBy}.
+	 */
+	private String orderByTerms;
 
 	private Long limit;
 	private Long offset;
@@ -54,7 +63,7 @@ public final class Select extends ConditionalQuery<Select> {
 	 */
 	public Select col(@NonNull String name) {
 		SQLUtil.validateIdentifier(name);
-		return expr("`" + name + "`");
+		return expr(Expression.column(name));
 	}
 
 	/**
@@ -65,12 +74,15 @@ public final class Select extends ConditionalQuery<Select> {
 	 */
 	public Select expr(@NonNull String expr, @NonNull Object... params) {
 		SQLUtil.validatePlaceholderCount(expr, params);
+		return expr(new Expression(expr, params));
+	}
 
+	private Select expr(@NonNull Expression expression) {
 		if (this.all) {
 			throw new IllegalStateException("Can't add expressions to SELECT when selecting all columns");
 		}
 
-		this.expressions.add(new Expression(expr, params));
+		this.expressions.add(expression);
 
 		return this;
 	}
@@ -166,6 +178,132 @@ public final class Select extends ConditionalQuery<Select> {
 		return this;
 	}
 
+	/**
+	 * Starts configuring keyset pagination over this query, see {@link KeysetPagination}.
+	 * The query must not have <code>ORDER BY</code>, <code>LIMIT</code> and <code>OFFSET</code> clauses,
+	 * and must not have an <code>IN</code> list executed in parts, since each page must be a single query.
+	 * @param column First key column, in ascending order by default.
+	 * @param pageSize Count of rows in a page.
+	 * @return Pagination.
+	 */
+	public KeysetPagination paginateBy(@NonNull String column, int pageSize) {
+		if (this.orderBy != null || this.limit != null || this.offset != null) {
+			throw new IllegalStateException("Pagination defines ORDER BY and LIMIT clauses itself, remove them from the query");
+		}
+
+		if (partCount() > 1) {
+			throw new IllegalStateException("Pagination can't be used with an IN list executed in parts, use a temporary table instead");
+		}
+
+		return new KeysetPagination(this, pageSize).thenBy(column);
+	}
+
+	/**
+	 * Creates a copy of this query for a single page of keyset pagination.
+	 * @param keyCondition Condition selecting rows after the last key, or null for the first page.
+	 * @param orderByTerms Rendered ordering terms.
+	 * @param pageSize Count of rows in a page.
+	 * @return Copy of this query.
+	 */
+	Select page(Expression keyCondition, @NonNull String orderByTerms, int pageSize) {
+		Select page = copy();
+
+		if (keyCondition != null) {
+			page.conditions.add(keyCondition);
+		}
+
+		page.orderByTerms = orderByTerms;
+		page.limit = (long) pageSize;
+		return page;
+	}
+
+	/**
+	 * Creates a copy of this query with an additional condition.
+	 * @param condition Condition.
+	 * @return Copy of this query.
+	 */
+	Select withCondition(@NonNull Expression condition) {
+		Select copy = copy();
+		copy.conditions.add(condition);
+		return copy;
+	}
+
+	/**
+	 * Creates a query selecting specified expressions from the same table with the same conditions.
+	 * @param expressions Expressions without parameters.
+	 * @return Query.
+	 */
+	Select withExpressions(@NonNull String... expressions) {
+		Select copy = new Select();
+		copy.database = this.database;
+		copy.table = this.table;
+		copyConditionsTo(copy);
+
+		for (String expression : expressions) {
+			copy.expr(expression);
+		}
+
+		return copy;
+	}
+
+	/**
+	 * @return Copy of this query, including execution options.
+	 */
+	@Override
+	protected Select copy() {
+		Select copy = new Select();
+		copy.expressions.addAll(this.expressions);
+		copy.all = this.all;
+		copy.database = this.database;
+		copy.table = this.table;
+		copyConditionsTo(copy);
+		copy.orderBy = this.orderBy;
+		copy.orderByParams = this.orderByParams;
+		copy.desc = this.desc;
+		copy.orderByTerms = this.orderByTerms;
+		copy.limit = this.limit;
+		copy.offset = this.offset;
+		copy.forUpdate = this.forUpdate;
+		copyOptionsTo(copy);
+		return copy;
+	}
+
+	/**
+	 * Starts configuring a parallel scan of this query, see {@link ParallelScan}.
+	 * @param column Key column to split the query by.
+	 * @return Scan.
+	 */
+	public ParallelScan parallelScan(@NonNull String column) {
+		if (this.limit != null || this.offset != null) {
+			throw new IllegalStateException("Can't split a query with LIMIT or OFFSET clauses");
+		}
+
+		if (partCount() > 1) {
+			throw new IllegalStateException("Parallel scan can't be used with an IN list executed in parts, use a temporary table instead");
+		}
+
+		return new ParallelScan(this, column);
+	}
+
+	/**
+	 * Creates a loader which coalesces lookups of single rows by key into batches, see {@link BatchLoader}.
+	 * The loader uses a copy of this query, so later changes to this query do not affect it.
+	 * @param column Key column.
+	 * @param source Source of connections.
+	 * @param keyMapper Mapper reading the key of a row.
+	 * @param mapper Mapper of rows.
+	 * @param <K> Key type.
+	 * @param <V> Value type.
+	 * @return Loader.
+	 */
+	public <K, V> BatchLoader<K, V> batchLoader(@NonNull String column, @NonNull DataSource source, @NonNull ResultSetMapper<K> keyMapper, @NonNull ResultSetMapper<V> mapper) {
+		if (this.limit != null || this.offset != null) {
+			throw new IllegalStateException("Can't load batches with a query with LIMIT or OFFSET clauses");
+		}
+
+		return new BatchLoader<>(copy(), column, source, keyMapper, mapper);
+	}
+
 	/**
 	 * Adds <code>FOR UPDATE</code> clause to the end of the query.
 	 * @return This object.
@@ -182,6 +320,39 @@ public final class Select extends ConditionalQuery<Select> {
 			throw new IllegalStateException("Selected expression list is empty");
 		}
 
+		SQLCache.Shape shape = new SQLCache.Shape(Select.class);
+		shape.add(this.all);
+		shape.add(this.expressions.size());
+		for (Expression expression : this.expressions) {
+			expression.appendShape(shape);
+		}
+		shape.add(this.database);
+		shape.add(this.table);
+		appendConditionsShape(shape);
+		shape.add(this.orderBy);
+		shape.add(this.desc);
+		shape.add(this.orderByTerms);
+		shape.add(this.forUpdate);
+		// Page sizes are few, so LIMIT is a part of the shape; keyset pages are served entirely from the cache
+		shape.add(this.limit);
+
+		if (this.offset == null) {
+			return SQLCache.get(shape, () -> renderSQL(true));
+		}
+
+		// OFFSET values are not a part of the shape, so paging through results does not fill the cache
+		shape.add(Boolean.TRUE);
+
+		String prefix = SQLCache.get(shape, () -> renderSQL(false));
+		StringBuilder sb = new StringBuilder(prefix.length() + 32).append(prefix);
+		appendTail(sb);
+		return sb.toString();
+	}
+
+	/**
+	 * @param complete False to render the text only up to <code>OFFSET</code> clause.
+	 */
+	private String renderSQL(boolean complete) {
 		StringBuilder sb = new StringBuilder();
 
 		sb.append("SELECT ");
@@ -190,7 +361,7 @@ public final class Select extends ConditionalQuery<Select> {
 			sb.append("* ");
 		} else {
 			for (Expression expression : this.expressions) {
-				sb.append(expression.expr).append(", ");
+				sb.append(expression.getExpr()).append(", ");
 			}
 
 			sb.setLength(sb.length() - 2);
@@ -211,12 +382,22 @@ public final class Select extends ConditionalQuery<Select> {
 
 		if (this.orderBy != null) {
 			sb.append("ORDER BY (").append(this.orderBy).append(") ").append(this.desc ? "DESC" : "ASC").append(' ');
+		} else if (this.orderByTerms != null) {
+			sb.append("ORDER BY ").append(this.orderByTerms).append(' ');
 		}
 
 		if (this.limit != null) {
 			sb.append("LIMIT ").append(this.limit).append(' ');
 		}
 
+		if (complete) {
+			appendTail(sb);
+		}
+
+		return sb.toString();
+	}
+
+	private void appendTail(@NonNull StringBuilder sb) {
 		if (this.offset != null) {
 			sb.append("OFFSET ").append(this.offset).append(' ');
 		}
@@ -226,8 +407,11 @@ public final class Select extends ConditionalQuery<Select> {
 		}
 
 		sb.append(";");
+	}
 
-		return sb.toString();
+	@Override
+	public List<String> getTables() {
+		return this.table == null ? Collections.emptyList() : Collections.singletonList(SQLUtil.qualifiedName(this.database, this.table));
 	}
 
 	@Override
@@ -249,4 +433,19 @@ public final class Select extends ConditionalQuery<Select> {
 		return params;
 	}
 
+	@Override
+	public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+		int index = 1;
+
+		for (Expression expression : this.expressions) {
+			index = acceptParams(consumer, index, expression.params);
+		}
+
+		index = acceptConditionParams(consumer, index);
+
+		if (this.orderByParams != null) {
+			acceptParams(consumer, index, this.orderByParams);
+		}
+	}
+
 }
@@ -4,8 +4,11 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.saharnooby.lib.query.query.ConditionalQuery;
 import me.saharnooby.lib.query.query.Expression;
+import me.saharnooby.lib.query.query.ParamConsumer;
+import me.saharnooby.lib.query.util.SQLCache;
 import me.saharnooby.lib.query.util.SQLUtil;
 
+import java.sql.SQLException;
 import java.util.*;
 
 /**
@@ -73,6 +76,20 @@ public final class Update extends ConditionalQuery<Update> {
 			throw new IllegalStateException("No values specified");
 		}
 
+		SQLCache.Shape shape = new SQLCache.Shape(Update.class);
+		shape.add(this.database);
+		shape.add(this.table);
+		shape.add(this.expressions.size());
+		this.expressions.forEach((k, v) -> {
+			shape.add(k);
+			v.appendShape(shape);
+		});
+		appendConditionsShape(shape);
+
+		return SQLCache.get(shape, this::renderSQL);
+	}
+
+	private String renderSQL() {
 		StringBuilder sb = new StringBuilder();
 
 		sb.append("UPDATE ");
@@ -83,7 +100,7 @@ public final class Update extends ConditionalQuery<Update> {
 
 		sb.append("`").append(this.table).append("` SET ");
 
-		this.expressions.forEach((k, v) -> sb.append("`").append(k).append("` = ").append(v.expr).append(", "));
+		this.expressions.forEach((k, v) -> sb.append("`").append(k).append("` = ").append(v.getExpr()).append(", "));
 
 		sb.setLength(sb.length() - 2);
 		sb.append(" ");
@@ -95,6 +112,11 @@ public final class Update extends ConditionalQuery<Update> {
 		return sb.toString();
 	}
 
+	@Override
+	public List<String> getTables() {
+		return Collections.singletonList(SQLUtil.qualifiedName(this.database, this.table));
+	}
+
 	@Override
 	public List<Object> getParams() {
 		List<Object> params = new ArrayList<>();
@@ -110,4 +132,27 @@ public final class Update extends ConditionalQuery<Update> {
 		return params;
 	}
 
+	@Override
+	public void forEachParam(@NonNull ParamConsumer consumer) throws SQLException {
+		int index = 1;
+
+		for (Expression expression : this.expressions.values()) {
+			index = acceptParams(consumer, index, expression.params);
+		}
+
+		acceptConditionParams(consumer, index);
+	}
+
+	/**
+	 * @return Copy of this query, including execution options.
+	 */
+	@Override
+	protected Update copy() {
+		Update copy = new Update(this.database, this.table);
+		copy.expressions.putAll(this.expressions);
+		copyConditionsTo(copy);
+		copyOptionsTo(copy);
+		return copy;
+	}
+
 }
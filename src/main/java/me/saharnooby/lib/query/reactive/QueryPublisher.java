@@ -0,0 +1,243 @@
+package me.saharnooby.lib.query.reactive;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.saharnooby.lib.query.query.AbstractQuery;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import me.saharnooby.lib.query.set.ResultSetWrapper;
+import me.saharnooby.lib.query.util.ExecutorUtil;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Reactive Streams {@link Publisher} of query results. Rows are read from the result set
+ * only as subscribers request them, so a slow subscriber slows down reading instead of
+ * making the whole result buffered in memory. On Java 9+, use <code>org.reactivestreams.FlowAdapters</code>
+ * to convert it to a {@link java.util.concurrent.Flow.Publisher}.
+ * <p>
+ * The publisher is cold: each subscription obtains its own connection and executes the query when the first rows are requested.
+ * The connection and the statement are released on completion, on error and on cancellation.
+ * How many rows the driver reads ahead is controlled by the fetch size of the query, see {@link AbstractQuery#fetchSize(int)}
+ * and {@link AbstractQuery#streamRows()}.
+ * <p>
+ * Requires <code>org.reactivestreams:reactive-streams</code> dependency, which is optional for this library.
+ * @author saharNooby
+ * @since 11:30 16.10.2026
+ */
+@RequiredArgsConstructor
+public final class QueryPublisher<T> implements Publisher<T> {
+
+	private final AbstractQuery query;
+	private final DataSource source;
+	private final ResultSetMapper<T> mapper;
+	private final Executor executor;
+
+	/**
+	 * Creates a publisher which reads rows using the default executor.
+	 * On Java 21+, it uses virtual threads; on older versions, it uses a shared bounded thread pool.
+	 * @param query Query. Must not be modified while there are active subscriptions.
+	 * @param source Source of connections.
+	 * @param mapper Row mapper.
+	 * @param <T> Element type.
+	 * @return Publisher.
+	 */
+	public static <T> QueryPublisher<T> of(@NonNull AbstractQuery query, @NonNull DataSource source, @NonNull ResultSetMapper<T> mapper) {
+		return of(query, source, mapper, ExecutorUtil.defaultExecutor());
+	}
+
+	/**
+	 * Creates a publisher.
+	 * @param query Query. Must not be modified while there are active subscriptions.
+	 * @param source Source of connections.
+	 * @param mapper Row mapper.
+	 * @param executor Executor to read rows and call the subscriber on.
+	 * @param <T> Element type.
+	 * @return Publisher.
+	 */
+	public static <T> QueryPublisher<T> of(@NonNull AbstractQuery query, @NonNull DataSource source, @NonNull ResultSetMapper<T> mapper, @NonNull Executor executor) {
+		return new QueryPublisher<>(query, source, mapper, executor);
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("subscriber");
+		}
+
+		subscriber.onSubscribe(new QuerySubscription(subscriber));
+	}
+
+	/**
+	 * All interaction with JDBC objects and the subscriber happens in {@link #run()},
+	 * which is never executed concurrently with itself. If the executor rejects the task,
+	 * {@link #run()} is called by the thread that scheduled it to signal the error.
+	 */
+	private final class QuerySubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private volatile boolean cancelled;
+		private volatile IllegalArgumentException invalidRequest;
+		private volatile RuntimeException rejection;
+
+		private boolean done;
+		private Connection con;
+		private ResultSetWrapper wrapper;
+		private ResultSetMapper<T> rowMapper;
+
+		QuerySubscription(@NonNull Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				this.invalidRequest = new IllegalArgumentException("Requested count must be positive, got " + n);
+			} else {
+				this.requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+			}
+
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.pending.getAndIncrement() == 0) {
+				try {
+					executor.execute(this);
+				} catch (RuntimeException e) {
+					// This thread still owns the drain loop, so the error is signalled through it,
+					// serialized with other signals and skipped if the subscription was cancelled
+					this.rejection = e;
+					run();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+
+			do {
+				drain();
+
+				missed = this.pending.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		private void drain() {
+			if (this.done) {
+				return;
+			}
+
+			if (this.cancelled) {
+				finish();
+				return;
+			}
+
+			if (this.rejection != null) {
+				finish();
+				this.subscriber.onError(this.rejection);
+				return;
+			}
+
+			if (this.invalidRequest != null) {
+				finish();
+				this.subscriber.onError(this.invalidRequest);
+				return;
+			}
+
+			long requested = this.requested.get();
+
+			if (requested == 0) {
+				return;
+			}
+
+			try {
+				if (this.wrapper == null) {
+					this.con = source.getConnection();
+					this.wrapper = query.query(this.con);
+					this.rowMapper = mapper.forResultSet(this.wrapper.set());
+				}
+
+				ResultSet set = this.wrapper.set();
+				long emitted = 0;
+
+				while (emitted != requested) {
+					if (this.cancelled) {
+						finish();
+						return;
+					}
+
+					if (!this.wrapper.next()) {
+						finish();
+						this.subscriber.onComplete();
+						return;
+					}
+
+					this.subscriber.onNext(this.rowMapper.map(set));
+					emitted++;
+				}
+
+				if (requested != Long.MAX_VALUE) {
+					this.requested.addAndGet(-emitted);
+				}
+
+				if (this.requested.get() != 0) {
+					// More rows were requested while emitting
+					this.pending.incrementAndGet();
+				}
+			} catch (Throwable t) {
+				finish();
+				this.subscriber.onError(t);
+			}
+		}
+
+		/**
+		 * Marks the subscription as done and releases the statement and the connection.
+		 */
+		private void finish() {
+			this.done = true;
+
+			try {
+				if (this.wrapper != null) {
+					this.wrapper.close();
+				}
+			} catch (SQLException ignored) {
+				// Nothing to report to: the subscriber is already completed or cancelled
+			} finally {
+				this.wrapper = null;
+
+				try {
+					if (this.con != null) {
+						this.con.close();
+					}
+				} catch (SQLException ignored) {
+					// Same as above
+				} finally {
+					this.con = null;
+				}
+			}
+		}
+
+	}
+
+}
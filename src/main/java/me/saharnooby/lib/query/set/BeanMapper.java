@@ -0,0 +1,379 @@
+package me.saharnooby.lib.query.set;
+
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps rows to instances of a POJO or a record class, matching columns to properties by name.
+ * See {@link ResultSetMapper#of(Class)}.
+ * @author saharNooby
+ * @since 19:20 16.10.2026
+ */
+final class BeanMapper<T> implements ResultSetMapper<T> {
+
+	/**
+	 * Mappers are stored in the classes themselves, so caching a mapper does not prevent unloading of the class.
+	 */
+	private static final ClassValue<BeanMapper<?>> MAPPERS = new ClassValue<BeanMapper<?>>() {
+
+		@Override
+		protected BeanMapper<?> computeValue(Class<?> type) {
+			return new BeanMapper<>(type);
+		}
+
+	};
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	/**
+	 * Type-specific getters of primitive column values, of type <code>(ResultSet, int)PrimitiveType</code>.
+	 */
+	private static final Map<Class<?>, MethodHandle> PRIMITIVE_GETTERS = new HashMap<>();
+
+	private static final MethodHandle READ;
+
+	static {
+		try {
+			PRIMITIVE_GETTERS.put(int.class, LOOKUP.findVirtual(ResultSet.class, "getInt", MethodType.methodType(int.class, int.class)));
+			PRIMITIVE_GETTERS.put(long.class, LOOKUP.findVirtual(ResultSet.class, "getLong", MethodType.methodType(long.class, int.class)));
+			PRIMITIVE_GETTERS.put(double.class, LOOKUP.findVirtual(ResultSet.class, "getDouble", MethodType.methodType(double.class, int.class)));
+			PRIMITIVE_GETTERS.put(float.class, LOOKUP.findVirtual(ResultSet.class, "getFloat", MethodType.methodType(float.class, int.class)));
+			PRIMITIVE_GETTERS.put(short.class, LOOKUP.findVirtual(ResultSet.class, "getShort", MethodType.methodType(short.class, int.class)));
+			PRIMITIVE_GETTERS.put(byte.class, LOOKUP.findVirtual(ResultSet.class, "getByte", MethodType.methodType(byte.class, int.class)));
+			PRIMITIVE_GETTERS.put(boolean.class, LOOKUP.findVirtual(ResultSet.class, "getBoolean", MethodType.methodType(boolean.class, int.class)));
+
+			READ = LOOKUP.findVirtual(Reader.class, "read", MethodType.methodType(Object.class, ResultSet.class, int.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Reader {
+
+		Object read(ResultSet set, int column) throws SQLException;
+
+	}
+
+	@FunctionalInterface
+	private interface ColumnSetter {
+
+		void set(Object bean, ResultSet set, int column) throws Throwable;
+
+	}
+
+	@FunctionalInterface
+	private interface Plan {
+
+		Object map(ResultSet set) throws Throwable;
+
+	}
+
+	private final Class<T> type;
+	/**
+	 * Mapping plans by column labels of result sets.
+	 */
+	private final Map<List<String>, Plan> plans = new ConcurrentHashMap<>();
+
+	private BeanMapper(@NonNull Class<T> type) {
+		if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive() || type.isArray()) {
+			throw new IllegalArgumentException("Can't map rows to " + type.getName());
+		}
+
+		this.type = type;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <T> BeanMapper<T> of(@NonNull Class<T> type) {
+		return (BeanMapper<T>) MAPPERS.get(type);
+	}
+
+	@Override
+	public T map(@NonNull ResultSet set) throws SQLException {
+		return map(plan(set.getMetaData()), set);
+	}
+
+	@Override
+	public ResultSetMapper<T> forResultSet(@NonNull ResultSet set) throws SQLException {
+		Plan plan = plan(set.getMetaData());
+		return row -> map(plan, row);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T map(@NonNull Plan plan, @NonNull ResultSet set) throws SQLException {
+		try {
+			return (T) plan.map(set);
+		} catch (SQLException | RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new SQLException("Failed to map a row to " + this.type.getName(), t);
+		}
+	}
+
+	private Plan plan(@NonNull ResultSetMetaData meta) throws SQLException {
+		List<String> labels = new ArrayList<>();
+
+		for (int i = 1; i <= meta.getColumnCount(); i++) {
+			labels.add(meta.getColumnLabel(i));
+		}
+
+		Plan plan = this.plans.get(labels);
+
+		if (plan == null) {
+			try {
+				plan = isRecord(this.type) ? recordPlan(labels) : beanPlan(labels);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalArgumentException("Can't map rows to " + this.type.getName(), e);
+			}
+
+			this.plans.put(labels, plan);
+		}
+
+		return plan;
+	}
+
+	// region Plans
+
+	private Plan beanPlan(@NonNull List<String> labels) throws ReflectiveOperationException {
+		Constructor<T> constructor = this.type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		MethodHandle create = LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+
+		Map<String, MethodHandle> properties = beanProperties();
+
+		List<ColumnSetter> setters = new ArrayList<>();
+		List<Integer> columns = new ArrayList<>();
+
+		for (int i = 0; i < labels.size(); i++) {
+			MethodHandle property = properties.remove(normalize(labels.get(i)));
+
+			if (property != null) {
+				setters.add(setter(property));
+				columns.add(i + 1);
+			}
+		}
+
+		ColumnSetter[] setterArray = setters.toArray(new ColumnSetter[0]);
+		int[] columnArray = columns.stream().mapToInt(Integer::intValue).toArray();
+
+		return set -> {
+			Object bean = create.invokeExact();
+
+			for (int i = 0; i < setterArray.length; i++) {
+				setterArray[i].set(bean, set, columnArray[i]);
+			}
+
+			return bean;
+		};
+	}
+
+	/**
+	 * @return Setter handles of type <code>(Object, PropertyType)void</code> by normalized property names.
+	 */
+	private Map<String, MethodHandle> beanProperties() throws IllegalAccessException {
+		Map<String, MethodHandle> properties = new HashMap<>();
+
+		for (Method method : this.type.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 1) {
+				continue;
+			}
+
+			String name = method.getName();
+
+			if (name.length() > 3 && name.startsWith("set")) {
+				method.setAccessible(true);
+				Class<?> propertyType = method.getParameterTypes()[0];
+				properties.putIfAbsent(normalize(name.substring(3)), LOOKUP.unreflect(method).asType(MethodType.methodType(void.class, Object.class, propertyType)));
+			}
+		}
+
+		for (Class<?> c = this.type; c != null && c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+
+				if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+					continue;
+				}
+
+				field.setAccessible(true);
+				properties.putIfAbsent(normalize(field.getName()), LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, field.getType())));
+			}
+		}
+
+		return properties;
+	}
+
+	private Plan recordPlan(@NonNull List<String> labels) throws ReflectiveOperationException {
+		Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(this.type);
+
+		Class<?>[] types = new Class<?>[components.length];
+		Map<String, Integer> indices = new HashMap<>();
+
+		for (int i = 0; i < components.length; i++) {
+			Class<?> componentClass = components[i].getClass();
+			types[i] = (Class<?>) componentClass.getMethod("getType").invoke(components[i]);
+			indices.put(normalize((String) componentClass.getMethod("getName").invoke(components[i])), i);
+		}
+
+		Constructor<T> constructor = this.type.getDeclaredConstructor(types);
+		constructor.setAccessible(true);
+		MethodHandle create = LOOKUP.unreflectConstructor(constructor);
+
+		// Each constructor parameter is computed from the result set by its own handle, so primitive values are not boxed
+		MethodHandle[] arguments = new MethodHandle[types.length];
+
+		for (int i = 0; i < labels.size(); i++) {
+			Integer component = indices.remove(normalize(labels.get(i)));
+
+			if (component != null) {
+				arguments[component] = componentReader(types[component], i + 1);
+			}
+		}
+
+		for (int i = 0; i < types.length; i++) {
+			if (arguments[i] == null) {
+				Object value = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+				arguments[i] = MethodHandles.dropArguments(MethodHandles.constant(types[i], value), 0, ResultSet.class);
+			}
+		}
+
+		MethodHandle filtered = MethodHandles.filterArguments(create, 0, arguments);
+		MethodHandle map = MethodHandles.permuteArguments(filtered, MethodType.methodType(this.type, ResultSet.class), new int[types.length])
+				.asType(MethodType.methodType(Object.class, ResultSet.class));
+
+		return set -> (Object) map.invokeExact(set);
+	}
+
+	// endregion
+
+	// region Column access
+
+	/**
+	 * @param type Component type.
+	 * @param column Column index.
+	 * @return Handle of type <code>(ResultSet)ComponentType</code> which reads the column.
+	 */
+	private static MethodHandle componentReader(@NonNull Class<?> type, int column) {
+		MethodHandle getter = PRIMITIVE_GETTERS.get(type);
+
+		if (getter == null) {
+			getter = READ.bindTo(reader(type)).asType(MethodType.methodType(type, ResultSet.class, int.class));
+		}
+
+		return MethodHandles.insertArguments(getter, 1, column);
+	}
+
+	/**
+	 * @param property Setter handle of type <code>(Object, PropertyType)void</code>.
+	 * @return Setter which reads the column value using a type-specific getter.
+	 */
+	private static ColumnSetter setter(@NonNull MethodHandle property) {
+		Class<?> type = property.type().parameterType(1);
+
+		if (type == int.class) {
+			return (bean, set, column) -> {
+				property.invokeExact(bean, set.getInt(column));
+			};
+		} else if (type == long.class) {
+			return (bean, set, column) -> {
+				property.invokeExact(bean, set.getLong(column));
+			};
+		} else if (type == double.class) {
+			return (bean, set, column) -> {
+				property.invokeExact(bean, set.getDouble(column));
+			};
+		} else if (type == boolean.class) {
+			return (bean, set, column) -> {
+				property.invokeExact(bean, set.getBoolean(column));
+			};
+		}
+
+		MethodHandle generic = property.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		Reader reader = reader(type);
+
+		return (bean, set, column) -> {
+			generic.invokeExact(bean, reader.read(set, column));
+		};
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Reader reader(@NonNull Class<?> type) {
+		if (type == String.class) {
+			return ResultSet::getString;
+		} else if (type == int.class) {
+			return ResultSet::getInt;
+		} else if (type == long.class) {
+			return ResultSet::getLong;
+		} else if (type == double.class) {
+			return ResultSet::getDouble;
+		} else if (type == float.class) {
+			return ResultSet::getFloat;
+		} else if (type == short.class) {
+			return ResultSet::getShort;
+		} else if (type == byte.class) {
+			return ResultSet::getByte;
+		} else if (type == boolean.class) {
+			return ResultSet::getBoolean;
+		} else if (type == Integer.class) {
+			return (set, column) -> nullable(set, set.getInt(column));
+		} else if (type == Long.class) {
+			return (set, column) -> nullable(set, set.getLong(column));
+		} else if (type == Double.class) {
+			return (set, column) -> nullable(set, set.getDouble(column));
+		} else if (type == Float.class) {
+			return (set, column) -> nullable(set, set.getFloat(column));
+		} else if (type == Short.class) {
+			return (set, column) -> nullable(set, set.getShort(column));
+		} else if (type == Byte.class) {
+			return (set, column) -> nullable(set, set.getByte(column));
+		} else if (type == Boolean.class) {
+			return (set, column) -> nullable(set, set.getBoolean(column));
+		} else if (type == byte[].class) {
+			return ResultSet::getBytes;
+		} else if (type == BigDecimal.class) {
+			return ResultSet::getBigDecimal;
+		} else if (type == java.sql.Timestamp.class || type == java.util.Date.class) {
+			return ResultSet::getTimestamp;
+		} else if (type == java.sql.Date.class) {
+			return ResultSet::getDate;
+		} else if (type == java.sql.Time.class) {
+			return ResultSet::getTime;
+		} else if (type.isEnum()) {
+			return (set, column) -> {
+				String name = set.getString(column);
+				return name != null ? Enum.valueOf((Class) type, name) : null;
+			};
+		}
+
+		return (set, column) -> set.getObject(column, type);
+	}
+
+	private static Object nullable(@NonNull ResultSet set, Object value) throws SQLException {
+		return set.wasNull() ? null : value;
+	}
+
+	// endregion
+
+	private static boolean isRecord(@NonNull Class<?> type) {
+		Class<?> parent = type.getSuperclass();
+		return parent != null && parent.getName().equals("java.lang.Record");
+	}
+
+	/**
+	 * Normalizes a column or property name, so <code>user_id</code>, <code>USER_ID</code> and <code>userId</code> match.
+	 */
+	private static String normalize(@NonNull String name) {
+		return name.replace("_", "").toLowerCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,86 @@
+package me.saharnooby.lib.query.set;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A growable array of <code>double</code> values.
+ * @author saharNooby
+ * @since 18:15 16.10.2026
+ */
+public final class DoubleList {
+
+	private double[] values;
+	private int size;
+
+	/**
+	 * Constructs an empty list with default initial capacity.
+	 */
+	public DoubleList() {
+		this(PrimitiveLists.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty list.
+	 * @param capacity Initial capacity, must be non-negative.
+	 */
+	public DoubleList(int capacity) {
+		PrimitiveLists.checkCapacity(capacity);
+		this.values = new double[capacity];
+	}
+
+	/**
+	 * Appends a value to the end of the list.
+	 * @param value Value.
+	 */
+	public void add(double value) {
+		if (this.size == this.values.length) {
+			this.values = Arrays.copyOf(this.values, PrimitiveLists.grow(this.values.length));
+		}
+
+		this.values[this.size++] = value;
+	}
+
+	/**
+	 * @param index Index of the value.
+	 * @return Value at the index.
+	 */
+	public double get(int index) {
+		PrimitiveLists.checkIndex(index, this.size);
+		return this.values[index];
+	}
+
+	/**
+	 * @return Count of values in the list.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @return True if the list contains no values.
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * @return A new array containing all values of the list.
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(this.values, this.size);
+	}
+
+	/**
+	 * @return A stream of the values.
+	 */
+	public DoubleStream stream() {
+		return Arrays.stream(this.values, 0, this.size);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
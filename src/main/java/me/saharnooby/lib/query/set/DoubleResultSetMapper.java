@@ -0,0 +1,23 @@
+package me.saharnooby.lib.query.set;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a {@link ResultSet} to a <code>double</code> value without boxing.
+ * @author saharNooby
+ * @since 18:14 16.10.2026
+ */
+@FunctionalInterface
+public interface DoubleResultSetMapper {
+
+	/**
+	 * Maps a {@link ResultSet} to a value.
+	 * Result set must point to a row before calling this method.
+	 * @param set Result set.
+	 * @return Value.
+	 * @throws SQLException On SQL error.
+	 */
+	double map(ResultSet set) throws SQLException;
+
+}
@@ -0,0 +1,23 @@
+package me.saharnooby.lib.query.set;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a {@link ResultSet} to an <code>int</code> value without boxing.
+ * @author saharNooby
+ * @since 18:12 16.10.2026
+ */
+@FunctionalInterface
+public interface IntResultSetMapper {
+
+	/**
+	 * Maps a {@link ResultSet} to a value.
+	 * Result set must point to a row before calling this method.
+	 * @param set Result set.
+	 * @return Value.
+	 * @throws SQLException On SQL error.
+	 */
+	int map(ResultSet set) throws SQLException;
+
+}
@@ -0,0 +1,23 @@
+package me.saharnooby.lib.query.set;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a {@link ResultSet} to a <code>long</code> value without boxing.
+ * @author saharNooby
+ * @since 18:10 16.10.2026
+ */
+@FunctionalInterface
+public interface LongResultSetMapper {
+
+	/**
+	 * Maps a {@link ResultSet} to a value.
+	 * Result set must point to a row before calling this method.
+	 * @param set Result set.
+	 * @return Value.
+	 * @throws SQLException On SQL error.
+	 */
+	long map(ResultSet set) throws SQLException;
+
+}
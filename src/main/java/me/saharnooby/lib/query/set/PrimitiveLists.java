@@ -0,0 +1,45 @@
+package me.saharnooby.lib.query.set;
+
+/**
+ * Capacity and bounds checks shared by {@link LongList}, {@link IntList} and {@link DoubleList}.
+ * @author saharNooby
+ * @since 22:05 16.10.2026
+ */
+final class PrimitiveLists {
+
+	static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Max array length, some VMs reserve header words in arrays.
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	private PrimitiveLists() {
+
+	}
+
+	static void checkCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("" + capacity);
+		}
+	}
+
+	/**
+	 * @param capacity Current capacity, which is full.
+	 * @return New capacity, 1.5 times larger.
+	 */
+	static int grow(int capacity) {
+		if (capacity == MAX_CAPACITY) {
+			throw new OutOfMemoryError("List is too large");
+		}
+
+		return (int) Math.min(MAX_CAPACITY, Math.max(DEFAULT_CAPACITY, capacity + (long) (capacity >> 1)));
+	}
+
+	static void checkIndex(int index, int size) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+	}
+
+}
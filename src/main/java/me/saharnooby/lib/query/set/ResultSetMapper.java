@@ -1,5 +1,7 @@
 package me.saharnooby.lib.query.set;
 
+import lombok.NonNull;
+
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -20,4 +22,36 @@ public interface ResultSetMapper<T> {
 	 */
 	T map(ResultSet set) throws SQLException;
 
+	/**
+	 * Returns a mapper of rows of the specified result set. Execution methods and {@link ResultSetWrapper} call this method
+	 * once per result set before mapping its rows, so the returned mapper can keep state resolved from the result set,
+	 * like column indices.
+	 * @param set Result set, may not point to a row yet.
+	 * @return Mapper of rows of the result set. By default, this mapper.
+	 * @throws SQLException On SQL error.
+	 */
+	default ResultSetMapper<T> forResultSet(ResultSet set) throws SQLException {
+		return this;
+	}
+
+	/**
+	 * Returns a mapper which creates instances of the class and fills them with column values, matching
+	 * columns to properties by name, ignoring case and underscores (column <code>user_id</code> matches property <code>userId</code>).
+	 * <p>
+	 * For records, the canonical constructor is used; components without a matching column get default values.
+	 * For other classes, a no-arg constructor is used, and properties are set using public setters or non-final fields.
+	 * Columns without a matching property are ignored.
+	 * <p>
+	 * Mappers are created once per class, and mapping plans are cached per column layout. The plan is resolved
+	 * from the metadata once per result set, see {@link #forResultSet(ResultSet)}, and values are read
+	 * using type-specific getters and set using method handles, without reflection lookups.
+	 * Calling {@link #map(ResultSet)} directly resolves the plan for each row.
+	 * @param type Class of the mapped objects.
+	 * @param <T> Type of the mapped objects.
+	 * @return Mapper.
+	 */
+	static <T> ResultSetMapper<T> of(@NonNull Class<T> type) {
+		return BeanMapper.of(type);
+	}
+
 }
@@ -1,17 +1,21 @@
 package me.saharnooby.lib.query.set;
 
 import lombok.NonNull;
+import me.saharnooby.lib.query.listener.QueryExecution;
+import me.saharnooby.lib.query.util.ExecutorUtil.SQLSupplier;
 
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A {@link ResultSet} wrapper allowing useful operations like mapping.
  * If closed, underlying result set will be closed.
+ * Not thread-safe.
  * @author saharNooby
  * @since 13:16 14.11.2019
  */
@@ -19,6 +23,15 @@ public final class ResultSetWrapper implements AutoCloseable {
 
 	private final ResultSet set;
 	private final PreparedStatement parentStatement;
+	private final AutoCloseable resource;
+	private final QueryExecution execution;
+
+	private boolean closed;
+	private long rows;
+	/**
+	 * The first exception thrown while reading rows, reported to listeners on close.
+	 */
+	private Throwable failure;
 
 	/**
 	 * Constructs a new wrapper.
@@ -33,8 +46,32 @@ public final class ResultSetWrapper implements AutoCloseable {
 	 * @param set A result set.
 	 */
 	public ResultSetWrapper(@NonNull ResultSet set, PreparedStatement parentStatement) {
+		this(set, parentStatement, null);
+	}
+
+	/**
+	 * Constructs a new wrapper. Parent statement and the resource, if specified, will be closed after this set is closed.
+	 * @param set A result set.
+	 * @param parentStatement Statement that produced the set.
+	 * @param resource A resource to close last, like the connection the set was obtained from.
+	 */
+	public ResultSetWrapper(@NonNull ResultSet set, PreparedStatement parentStatement, AutoCloseable resource) {
+		this(set, parentStatement, resource, null);
+	}
+
+	/**
+	 * Constructs a new wrapper. Parent statement and the resource, if specified, will be closed after this set is closed.
+	 * The execution, if specified, is reported to listeners when this wrapper is closed.
+	 * @param set A result set.
+	 * @param parentStatement Statement that produced the set.
+	 * @param resource A resource to close last, like the connection the set was obtained from.
+	 * @param execution Execution of the query that produced the set.
+	 */
+	public ResultSetWrapper(@NonNull ResultSet set, PreparedStatement parentStatement, AutoCloseable resource, QueryExecution execution) {
 		this.set = set;
 		this.parentStatement = parentStatement;
+		this.resource = resource;
+		this.execution = execution;
 	}
 
 	/**
@@ -45,43 +82,218 @@ public final class ResultSetWrapper implements AutoCloseable {
 	}
 
 	/**
-	 * Closes the underlying {@link ResultSet}.
+	 * @return Count of rows read by methods of this wrapper, including {@link #next()}. Rows read directly from {@link #set()} are not counted.
+	 */
+	public long getRowCount() {
+		return this.rows;
+	}
+
+	/**
+	 * Closes the underlying {@link ResultSet}, the parent statement and the resource, if they were specified.
+	 * Has no effect if the wrapper is already closed.
 	 * @throws SQLException On SQL error.
 	 */
 	@Override
 	public void close() throws SQLException {
+		if (this.closed) {
+			return;
+		}
+
+		this.closed = true;
+
 		try {
 			this.set.close();
 		} finally {
-			if (this.parentStatement != null) {
-				this.parentStatement.close();
+			try {
+				if (this.parentStatement != null) {
+					this.parentStatement.close();
+				}
+			} finally {
+				try {
+					if (this.resource != null) {
+						closeResource();
+					}
+				} finally {
+					if (this.execution != null) {
+						if (this.failure != null) {
+							this.execution.failed(this.failure);
+						} else {
+							this.execution.succeeded(this.rows);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void closeResource() throws SQLException {
+		try {
+			this.resource.close();
+		} catch (SQLException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SQLException(e);
+		}
+	}
+
+	/**
+	 * Runs the reader and closes this wrapper. If the reader throws an exception,
+	 * the execution is reported as failed, and exceptions thrown when closing are added as suppressed.
+	 */
+	private <T> T read(@NonNull SQLSupplier<T> reader) throws SQLException {
+		T result;
+
+		try {
+			result = reader.get();
+		} catch (SQLException | RuntimeException | Error e) {
+			this.failure = e;
+
+			try {
+				close();
+			} catch (SQLException | RuntimeException suppressed) {
+				e.addSuppressed(suppressed);
 			}
+
+			throw e;
 		}
+
+		close();
+
+		return result;
+	}
+
+	/**
+	 * Moves the underlying result set to the next row, counting it in {@link #getRowCount()}.
+	 * Use it instead of {@link ResultSet#next()} when reading rows manually, so listeners receive the correct row count.
+	 * @return True if the new current row is valid, false if there are no more rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public boolean next() throws SQLException {
+		if (this.set.next()) {
+			this.rows++;
+			return true;
+		}
+
+		return false;
 	}
 
 	/**
 	 * Maps all rows in the result set using specified mapper and collects the results to a list.
-	 * Underlying result set will be closed after this method returns.
+	 * Underlying result set and parent statement will be closed after this method returns.
 	 * @param mapper Mapper.
 	 * @param <T> Mapped element type.
 	 * @return List of mapped rows.
 	 * @throws SQLException On SQL error.
 	 */
 	public <T> List<T> mapAll(@NonNull ResultSetMapper<T> mapper) throws SQLException {
-		List<T> list = new ArrayList<>();
+		return read(() -> {
+			List<T> list = new ArrayList<>();
+			ResultSetMapper<T> rowMapper = mapper.forResultSet(this.set);
 
-		try (ResultSet set = set()) {
-			while (set.next()) {
-				list.add(mapper.map(set));
+			while (next()) {
+				list.add(rowMapper.map(this.set));
 			}
-		}
 
-		return list;
+			return list;
+		});
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>long</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public LongList mapAllLongs(@NonNull LongResultSetMapper mapper) throws SQLException {
+		return mapAllLongs(mapper, 16);
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>long</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @param expectedRows Expected count of rows, used as initial capacity of the list.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public LongList mapAllLongs(@NonNull LongResultSetMapper mapper, int expectedRows) throws SQLException {
+		return read(() -> {
+			LongList list = new LongList(expectedRows);
+
+			while (next()) {
+				list.add(mapper.map(this.set));
+			}
+
+			return list;
+		});
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>int</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public IntList mapAllInts(@NonNull IntResultSetMapper mapper) throws SQLException {
+		return mapAllInts(mapper, 16);
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>int</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @param expectedRows Expected count of rows, used as initial capacity of the list.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public IntList mapAllInts(@NonNull IntResultSetMapper mapper, int expectedRows) throws SQLException {
+		return read(() -> {
+			IntList list = new IntList(expectedRows);
+
+			while (next()) {
+				list.add(mapper.map(this.set));
+			}
+
+			return list;
+		});
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>double</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public DoubleList mapAllDoubles(@NonNull DoubleResultSetMapper mapper) throws SQLException {
+		return mapAllDoubles(mapper, 16);
+	}
+
+	/**
+	 * Maps all rows in the result set to <code>double</code> values without boxing.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @param expectedRows Expected count of rows, used as initial capacity of the list.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public DoubleList mapAllDoubles(@NonNull DoubleResultSetMapper mapper, int expectedRows) throws SQLException {
+		return read(() -> {
+			DoubleList list = new DoubleList(expectedRows);
+
+			while (next()) {
+				list.add(mapper.map(this.set));
+			}
+
+			return list;
+		});
 	}
 
 	/**
 	 * Maps the first row in the result set, if it exists, using specified mapper and returns an optional value.
-	 * Underlying result set will be closed after this method returns.
+	 * Underlying result set and parent statement will be closed after this method returns.
 	 * The optional will be empty if the set contains no rows or if the mapper returned null.
 	 * @param mapper Mapper.
 	 * @param <T> Mapped element type.
@@ -89,9 +301,118 @@ public final class ResultSetWrapper implements AutoCloseable {
 	 * @throws SQLException On SQL error.
 	 */
 	public <T> Optional<T> map(@NonNull ResultSetMapper<T> mapper) throws SQLException {
-		try (ResultSet set = set()) {
-			return set.next() ? Optional.ofNullable(mapper.map(set)) : Optional.empty();
-		}
+		return read(() -> {
+			ResultSetMapper<T> rowMapper = mapper.forResultSet(this.set);
+
+			return next() ? Optional.ofNullable(rowMapper.map(this.set)) : Optional.empty();
+		});
+	}
+
+	/**
+	 * Maps all rows in the result set using specified row mapper and collects the results to a list.
+	 * Column labels are resolved to indices once, see {@link Row}.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param mapper Mapper.
+	 * @param <T> Mapped element type.
+	 * @return List of mapped rows.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> List<T> mapAllRows(@NonNull RowMapper<T> mapper) throws SQLException {
+		return read(() -> {
+			List<T> list = new ArrayList<>();
+			Row row = new Row(this.set);
+
+			while (next()) {
+				list.add(mapper.map(row));
+			}
+
+			return list;
+		});
+	}
+
+	/**
+	 * Maps the first row in the result set, if it exists, using specified row mapper and returns an optional value.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * The optional will be empty if the set contains no rows or if the mapper returned null.
+	 * @param mapper Mapper.
+	 * @param <T> Mapped element type.
+	 * @return Optional value containing the mapped row.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> Optional<T> mapRow(@NonNull RowMapper<T> mapper) throws SQLException {
+		return read(() -> next() ? Optional.ofNullable(mapper.map(new Row(this.set))) : Optional.empty());
+	}
+
+	/**
+	 * Calls the consumer for each row in the result set.
+	 * Underlying result set and parent statement will be closed after this method returns.
+	 * @param consumer Consumer.
+	 * @throws SQLException On SQL error.
+	 */
+	public void forEach(@NonNull RowConsumer consumer) throws SQLException {
+		read(() -> {
+			while (next()) {
+				consumer.accept(this.set);
+			}
+
+			return null;
+		});
+	}
+
+	/**
+	 * Returns a lazy stream of rows mapped using specified mapper. Rows are read from the set as the stream is consumed.
+	 * The stream must be closed by the caller, closing the stream closes this wrapper.
+	 * The wrapper is also closed when all rows are read.
+	 * {@link SQLException}s thrown while reading are wrapped into {@link UncheckedSQLException}s.
+	 * @param mapper Mapper.
+	 * @param <T> Mapped element type.
+	 * @return Stream of mapped rows.
+	 */
+	public <T> Stream<T> stream(@NonNull ResultSetMapper<T> mapper) {
+		Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+			private ResultSetMapper<T> rowMapper;
+
+			@Override
+			public boolean tryAdvance(Consumer<? super T> action) {
+				if (closed) {
+					return false;
+				}
+
+				T value;
+
+				try {
+					if (this.rowMapper == null) {
+						this.rowMapper = mapper.forResultSet(set);
+					}
+
+					if (!next()) {
+						close();
+						return false;
+					}
+
+					value = this.rowMapper.map(set);
+				} catch (SQLException e) {
+					failure = e;
+					throw new UncheckedSQLException(e);
+				} catch (RuntimeException | Error e) {
+					failure = e;
+					throw e;
+				}
+
+				action.accept(value);
+
+				return true;
+			}
+		};
+
+		return StreamSupport.stream(spliterator, false).onClose(() -> {
+			try {
+				close();
+			} catch (SQLException e) {
+				throw new UncheckedSQLException(e);
+			}
+		});
 	}
 
 }
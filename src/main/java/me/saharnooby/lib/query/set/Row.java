@@ -0,0 +1,228 @@
+package me.saharnooby.lib.query.set;
+
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A view of the current row of a {@link ResultSet} which allows reading columns by label
+ * at the cost of reading them by index. Column labels are read from {@link ResultSetMetaData} once per result set,
+ * when the first label is resolved; later rows are read by the resolved indices.
+ * @author saharNooby
+ * @since 18:40 16.10.2026
+ */
+public final class Row {
+
+	private final ResultSet set;
+	/**
+	 * Indices of requested labels.
+	 */
+	private final Map<String, Integer> indices = new HashMap<>();
+	/**
+	 * Indices of lower case column labels from the metadata, or null if the metadata was not read yet.
+	 */
+	private Map<String, Integer> columns;
+
+	/**
+	 * Constructs a new view.
+	 * @param set Result set.
+	 */
+	public Row(@NonNull ResultSet set) {
+		this.set = set;
+	}
+
+	/**
+	 * @return Underlying {@link ResultSet}, which can be used to read columns by index.
+	 */
+	public ResultSet set() {
+		return this.set;
+	}
+
+	/**
+	 * Resolves a column label to a column index, ignoring case. If there are several columns with the label,
+	 * the first one is used. Labels not found in the metadata are resolved using {@link ResultSet#findColumn(String)}.
+	 * Resolved indices are cached.
+	 * @param label Column label.
+	 * @return Column index, starting from 1.
+	 * @throws SQLException If there is no such column, or on SQL error.
+	 */
+	public int index(@NonNull String label) throws SQLException {
+		Integer index = this.indices.get(label);
+
+		if (index == null) {
+			index = resolve(label);
+			this.indices.put(label, index);
+		}
+
+		return index;
+	}
+
+	private int resolve(@NonNull String label) throws SQLException {
+		if (this.columns == null) {
+			ResultSetMetaData meta = this.set.getMetaData();
+			int count = meta.getColumnCount();
+			Map<String, Integer> columns = new HashMap<>(count * 2);
+
+			for (int i = 1; i <= count; i++) {
+				columns.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+			}
+
+			this.columns = columns;
+		}
+
+		Integer index = this.columns.get(label.toLowerCase(Locale.ROOT));
+
+		// Drivers may accept labels that are not in the metadata
+		return index != null ? index : this.set.findColumn(label);
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getString(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public String getString(@NonNull String label) throws SQLException {
+		return this.set.getString(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getInt(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public int getInt(@NonNull String label) throws SQLException {
+		return this.set.getInt(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getLong(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public long getLong(@NonNull String label) throws SQLException {
+		return this.set.getLong(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getDouble(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public double getDouble(@NonNull String label) throws SQLException {
+		return this.set.getDouble(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getFloat(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public float getFloat(@NonNull String label) throws SQLException {
+		return this.set.getFloat(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getShort(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public short getShort(@NonNull String label) throws SQLException {
+		return this.set.getShort(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getByte(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public byte getByte(@NonNull String label) throws SQLException {
+		return this.set.getByte(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getBoolean(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public boolean getBoolean(@NonNull String label) throws SQLException {
+		return this.set.getBoolean(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getBytes(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public byte[] getBytes(@NonNull String label) throws SQLException {
+		return this.set.getBytes(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getBigDecimal(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public BigDecimal getBigDecimal(@NonNull String label) throws SQLException {
+		return this.set.getBigDecimal(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getTimestamp(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public Timestamp getTimestamp(@NonNull String label) throws SQLException {
+		return this.set.getTimestamp(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getDate(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public Date getDate(@NonNull String label) throws SQLException {
+		return this.set.getDate(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getTime(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public Time getTime(@NonNull String label) throws SQLException {
+		return this.set.getTime(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @return Value of the column, see {@link ResultSet#getObject(String)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public Object getObject(@NonNull String label) throws SQLException {
+		return this.set.getObject(index(label));
+	}
+
+	/**
+	 * @param label Column label.
+	 * @param type Class of the value.
+	 * @param <T> Type of the value.
+	 * @return Value of the column, see {@link ResultSet#getObject(String, Class)}.
+	 * @throws SQLException On SQL error.
+	 */
+	public <T> T getObject(@NonNull String label, @NonNull Class<T> type) throws SQLException {
+		return this.set.getObject(index(label), type);
+	}
+
+	/**
+	 * @return Whether the last read column value was <code>NULL</code>.
+	 * @throws SQLException On SQL error.
+	 */
+	public boolean wasNull() throws SQLException {
+		return this.set.wasNull();
+	}
+
+}
@@ -0,0 +1,22 @@
+package me.saharnooby.lib.query.set;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Consumes rows of a {@link ResultSet}.
+ * @author saharNooby
+ * @since 17:30 16.10.2026
+ */
+@FunctionalInterface
+public interface RowConsumer {
+
+	/**
+	 * Consumes a row.
+	 * Result set must point to a row before calling this method.
+	 * @param set Result set.
+	 * @throws SQLException On SQL error.
+	 */
+	void accept(ResultSet set) throws SQLException;
+
+}
@@ -0,0 +1,21 @@
+package me.saharnooby.lib.query.set;
+
+import java.sql.SQLException;
+
+/**
+ * Maps a {@link Row} to a value.
+ * @author saharNooby
+ * @since 18:42 16.10.2026
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+	/**
+	 * Maps a {@link Row} to a value.
+	 * @param row Current row of the result set.
+	 * @return Value, may be null.
+	 * @throws SQLException On SQL error.
+	 */
+	T map(Row row) throws SQLException;
+
+}
@@ -0,0 +1,25 @@
+package me.saharnooby.lib.query.set;
+
+import lombok.NonNull;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps an {@link SQLException} thrown where checked exceptions are not allowed, like in {@link java.util.stream.Stream} methods.
+ * @author saharNooby
+ * @since 17:32 16.10.2026
+ */
+public final class UncheckedSQLException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public UncheckedSQLException(@NonNull SQLException cause) {
+		super(cause);
+	}
+
+	@Override
+	public synchronized SQLException getCause() {
+		return (SQLException) super.getCause();
+	}
+
+}
@@ -0,0 +1,160 @@
+package me.saharnooby.lib.query.util;
+
+import lombok.NonNull;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Internal class, do not use directly, except for {@link #setDefaultExecutor(Executor)}.
+ * @author saharNooby
+ * @since 10:15 16.10.2026
+ */
+public final class ExecutorUtil {
+
+	/**
+	 * A task which may throw an {@link SQLException}.
+	 * @param <T> Result type.
+	 */
+	@FunctionalInterface
+	public interface SQLSupplier<T> {
+
+		T get() throws SQLException;
+
+	}
+
+	/**
+	 * Max count of threads of the default executor on Java versions without virtual threads.
+	 * Can be set using <code>me.saharnooby.lib.query.threads</code> system property.
+	 */
+	private static final int DEFAULT_THREADS = Math.max(1, Integer.getInteger("me.saharnooby.lib.query.threads", Math.max(8, 4 * Runtime.getRuntime().availableProcessors())));
+
+	private static volatile Executor defaultExecutor;
+
+	private static volatile ScheduledExecutorService scheduler;
+
+	/**
+	 * Returns the executor used for blocking JDBC calls when the caller does not specify one.
+	 * On Java 21+, it is a virtual thread per task executor. On older versions, it is a pool of daemon threads
+	 * with at most 4 threads per processor (but no less than 8), or as many as set by <code>me.saharnooby.lib.query.threads</code>
+	 * system property; tasks wait in an unbounded queue when all threads are busy. Idle threads are stopped after a minute.
+	 * <p>
+	 * Note that the count of concurrently executed tasks is also limited by the connection pool, if there is one.
+	 * @return Default executor.
+	 */
+	public static Executor defaultExecutor() {
+		Executor executor = defaultExecutor;
+
+		if (executor == null) {
+			synchronized (ExecutorUtil.class) {
+				executor = defaultExecutor;
+
+				if (executor == null) {
+					executor = createDefaultExecutor();
+					defaultExecutor = executor;
+				}
+			}
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Replaces the default executor, see {@link #defaultExecutor()}. Affects only tasks started after the call.
+	 * The previous executor is not shut down.
+	 * @param executor Executor.
+	 */
+	public static void setDefaultExecutor(@NonNull Executor executor) {
+		synchronized (ExecutorUtil.class) {
+			defaultExecutor = executor;
+		}
+	}
+
+	/**
+	 * Returns the scheduler used for delayed and periodic tasks, like flushing buffers.
+	 * It has a single daemon thread, so scheduled tasks must be short and pass blocking work to another executor.
+	 * @return Shared scheduler.
+	 */
+	public static ScheduledExecutorService scheduler() {
+		ScheduledExecutorService executor = scheduler;
+
+		if (executor == null) {
+			synchronized (ExecutorUtil.class) {
+				executor = scheduler;
+
+				if (executor == null) {
+					executor = Executors.newSingleThreadScheduledExecutor(r -> {
+						Thread thread = new Thread(r, "query-lib-scheduler");
+						thread.setDaemon(true);
+						return thread;
+					});
+					scheduler = executor;
+				}
+			}
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Runs the task using the executor.
+	 * @param task Task.
+	 * @param executor Executor.
+	 * @param <T> Result type.
+	 * @return A future completed with the task result, or exceptionally with the exception
+	 * thrown by the task, or with {@link java.util.concurrent.RejectedExecutionException} if the executor rejected the task.
+	 */
+	public static <T> CompletableFuture<T> supplyAsync(@NonNull SQLSupplier<T> task, @NonNull Executor executor) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+
+		try {
+			executor.execute(() -> {
+				try {
+					future.complete(task.get());
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			});
+		} catch (RuntimeException e) {
+			future.completeExceptionally(e);
+		}
+
+		return future;
+	}
+
+	private static Executor createDefaultExecutor() {
+		try {
+			Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// Virtual threads are not available
+		}
+
+		return newBoundedPool(DEFAULT_THREADS);
+	}
+
+	static ThreadPoolExecutor newBoundedPool(int threads) {
+		AtomicInteger counter = new AtomicInteger();
+
+		ThreadFactory factory = r -> {
+			Thread thread = new Thread(r, "query-lib-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+}
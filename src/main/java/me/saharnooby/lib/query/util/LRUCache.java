@@ -0,0 +1,117 @@
+package me.saharnooby.lib.query.util;
+
+import lombok.NonNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Internal class, do not use directly.
+ * A bounded map which evicts least recently used entries. Split into 16 independently locked segments,
+ * and the max size is divided evenly between them, so the size limit is approximate.
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author saharNooby
+ * @since 20:20 16.10.2026
+ */
+public final class LRUCache<K, V> {
+
+	private static final int SEGMENTS = 16;
+
+	private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maxSize;
+
+		Segment(int maxSize) {
+			super(16, 0.75F, true);
+
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > this.maxSize;
+		}
+
+	}
+
+	private final Segment<K, V>[] segments;
+
+	/**
+	 * Creates a cache.
+	 * @param maxSize Max count of entries.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public LRUCache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("" + maxSize);
+		}
+
+		this.segments = new Segment[SEGMENTS];
+
+		for (int i = 0; i < SEGMENTS; i++) {
+			this.segments[i] = new Segment<>((maxSize + SEGMENTS - 1) / SEGMENTS);
+		}
+	}
+
+	/**
+	 * @param key Key.
+	 * @return Cached value, or null if there is no value for the key.
+	 */
+	public V get(@NonNull K key) {
+		Segment<K, V> segment = segment(key);
+
+		synchronized (segment) {
+			return segment.get(key);
+		}
+	}
+
+	/**
+	 * Caches the value, unless there is a value for the key already.
+	 * @param key Key.
+	 * @param value Value.
+	 * @return Value that is cached now.
+	 */
+	public V putIfAbsent(@NonNull K key, @NonNull V value) {
+		Segment<K, V> segment = segment(key);
+
+		synchronized (segment) {
+			V existing = segment.putIfAbsent(key, value);
+			return existing != null ? existing : value;
+		}
+	}
+
+	/**
+	 * @return Count of cached entries.
+	 */
+	public int size() {
+		int size = 0;
+
+		for (Segment<K, V> segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : this.segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	private Segment<K, V> segment(@NonNull K key) {
+		int h = key.hashCode();
+		return this.segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+	}
+
+}
@@ -0,0 +1,120 @@
+package me.saharnooby.lib.query.util;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Internal class, do not use directly.
+ * Caches rendered SQL text by query shape, so queries with the same structure and
+ * different parameter values share a single SQL string instance.
+ * @author saharNooby
+ * @since 13:10 16.10.2026
+ */
+public final class SQLCache {
+
+	/**
+	 * Max count of cached shapes. Least recently used shapes are evicted.
+	 */
+	private static final int MAX_SIZE = 4096;
+
+	private static final LRUCache<Shape, String> CACHE = new LRUCache<>(MAX_SIZE);
+
+	/**
+	 * Structure of a query: a sequence of all values that affect the SQL text, including the query class.
+	 * Parts should be values already held by the query, like column names and expression kinds,
+	 * rather than strings built for each query, so comparing shapes is cheap.
+	 */
+	public static final class Shape {
+
+		private Object[] parts;
+		private int size;
+		private int hash = 1;
+
+		/**
+		 * Creates a shape.
+		 * @param type Query class.
+		 */
+		public Shape(@NonNull Class<?> type) {
+			this.parts = new Object[16];
+
+			add(type);
+		}
+
+		private Shape(@NonNull Object[] parts, int size, int hash) {
+			this.parts = parts;
+			this.size = size;
+			this.hash = hash;
+		}
+
+		/**
+		 * Appends a part.
+		 * @param part Part, may be null.
+		 * @return This object.
+		 */
+		public Shape add(Object part) {
+			if (this.size == this.parts.length) {
+				this.parts = Arrays.copyOf(this.parts, this.size * 2);
+			}
+
+			this.parts[this.size++] = part;
+			this.hash = 31 * this.hash + Objects.hashCode(part);
+
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Shape)) {
+				return false;
+			}
+
+			Shape shape = (Shape) o;
+
+			if (this.hash != shape.hash || this.size != shape.size) {
+				return false;
+			}
+
+			for (int i = 0; i < this.size; i++) {
+				if (!Objects.equals(this.parts[i], shape.parts[i])) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		private Shape compact() {
+			return new Shape(Arrays.copyOf(this.parts, this.size), this.size, this.hash);
+		}
+
+	}
+
+	/**
+	 * Returns cached SQL text for the shape, rendering and caching it if needed.
+	 * @param shape Query shape. Must not be modified after calling this method.
+	 * @param renderer Function that renders the SQL text.
+	 * @return SQL text.
+	 */
+	public static String get(@NonNull Shape shape, @NonNull Supplier<String> renderer) {
+		String sql = CACHE.get(shape);
+
+		if (sql == null) {
+			sql = CACHE.putIfAbsent(shape.compact(), renderer.get());
+		}
+
+		return sql;
+	}
+
+}
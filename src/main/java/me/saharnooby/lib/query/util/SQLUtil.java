@@ -2,6 +2,8 @@ package me.saharnooby.lib.query.util;
 
 import lombok.NonNull;
 
+import java.util.regex.Pattern;
+
 /**
  * Internal class, do not use directly.
  * @author saharNooby
@@ -9,6 +11,22 @@ import lombok.NonNull;
  */
 public final class SQLUtil {
 
+	// Repeated groups are possessive, so long literals and lists don't overflow the stack of the regex engine
+	private static final Pattern LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*+'|(?<![\\w`.])\\d+(?:\\.\\d+)?(?![\\w`])");
+	private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)++");
+	private static final Pattern TUPLE_LIST = Pattern.compile("\\(([^()]*)\\)(?:\\s*,\\s*\\(\\1\\))++");
+
+	/**
+	 * Max count of cached fingerprints. When reached, least recently used fingerprints are evicted.
+	 */
+	private static final int MAX_FINGERPRINTS = 4096;
+	/**
+	 * Max length of SQL text which fingerprint is cached. Longer texts, like multi-row inserts, are rarely repeated exactly.
+	 */
+	private static final int MAX_CACHED_SQL_LENGTH = 2048;
+
+	private static final LRUCache<String, String> FINGERPRINTS = new LRUCache<>(MAX_FINGERPRINTS);
+
 	/**
 	 * Validates that specified string is not empty and does not contain <code>`</code> characters.
 	 * @param s String to be validated.
@@ -36,6 +54,78 @@ public final class SQLUtil {
 		}
 	}
 
+	/**
+	 * @param database Database name, may be null.
+	 * @param table Table name.
+	 * @return Table name qualified with the database name, if it is specified.
+	 */
+	public static String qualifiedName(String database, @NonNull String table) {
+		return database == null ? table : database + "." + table;
+	}
+
+	/**
+	 * Normalizes SQL text so queries that differ only in literal values or in length of value lists have the same fingerprint:
+	 * literals are replaced with <code>?</code>, lists of placeholders with a single placeholder,
+	 * and lists of equal tuples, like rows of a multi-row <code>INSERT</code>, with a single tuple.
+	 * @param sql SQL text.
+	 * @return Fingerprint.
+	 */
+	public static String fingerprint(@NonNull String sql) {
+		if (sql.length() > MAX_CACHED_SQL_LENGTH) {
+			return computeFingerprint(sql);
+		}
+
+		String fingerprint = FINGERPRINTS.get(sql);
+
+		if (fingerprint == null) {
+			fingerprint = FINGERPRINTS.putIfAbsent(sql, computeFingerprint(sql));
+		}
+
+		return fingerprint;
+	}
+
+	/**
+	 * Estimates size of a parameter value when sent to the database. Strings are measured in UTF-8 bytes.
+	 * @param value Value, may be null.
+	 * @return Estimated size in bytes.
+	 */
+	public static long estimateSize(Object value) {
+		if (value instanceof CharSequence) {
+			return utf8Length((CharSequence) value);
+		} else if (value instanceof byte[]) {
+			return ((byte[]) value).length;
+		} else if (value == null) {
+			return 1;
+		}
+
+		return 8;
+	}
+
+	private static String computeFingerprint(@NonNull String sql) {
+		String fingerprint = LITERAL.matcher(sql).replaceAll("?");
+		fingerprint = PLACEHOLDER_LIST.matcher(fingerprint).replaceAll("?");
+		return TUPLE_LIST.matcher(fingerprint).replaceAll("($1)");
+	}
+
+	private static long utf8Length(@NonNull CharSequence s) {
+		long length = 0;
+
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800 || Character.isSurrogate(c)) {
+				// A surrogate pair is encoded as 4 bytes
+				length += 2;
+			} else {
+				length += 3;
+			}
+		}
+
+		return length;
+	}
+
 	private static int placeholderCount(@NonNull String expr) {
 		int count = 0;
 
@@ -0,0 +1,430 @@
+package me.saharnooby.lib.query;
+
+import lombok.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory JDBC stub for tests. Records executed statements with their parameters,
+ * returns configured rows from queries, counts opened and closed resources and can fail on demand.
+ * @author saharNooby
+ * @since 21:30 16.10.2026
+ */
+public final class StubDatabase {
+
+	/**
+	 * A single execution of a statement, or a single set of parameters of an executed batch.
+	 */
+	public static final class Execution {
+
+		public final String sql;
+		public final List<Object> params;
+		public final boolean batch;
+		public final int fetchSize;
+		public final int resultSetType;
+
+		Execution(String sql, List<Object> params, boolean batch, int fetchSize, int resultSetType) {
+			this.sql = sql;
+			this.params = Collections.unmodifiableList(params);
+			this.batch = batch;
+			this.fetchSize = fetchSize;
+			this.resultSetType = resultSetType;
+		}
+
+		@Override
+		public String toString() {
+			return this.sql + " " + this.params;
+		}
+
+	}
+
+	private final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+	private volatile String[] labels = {"value"};
+	private volatile Function<Execution, List<Object[]>> rows = execution -> Collections.emptyList();
+	private volatile Predicate<Execution> failure = execution -> false;
+	private volatile boolean failSetAutoCommit;
+	private volatile Runnable commitListener = () -> {};
+
+	public final AtomicInteger connectionsOpened = new AtomicInteger();
+	public final AtomicInteger connectionsClosed = new AtomicInteger();
+	public final AtomicInteger statementsPrepared = new AtomicInteger();
+	public final AtomicInteger statementsClosed = new AtomicInteger();
+	public final AtomicInteger resultSetsClosed = new AtomicInteger();
+	public final AtomicInteger commits = new AtomicInteger();
+	public final AtomicInteger rollbacks = new AtomicInteger();
+
+	/**
+	 * Sets column labels of returned result sets.
+	 * @param labels Labels.
+	 * @return This object.
+	 */
+	public StubDatabase columns(@NonNull String... labels) {
+		this.labels = labels.clone();
+		return this;
+	}
+
+	/**
+	 * Makes every query return the same rows.
+	 * @param rows Rows, each array has a value for each column.
+	 * @return This object.
+	 */
+	public StubDatabase rows(@NonNull Object[]... rows) {
+		List<Object[]> list = Arrays.asList(rows);
+		return rows(execution -> list);
+	}
+
+	/**
+	 * Makes queries return rows computed from the execution.
+	 * @param rows Function returning rows for an execution.
+	 * @return This object.
+	 */
+	public StubDatabase rows(@NonNull Function<Execution, List<Object[]>> rows) {
+		this.rows = rows;
+		return this;
+	}
+
+	/**
+	 * Makes executions matching the predicate throw an {@link SQLException}. Failed executions are still recorded.
+	 * @param failure Predicate.
+	 * @return This object.
+	 */
+	public StubDatabase failWhen(@NonNull Predicate<Execution> failure) {
+		this.failure = failure;
+		return this;
+	}
+
+	/**
+	 * Makes <code>setAutoCommit(true)</code> throw an {@link SQLException}, like when restoring the connection state fails.
+	 * @param fail True to fail.
+	 * @return This object.
+	 */
+	public StubDatabase failSetAutoCommit(boolean fail) {
+		this.failSetAutoCommit = fail;
+		return this;
+	}
+
+	/**
+	 * Sets an action which is run when a transaction is committed, before the commit is counted.
+	 * @param listener Action.
+	 * @return This object.
+	 */
+	public StubDatabase onCommit(@NonNull Runnable listener) {
+		this.commitListener = listener;
+		return this;
+	}
+
+	/**
+	 * @return Recorded executions, in order of execution.
+	 */
+	public List<Execution> getExecutions() {
+		return new ArrayList<>(this.executions);
+	}
+
+	/**
+	 * @return SQL text of recorded executions.
+	 */
+	public List<String> getSQL() {
+		List<String> list = new ArrayList<>();
+		for (Execution execution : this.executions) {
+			list.add(execution.sql);
+		}
+		return list;
+	}
+
+	/**
+	 * @return A data source opening a new stub connection on every call.
+	 */
+	public DataSource dataSource() {
+		return proxy(DataSource.class, (proxy, method, args) -> {
+			if (method.getName().equals("getConnection")) {
+				return connection();
+			}
+
+			return objectMethod(proxy, method, args);
+		});
+	}
+
+	/**
+	 * @return A new stub connection.
+	 */
+	public Connection connection() {
+		this.connectionsOpened.incrementAndGet();
+
+		boolean[] state = {true, false}; // auto-commit, closed
+
+		return proxy(Connection.class, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "prepareStatement":
+					this.statementsPrepared.incrementAndGet();
+					int type = args.length >= 3 && args[1] instanceof Integer ? (Integer) args[1] : ResultSet.TYPE_FORWARD_ONLY;
+					return statement((Connection) proxy, (String) args[0], type);
+				case "getAutoCommit":
+					return state[0];
+				case "setAutoCommit":
+					if (this.failSetAutoCommit && (Boolean) args[0]) {
+						throw new SQLException("setAutoCommit failed");
+					}
+					if ((Boolean) args[0] && !state[0]) {
+						this.commitListener.run();
+						this.commits.incrementAndGet();
+					}
+					state[0] = (Boolean) args[0];
+					return null;
+				case "commit":
+					this.commitListener.run();
+					this.commits.incrementAndGet();
+					return null;
+				case "rollback":
+					this.rollbacks.incrementAndGet();
+					return null;
+				case "close":
+					if (!state[1]) {
+						state[1] = true;
+						this.connectionsClosed.incrementAndGet();
+					}
+					return null;
+				case "isClosed":
+					return state[1];
+				default:
+					return objectMethod(proxy, method, args);
+			}
+		});
+	}
+
+	private PreparedStatement statement(Connection connection, String sql, int resultSetType) {
+		Map<Integer, Object> params = new TreeMap<>();
+		List<List<Object>> batch = new ArrayList<>();
+		int[] fetchSize = {0};
+		boolean[] closed = {false};
+
+		return proxy(PreparedStatement.class, (proxy, method, args) -> {
+			String name = method.getName();
+
+			if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+				params.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+				return null;
+			}
+
+			switch (name) {
+				case "setFetchSize":
+					fetchSize[0] = (Integer) args[0];
+					return null;
+				case "getFetchSize":
+					return fetchSize[0];
+				case "clearParameters":
+					params.clear();
+					return null;
+				case "addBatch":
+					batch.add(new ArrayList<>(params.values()));
+					return null;
+				case "clearBatch":
+					batch.clear();
+					return null;
+				case "executeBatch": {
+					int[] counts = new int[batch.size()];
+					List<List<Object>> sets = new ArrayList<>(batch);
+					batch.clear();
+					for (int i = 0; i < sets.size(); i++) {
+						execute(new Execution(sql, sets.get(i), true, fetchSize[0], resultSetType));
+						counts[i] = 1;
+					}
+					return counts;
+				}
+				case "executeQuery": {
+					Execution execution = new Execution(sql, new ArrayList<>(params.values()), false, fetchSize[0], resultSetType);
+					execute(execution);
+					return resultSet((PreparedStatement) proxy, this.labels, this.rows.apply(execution));
+				}
+				case "executeUpdate":
+				case "executeLargeUpdate":
+					execute(new Execution(sql, new ArrayList<>(params.values()), false, fetchSize[0], resultSetType));
+					return name.equals("executeUpdate") ? (Object) 1 : (Object) 1L;
+				case "execute":
+					execute(new Execution(sql, new ArrayList<>(params.values()), false, fetchSize[0], resultSetType));
+					return false;
+				case "getGeneratedKeys":
+					return resultSet((PreparedStatement) proxy, new String[] {"GENERATED_KEY"}, Collections.emptyList());
+				case "getConnection":
+					return connection;
+				case "close":
+					if (!closed[0]) {
+						closed[0] = true;
+						this.statementsClosed.incrementAndGet();
+					}
+					return null;
+				case "isClosed":
+					return closed[0];
+				default:
+					return objectMethod(proxy, method, args);
+			}
+		});
+	}
+
+	private void execute(Execution execution) throws SQLException {
+		this.executions.add(execution);
+
+		if (this.failure.test(execution)) {
+			throw new SQLException("Injected failure: " + execution.sql);
+		}
+	}
+
+	private ResultSet resultSet(PreparedStatement statement, String[] labels, List<Object[]> rows) {
+		int[] row = {0};
+		boolean[] state = {false, false}; // was null, closed
+
+		ResultSetMetaData meta = proxy(ResultSetMetaData.class, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "getColumnCount":
+					return labels.length;
+				case "getColumnLabel":
+				case "getColumnName":
+					return labels[(Integer) args[0] - 1];
+				default:
+					return objectMethod(proxy, method, args);
+			}
+		});
+
+		return proxy(ResultSet.class, (proxy, method, args) -> {
+			String name = method.getName();
+
+			switch (name) {
+				case "next":
+					return ++row[0] <= rows.size();
+				case "getRow":
+					return row[0] <= rows.size() ? row[0] : 0;
+				case "getMetaData":
+					return meta;
+				case "findColumn":
+					return findColumn(labels, (String) args[0]);
+				case "wasNull":
+					return state[0];
+				case "getStatement":
+					return statement;
+				case "close":
+					if (!state[1]) {
+						state[1] = true;
+						this.resultSetsClosed.incrementAndGet();
+					}
+					return null;
+				case "isClosed":
+					return state[1];
+				default:
+					break;
+			}
+
+			if (name.startsWith("get") && args != null && args.length >= 1 && (args[0] instanceof Integer || args[0] instanceof String)) {
+				if (row[0] < 1 || row[0] > rows.size()) {
+					throw new SQLException("No current row");
+				}
+
+				int column = args[0] instanceof Integer ? (Integer) args[0] : findColumn(labels, (String) args[0]);
+				Object value = rows.get(row[0] - 1)[column - 1];
+				state[0] = value == null;
+				return convert(value, method.getReturnType());
+			}
+
+			return objectMethod(proxy, method, args);
+		});
+	}
+
+	private static int findColumn(String[] labels, String label) throws SQLException {
+		for (int i = 0; i < labels.length; i++) {
+			if (labels[i].equalsIgnoreCase(label)) {
+				return i + 1;
+			}
+		}
+
+		throw new SQLException("Unknown column " + label);
+	}
+
+	private static Object convert(Object value, Class<?> type) {
+		if (value == null) {
+			return defaultValue(type);
+		}
+
+		if (type == Object.class || type.isInstance(value)) {
+			return value;
+		}
+
+		if (type == String.class) {
+			return value.toString();
+		}
+
+		if (value instanceof Number) {
+			Number number = (Number) value;
+
+			if (type == int.class) {
+				return number.intValue();
+			} else if (type == long.class) {
+				return number.longValue();
+			} else if (type == double.class) {
+				return number.doubleValue();
+			} else if (type == float.class) {
+				return number.floatValue();
+			} else if (type == short.class) {
+				return number.shortValue();
+			} else if (type == byte.class) {
+				return number.byteValue();
+			} else if (type == boolean.class) {
+				return number.intValue() != 0;
+			}
+		}
+
+		return value;
+	}
+
+	private static Object objectMethod(Object proxy, Method method, Object[] args) {
+		switch (method.getName()) {
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "Stub" + proxy.getClass().getInterfaces()[0].getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+			default:
+				return defaultValue(method.getReturnType());
+		}
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		} else if (type == boolean.class) {
+			return false;
+		} else if (type == long.class) {
+			return 0L;
+		} else if (type == double.class) {
+			return 0D;
+		} else if (type == float.class) {
+			return 0F;
+		} else if (type == short.class) {
+			return (short) 0;
+		} else if (type == byte.class) {
+			return (byte) 0;
+		} else if (type == char.class) {
+			return (char) 0;
+		}
+
+		return 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(StubDatabase.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+}
@@ -0,0 +1,56 @@
+package me.saharnooby.lib.query.batch;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author saharNooby
+ * @since 23:25 16.10.2026
+ */
+class BatchBuilderTest {
+
+	@Test
+	void testColumns() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		BatchBuilder batch = new BatchBuilder();
+		List<List<Object>> expected = new ArrayList<>();
+
+		// The second column falls back to boxed values after a string is added, nulls are stored in bitmaps of primitive columns
+		for (int i = 0; i < 100; i++) {
+			Object a = (long) i;
+			Object b = i == 70 ? "x" : i % 3 == 0 ? null : (Object) i;
+			Object c = i % 5 == 0 ? null : (Object) (i * 0.5);
+			Object d = null;
+
+			batch.add(Query.insertInto("t").valueExpr("a", "?", a).valueExpr("b", "?", b).valueExpr("c", "?", c).valueExpr("d", "?", d));
+			expected.add(Arrays.asList(a, b, c, d));
+		}
+
+		Assertions.assertEquals(100, batch.execute(db.dataSource()).length);
+		Assertions.assertEquals(100, db.getExecutions().size());
+
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertEquals(expected.get(i), db.getExecutions().get(i).params);
+		}
+	}
+
+	@Test
+	void testInvalidQueries() {
+		BatchBuilder batch = new BatchBuilder().add(Query.insertInto("t").value("a", 1));
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> batch.add(Query.insertInto("t").value("b", 1)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new BatchBuilder().add(Query.deleteFrom("t").whereIn("a", Arrays.asList(1, 2, 3), 2)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ChunkedBatch(new StubDatabase().connection()).add(Query.deleteFrom("t").whereIn("a", Arrays.asList(1, 2, 3), 2)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GroupedBatchBuilder().add(Query.deleteFrom("t").whereIn("a", Arrays.asList(1, 2, 3), 2)));
+
+		Assertions.assertEquals(1, batch.size());
+	}
+
+}
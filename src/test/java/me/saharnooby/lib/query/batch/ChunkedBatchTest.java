@@ -0,0 +1,141 @@
+package me.saharnooby.lib.query.batch;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.Select;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * @author saharNooby
+ * @since 22:50 16.10.2026
+ */
+class ChunkedBatchTest {
+
+	@Test
+	void testChunkRows() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		List<ChunkStats> stats = new ArrayList<>();
+		BatchResult result;
+
+		try (ChunkedBatch batch = new ChunkedBatch(db.connection()).chunkRows(2).onChunk(stats::add)) {
+			batch.addAll(IntStream.range(0, 5).mapToObj(i -> Query.insertInto("t").value("a", i)));
+
+			Assertions.assertEquals(2, stats.size());
+
+			result = batch.finish();
+		}
+
+		Assertions.assertEquals(3, stats.size());
+		Assertions.assertEquals(Arrays.asList(2, 2, 1), Arrays.asList(stats.get(0).getRows(), stats.get(1).getRows(), stats.get(2).getRows()));
+		Assertions.assertEquals(5, result.getRows());
+		Assertions.assertEquals(5, result.getUpdateCount());
+		Assertions.assertEquals(3, result.getChunks());
+		Assertions.assertEquals(5, db.getExecutions().size());
+		Assertions.assertEquals(1, db.statementsPrepared.get());
+	}
+
+	@Test
+	void testChunkBytes() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		List<ChunkStats> stats = new ArrayList<>();
+
+		try (ChunkedBatch batch = new ChunkedBatch(db.connection()).chunkBytes(10).onChunk(stats::add)) {
+			batch.add(Query.insertInto("t").value("a", "1234"));
+			batch.add(Query.insertInto("t").value("a", "123456"));
+			batch.add(Query.insertInto("t").value("a", "1"));
+			batch.finish();
+		}
+
+		Assertions.assertEquals(2, stats.size());
+		Assertions.assertEquals(2, stats.get(0).getRows());
+		Assertions.assertEquals(10, stats.get(0).getBytes());
+		Assertions.assertEquals(1, stats.get(1).getRows());
+	}
+
+	@Test
+	void testDifferentSQL() throws SQLException {
+		try (ChunkedBatch batch = new ChunkedBatch(new StubDatabase().connection())) {
+			batch.add(Query.insertInto("t").value("a", 1));
+
+			Assertions.assertThrows(IllegalArgumentException.class, () -> batch.add(Query.insertInto("t").value("b", 1)));
+		}
+	}
+
+	@Test
+	void testFailedChunkIsDiscarded() throws SQLException {
+		StubDatabase db = new StubDatabase().failWhen(execution -> execution.params.contains(1));
+		List<ChunkStats> stats = new ArrayList<>();
+		BatchResult result;
+
+		try (ChunkedBatch batch = new ChunkedBatch(db.connection()).chunkRows(2).onChunk(stats::add)) {
+			batch.add(Query.insertInto("t").value("a", 0));
+
+			Assertions.assertThrows(SQLException.class, () -> batch.add(Query.insertInto("t").value("a", 1)));
+
+			// The failed chunk is not counted in the next one
+			batch.add(Query.insertInto("t").value("a", 2));
+			result = batch.finish();
+		}
+
+		Assertions.assertEquals(1, stats.size());
+		Assertions.assertEquals(1, stats.get(0).getRows());
+		Assertions.assertEquals(1, result.getRows());
+		Assertions.assertEquals(1, result.getChunks());
+	}
+
+	@Test
+	void testCommitPerChunk() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+
+		try (ChunkedBatch batch = new ChunkedBatch(con).chunkRows(2).commitPerChunk()) {
+			batch.addAll(IntStream.range(0, 3).mapToObj(i -> Query.insertInto("t").value("a", i)));
+
+			Assertions.assertFalse(con.getAutoCommit());
+			Assertions.assertEquals(1, db.commits.get());
+		}
+
+		// The last row was not flushed, so it is rolled back
+		Assertions.assertTrue(con.getAutoCommit());
+		Assertions.assertEquals(1, db.rollbacks.get());
+		Assertions.assertEquals(1, db.statementsClosed.get());
+	}
+
+	@Test
+	void testResultsCachedBeforeCommitAreInvalidated() throws SQLException {
+		StubDatabase db = new StubDatabase().rows(new Object[] {1});
+		Select select = Query.select("value").from("chunked_commit").cacheResults(new QueryResultCache());
+		ResultSetMapper<Object> mapper = set -> set.getObject(1);
+
+		// A concurrent reader caches the table once, between execution of the chunk and the commit
+		db.onCommit(() -> {
+			db.onCommit(() -> {});
+
+			try {
+				select.queryAndMapAll(db.dataSource(), mapper);
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		try (ChunkedBatch batch = new ChunkedBatch(db.connection()).commitPerChunk()) {
+			batch.add(Query.insertInto("chunked_commit").value("value", 2));
+			batch.finish();
+		}
+
+		int executions = db.getExecutions().size();
+		select.queryAndMapAll(db.dataSource(), mapper);
+		Assertions.assertEquals(executions + 1, db.getExecutions().size());
+	}
+
+}
@@ -0,0 +1,103 @@
+package me.saharnooby.lib.query.batch;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * @author saharNooby
+ * @since 23:10 16.10.2026
+ */
+class GroupedBatchBuilderTest {
+
+	private static GroupedBatchBuilder interleaved() {
+		return new GroupedBatchBuilder()
+				.add(Query.insertInto("a").value("x", 1))
+				.add(Query.insertInto("b").value("x", 2))
+				.add(Query.insertInto("a").value("x", 3))
+				.add(Query.insertInto("a").value("x", 4))
+				.add(Query.insertInto("b").value("x", 5));
+	}
+
+	private static String executed(StubDatabase db) {
+		return db.getExecutions().stream().map(e -> e.params.get(0).toString()).collect(Collectors.joining(","));
+	}
+
+	@Test
+	void testGrouping() throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		int[] counts = interleaved().execute(db.dataSource());
+
+		Assertions.assertArrayEquals(new int[] {1, 1, 1, 1, 1}, counts);
+		Assertions.assertEquals("1,3,4,2,5", executed(db));
+		Assertions.assertEquals(2, db.statementsPrepared.get());
+		// The stub counts restoring auto-commit as a commit too
+		Assertions.assertEquals(2, db.commits.get());
+		Assertions.assertEquals(0, db.rollbacks.get());
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testPreserveOrder() throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		interleaved().preserveOrder().execute(db.dataSource());
+
+		Assertions.assertEquals("1,2,3,4,5", executed(db));
+		// Statements are reused across runs
+		Assertions.assertEquals(2, db.statementsPrepared.get());
+		Assertions.assertEquals(2, db.statementsClosed.get());
+	}
+
+	@Test
+	void testRollback() throws SQLException {
+		StubDatabase db = new StubDatabase().failWhen(e -> e.params.contains(5));
+		Connection con = db.connection();
+
+		Assertions.assertThrows(SQLException.class, () -> interleaved().execute(con));
+
+		Assertions.assertEquals(1, db.rollbacks.get());
+		Assertions.assertTrue(con.getAutoCommit());
+	}
+
+	@Test
+	void testRestoreFailureIsSuppressed() {
+		StubDatabase db = new StubDatabase().failWhen(e -> e.params.contains(5)).failSetAutoCommit(true);
+
+		SQLException e = Assertions.assertThrows(SQLException.class, () -> interleaved().execute(db.connection()));
+
+		Assertions.assertTrue(e.getMessage().startsWith("Injected failure"), e.getMessage());
+		Assertions.assertEquals(1, e.getSuppressed().length);
+		Assertions.assertEquals("setAutoCommit failed", e.getSuppressed()[0].getMessage());
+	}
+
+	@Test
+	void testRestoreFailureAfterSuccess() {
+		StubDatabase db = new StubDatabase().failSetAutoCommit(true);
+
+		SQLException e = Assertions.assertThrows(SQLException.class, () -> interleaved().execute(db.connection()));
+
+		Assertions.assertEquals("setAutoCommit failed", e.getMessage());
+	}
+
+	@Test
+	void testExistingTransaction() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+		con.setAutoCommit(false);
+
+		interleaved().execute(con);
+
+		Assertions.assertFalse(con.getAutoCommit());
+		Assertions.assertEquals(0, db.commits.get());
+		Assertions.assertEquals(Arrays.asList("a", "a", "a", "b", "b"), db.getSQL().stream().map(sql -> sql.contains("`a`") ? "a" : "b").collect(Collectors.toList()));
+	}
+
+}
@@ -0,0 +1,145 @@
+package me.saharnooby.lib.query.batch;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.Select;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * @author saharNooby
+ * @since 23:40 16.10.2026
+ */
+class ParallelBatchTest {
+
+	private static ParallelBatch batch(int partitions, int queries) {
+		ParallelBatch batch = new ParallelBatch(partitions);
+
+		for (int i = 0; i < queries; i++) {
+			batch.add(Query.insertInto("t").value("a", i));
+		}
+
+		return batch;
+	}
+
+	@Test
+	void testPartitions() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+
+		try {
+			ParallelBatchResult result = batch(3, 7).executor(executor).execute(db.dataSource()).throwIfFailed();
+
+			Assertions.assertEquals(3, result.getPartitionCount());
+			Assertions.assertEquals(7, result.getUpdateCount());
+			Assertions.assertEquals(3, result.getCounts(0).length);
+			Assertions.assertEquals(2, result.getCounts(2).length);
+			Assertions.assertEquals(3, db.connectionsClosed.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testKeys() {
+		StubDatabase db = new StubDatabase();
+		ParallelBatch batch = new ParallelBatch(4).executor(Runnable::run);
+
+		for (int i = 0; i < 6; i++) {
+			batch.add(i % 2, Query.insertInto("t").value("a", i));
+		}
+
+		ParallelBatchResult result = batch.execute(db.dataSource());
+
+		// Only two partitions are used, and each of them gets a connection
+		Assertions.assertEquals(3, result.getCounts(0).length);
+		Assertions.assertEquals(3, result.getCounts(1).length);
+		Assertions.assertEquals(0, result.getCounts(2).length);
+		Assertions.assertEquals(2, db.connectionsOpened.get());
+		Assertions.assertEquals("[0, 2, 4, 1, 3, 5]", db.getExecutions().stream().map(e -> e.params.get(0)).collect(Collectors.toList()).toString());
+	}
+
+	@Test
+	void testFailedPartition() {
+		StubDatabase db = new StubDatabase().failWhen(e -> e.params.contains(4));
+
+		ParallelBatchResult result = batch(3, 6).executor(Runnable::run).execute(db.dataSource());
+
+		Assertions.assertFalse(result.isSuccessful());
+		Assertions.assertEquals(1, result.getFailures().size());
+		Assertions.assertTrue(result.getFailures().get(1) instanceof SQLException);
+		Assertions.assertEquals(0, result.getCounts(1).length);
+		Assertions.assertEquals(4, result.getUpdateCount());
+		Assertions.assertEquals(1, db.rollbacks.get());
+		Assertions.assertThrows(SQLException.class, result::throwIfFailed);
+	}
+
+	@Test
+	void testRestoreFailureIsSuppressed() {
+		StubDatabase db = new StubDatabase().failWhen(e -> e.params.contains(4)).failSetAutoCommit(true);
+
+		ParallelBatchResult result = batch(3, 6).executor(Runnable::run).execute(db.dataSource());
+
+		// The partition failed by the batch reports the batch error, partitions that succeeded report the restore error
+		Exception e = result.getFailures().get(1);
+
+		Assertions.assertTrue(e.getMessage().startsWith("Injected failure"), e.getMessage());
+		Assertions.assertEquals(1, e.getSuppressed().length);
+		Assertions.assertEquals("setAutoCommit failed", e.getSuppressed()[0].getMessage());
+		Assertions.assertEquals("setAutoCommit failed", result.getFailures().get(0).getMessage());
+	}
+
+	@Test
+	void testRejectedPartition() {
+		StubDatabase db = new StubDatabase();
+		AtomicInteger submitted = new AtomicInteger();
+
+		ParallelBatchResult result = batch(3, 6).executor(task -> {
+			if (submitted.incrementAndGet() == 2) {
+				throw new RejectedExecutionException();
+			}
+
+			task.run();
+		}).execute(db.dataSource());
+
+		// Other partitions are still executed
+		Assertions.assertEquals(1, result.getFailures().size());
+		Assertions.assertTrue(result.getFailures().get(1) instanceof RejectedExecutionException);
+		Assertions.assertEquals(4, result.getUpdateCount());
+		Assertions.assertEquals(2, db.connectionsOpened.get());
+	}
+
+	@Test
+	void testResultsCachedBeforeCommitAreInvalidated() throws SQLException {
+		StubDatabase db = new StubDatabase().rows(new Object[] {1});
+		Select select = Query.select("value").from("parallel_commit").cacheResults(new QueryResultCache());
+		ResultSetMapper<Object> mapper = set -> set.getObject(1);
+
+		// A concurrent reader caches the table once, between execution of the partition and the commit
+		db.onCommit(() -> {
+			db.onCommit(() -> {});
+
+			try {
+				select.queryAndMapAll(db.dataSource(), mapper);
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		new ParallelBatch(1).executor(Runnable::run).add(Query.insertInto("parallel_commit").value("value", 2)).execute(db.dataSource()).throwIfFailed();
+
+		int executions = db.getExecutions().size();
+		select.queryAndMapAll(db.dataSource(), mapper);
+		Assertions.assertEquals(executions + 1, db.getExecutions().size());
+	}
+
+}
@@ -0,0 +1,278 @@
+package me.saharnooby.lib.query.batch;
+
+import me.saharnooby.lib.query.StubDatabase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * @author saharNooby
+ * @since 23:30 16.10.2026
+ */
+class WriteBehindBufferTest {
+
+	private static final Executor DIRECT = Runnable::run;
+
+	private static WriteBehindBuffer buffer(StubDatabase db) {
+		return new WriteBehindBuffer(db.dataSource(), "views")
+				.keys("id")
+				.columns("count", "name")
+				.sum("count")
+				.flushEvery(Duration.ZERO)
+				.executor(DIRECT);
+	}
+
+	/**
+	 * @return Rows of the last execution, by key.
+	 */
+	private static Map<Object, List<Object>> lastRows(StubDatabase db) {
+		List<StubDatabase.Execution> executions = db.getExecutions();
+		List<Object> params = executions.get(executions.size() - 1).params;
+		Map<Object, List<Object>> rows = new HashMap<>();
+
+		for (int i = 0; i < params.size(); i += 3) {
+			rows.put(params.get(i), params.subList(i + 1, i + 3));
+		}
+
+		return rows;
+	}
+
+	@Test
+	void testMergingAndSumming() throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		try (WriteBehindBuffer buffer = buffer(db).merge("name", (a, b) -> a + "," + b).start()) {
+			buffer.put(1, 1, "a");
+			buffer.put(1, 2, "b");
+			buffer.put(2, 5, "c");
+
+			Assertions.assertEquals(2, buffer.getBufferedRowCount());
+			Assertions.assertTrue(db.getExecutions().isEmpty());
+
+			Assertions.assertEquals(2, buffer.flush());
+			Assertions.assertEquals(0, buffer.flush());
+
+			Assertions.assertEquals(3, buffer.getWriteCount());
+			Assertions.assertEquals(2, buffer.getFlushedRowCount());
+			Assertions.assertEquals(0, buffer.getBufferedRowCount());
+		}
+
+		Assertions.assertEquals(1, db.getExecutions().size());
+		Assertions.assertTrue(db.getSQL().get(0).contains("`count` = `count` + VALUES(`count`)"), db.getSQL().get(0));
+
+		Map<Object, List<Object>> rows = lastRows(db);
+
+		Assertions.assertEquals(Arrays.asList(3L, "a,b"), rows.get(1));
+		Assertions.assertEquals(Arrays.asList(5, "c"), rows.get(2));
+	}
+
+	@Test
+	void testFlushAt() throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		try (WriteBehindBuffer buffer = buffer(db).flushAt(2).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertTrue(db.getExecutions().isEmpty());
+
+			// The flush is run on the direct executor
+			buffer.put(2, 1, "b");
+
+			Assertions.assertEquals(1, db.getExecutions().size());
+			Assertions.assertEquals(0, buffer.getBufferedRowCount());
+		}
+	}
+
+	@Test
+	void testBackpressure() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		List<Runnable> flushes = new ArrayList<>();
+
+		try (WriteBehindBuffer buffer = buffer(db).executor(flushes::add).maxRows(2).maxWait(Duration.ofMillis(50)).start()) {
+			buffer.put(1, 1, "a");
+			buffer.put(2, 1, "b");
+
+			// Merging into a buffered row does not need space
+			buffer.put(1, 1, "c");
+
+			Assertions.assertThrows(IllegalStateException.class, () -> buffer.put(3, 1, "d"));
+			Assertions.assertEquals(2, buffer.getBufferedRowCount());
+
+			// A full buffer requests a flush, only once until it runs
+			Assertions.assertEquals(1, flushes.size());
+
+			flushes.get(0).run();
+
+			buffer.put(3, 1, "d");
+
+			Assertions.assertEquals(1, buffer.getBufferedRowCount());
+		}
+
+		Assertions.assertEquals(2, db.getExecutions().size());
+	}
+
+	@Test
+	void testMergeBackAfterFailure() throws SQLException {
+		boolean[] fail = {true};
+		StubDatabase db = new StubDatabase().failWhen(execution -> fail[0]);
+
+		try (WriteBehindBuffer buffer = buffer(db).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertThrows(SQLException.class, buffer::flush);
+			Assertions.assertEquals(1, db.rollbacks.get());
+			Assertions.assertEquals(1, buffer.getBufferedRowCount());
+
+			// Writes made after the failure are merged after the failed row
+			buffer.put(1, 2, "b");
+			buffer.put(2, 4, "c");
+
+			fail[0] = false;
+
+			Assertions.assertEquals(2, buffer.flush());
+			Assertions.assertEquals(0, buffer.getDroppedRowCount());
+		}
+
+		Map<Object, List<Object>> rows = lastRows(db);
+
+		Assertions.assertEquals(Arrays.asList(3L, "b"), rows.get(1));
+		Assertions.assertEquals(Arrays.asList(4, "c"), rows.get(2));
+	}
+
+	@Test
+	void testDropAfterMaxAttempts() throws SQLException {
+		boolean[] fail = {true};
+		StubDatabase db = new StubDatabase().failWhen(execution -> fail[0]);
+		List<Object[]> dropped = new ArrayList<>();
+
+		try (WriteBehindBuffer buffer = buffer(db).maxAttempts(2).onDrop(dropped::add).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertThrows(SQLException.class, buffer::flush);
+			Assertions.assertTrue(dropped.isEmpty());
+
+			buffer.put(2, 1, "b");
+
+			Assertions.assertThrows(SQLException.class, buffer::flush);
+
+			// The first row failed twice, the second row only once
+			Assertions.assertEquals(1, dropped.size());
+			Assertions.assertArrayEquals(new Object[] {1, 1, "a"}, dropped.get(0));
+			Assertions.assertEquals(1, buffer.getDroppedRowCount());
+			Assertions.assertEquals(1, buffer.getBufferedRowCount());
+
+			// A successful flush resets attempts of its rows
+			fail[0] = false;
+			Assertions.assertEquals(1, buffer.flush());
+
+			fail[0] = true;
+			buffer.put(2, 1, "c");
+			Assertions.assertThrows(SQLException.class, buffer::flush);
+			Assertions.assertEquals(1, buffer.getDroppedRowCount());
+
+			fail[0] = false;
+		}
+	}
+
+	@Test
+	void testBackgroundErrors() throws SQLException {
+		boolean[] fail = {true};
+		StubDatabase db = new StubDatabase().failWhen(execution -> fail[0]);
+		List<Throwable> errors = new ArrayList<>();
+
+		try (WriteBehindBuffer buffer = buffer(db).flushAt(1).onError(errors::add).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertEquals(1, buffer.getErrorCount());
+			Assertions.assertEquals(1, errors.size());
+			Assertions.assertTrue(errors.get(0) instanceof SQLException);
+			Assertions.assertEquals(1, buffer.getBufferedRowCount());
+
+			fail[0] = false;
+		}
+
+		// Without a handler, errors are counted
+		fail[0] = true;
+
+		try (WriteBehindBuffer buffer = buffer(db).flushAt(1).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertEquals(1, buffer.getErrorCount());
+
+			fail[0] = false;
+		}
+	}
+
+	@Test
+	void testRetryDelay() throws SQLException {
+		boolean[] fail = {true};
+		StubDatabase db = new StubDatabase().failWhen(execution -> fail[0]);
+
+		try (WriteBehindBuffer buffer = buffer(db).flushAt(1).retryDelay(Duration.ofHours(1)).start()) {
+			buffer.put(1, 1, "a");
+
+			Assertions.assertEquals(1, buffer.getErrorCount());
+
+			// Background flushes are delayed after the failure, so attempts are not used up
+			buffer.put(2, 1, "b");
+
+			Assertions.assertEquals(1, db.getExecutions().size());
+			Assertions.assertEquals(2, buffer.getBufferedRowCount());
+
+			// Explicit flushes are not delayed, and a successful flush resets the delay
+			fail[0] = false;
+			Assertions.assertEquals(2, buffer.flush());
+
+			buffer.put(3, 1, "c");
+
+			Assertions.assertEquals(3, db.getExecutions().size());
+			Assertions.assertEquals(0, buffer.getBufferedRowCount());
+		}
+	}
+
+	@Test
+	void testRestoreFailureIsSuppressed() throws SQLException {
+		boolean[] fail = {true};
+		StubDatabase db = new StubDatabase().failWhen(execution -> fail[0]).failSetAutoCommit(true);
+
+		try (WriteBehindBuffer buffer = buffer(db).start()) {
+			buffer.put(1, 1, "a");
+
+			SQLException e = Assertions.assertThrows(SQLException.class, buffer::flush);
+
+			Assertions.assertTrue(e.getMessage().startsWith("Injected failure"));
+			Assertions.assertEquals("setAutoCommit failed", e.getSuppressed()[0].getMessage());
+
+			fail[0] = false;
+			db.failSetAutoCommit(false);
+		}
+	}
+
+	@Test
+	void testClose() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		WriteBehindBuffer buffer = buffer(db);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> buffer.put(1, 1, "a"));
+
+		buffer.start();
+		buffer.put(1, 1, "a");
+		buffer.close();
+
+		// Closing flushes buffered rows
+		Assertions.assertEquals(1, db.getExecutions().size());
+		Assertions.assertEquals(1, buffer.getFlushedRowCount());
+
+		Assertions.assertThrows(IllegalStateException.class, () -> buffer.put(2, 1, "b"));
+		Assertions.assertThrows(IllegalStateException.class, () -> buffer.maxRows(10));
+
+		buffer.close();
+
+		Assertions.assertEquals(1, db.getExecutions().size());
+	}
+
+}
@@ -0,0 +1,163 @@
+package me.saharnooby.lib.query.bind;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.batch.BatchBuilder;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author saharNooby
+ * @since 23:50 16.10.2026
+ */
+class BindersTest {
+
+	private interface Named {
+
+		String name();
+
+	}
+
+	private static class Base implements Named {
+
+		@Override
+		public String name() {
+			return "base";
+		}
+
+	}
+
+	private static final class Derived extends Base {
+
+	}
+
+	private static final class Other implements Named {
+
+		@Override
+		public String name() {
+			return "other";
+		}
+
+	}
+
+	/**
+	 * @return Parameters bound by the binders.
+	 */
+	private static List<Object> bind(Object... values) throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		try (PreparedStatement s = db.connection().prepareStatement("INSERT;")) {
+			for (int i = 0; i < values.length; i++) {
+				Binders.bind(s, i + 1, values[i]);
+			}
+
+			s.executeUpdate();
+		}
+
+		return db.getExecutions().get(0).params;
+	}
+
+	@Test
+	void testResolution() throws SQLException {
+		Binders.register(Base.class, (s, index, value) -> s.setString(index, "b:" + value.name()));
+		Binders.register(Named.class, (s, index, value) -> s.setString(index, "n:" + value.name()));
+
+		try {
+			// Superclasses are checked before interfaces
+			Assertions.assertEquals(Arrays.asList("b:base", "b:base", "n:other", 1L, null), bind(new Base(), new Derived(), new Other(), 1L, null));
+		} finally {
+			Binders.unregister(Base.class);
+			Binders.unregister(Named.class);
+		}
+
+		Derived derived = new Derived();
+
+		Assertions.assertEquals(Arrays.asList(derived, "a"), bind(derived, "a"));
+	}
+
+	@Test
+	void testRegisterReplacesResolvedBinders() throws SQLException {
+		Assertions.assertTrue(Binders.isBuiltIn(Long.class));
+		Assertions.assertFalse(Binders.isBuiltIn(Other.class));
+		Assertions.assertEquals(Collections.singletonList(5L), bind(5L));
+
+		Binders.register(Long.class, (s, index, value) -> s.setString(index, "l" + value));
+
+		try {
+			Assertions.assertFalse(Binders.isBuiltIn(Long.class));
+			Assertions.assertEquals(Collections.singletonList("l5"), bind(5L));
+		} finally {
+			Binders.unregister(Long.class);
+		}
+
+		Assertions.assertTrue(Binders.isBuiltIn(Long.class));
+		Assertions.assertEquals(Collections.singletonList(5L), bind(5L));
+	}
+
+	@Test
+	void testConcurrentRegistration() throws Exception {
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+
+		// Resolves binders of the class while it is re-registered
+		Thread binder = new Thread(() -> {
+			try {
+				while (!stop.get()) {
+					bind(new Other());
+				}
+			} catch (Throwable t) {
+				error.set(t);
+			}
+		});
+
+		binder.start();
+
+		try {
+			for (int i = 0; i < 200; i++) {
+				String prefix = "v" + i + ":";
+				Binders.register(Other.class, (s, index, value) -> s.setString(index, prefix + value.name()));
+
+				// A registration is never lost to a concurrent lookup
+				Assertions.assertEquals(Collections.singletonList(prefix + "other"), bind(new Other()));
+			}
+		} finally {
+			stop.set(true);
+			binder.join(TimeUnit.SECONDS.toMillis(10));
+			Binders.unregister(Other.class);
+		}
+
+		Assertions.assertNull(error.get());
+	}
+
+	@Test
+	void testCustomBinderIsUsedByBatches() throws SQLException {
+		Assertions.assertTrue(Binders.isBuiltIn(Double.class));
+
+		Binders.register(Double.class, (s, index, value) -> s.setString(index, "d" + value));
+
+		try {
+			Assertions.assertFalse(Binders.isBuiltIn(Double.class));
+
+			// Batches bind values of classes with custom binders through the binders instead of binding them directly
+			StubDatabase db = new StubDatabase();
+			new BatchBuilder().add(Query.insertInto("t").value("a", 1.5)).add(Query.insertInto("t").valueExpr("a", "?", (Object) null)).execute(db.dataSource());
+
+			Assertions.assertEquals(Collections.singletonList("d1.5"), db.getExecutions().get(0).params);
+			Assertions.assertEquals(Collections.singletonList(null), db.getExecutions().get(1).params);
+		} finally {
+			Binders.unregister(Double.class);
+		}
+
+		Assertions.assertTrue(Binders.isBuiltIn(Double.class));
+	}
+
+}
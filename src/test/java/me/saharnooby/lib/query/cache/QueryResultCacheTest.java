@@ -0,0 +1,63 @@
+package me.saharnooby.lib.query.cache;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.Select;
+import me.saharnooby.lib.query.set.ResultSetMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+/**
+ * @author saharNooby
+ * @since 10:15 16.10.2026
+ */
+class QueryResultCacheTest {
+
+	private static final ResultSetMapper<Object> MAPPER = set -> set.getObject(1);
+
+	@Test
+	void testQualifiedNamesInvalidateEachOther() throws SQLException {
+		StubDatabase db = new StubDatabase().rows(new Object[] {1});
+		QueryResultCache cache = new QueryResultCache();
+		Select qualified = Query.select("value").from("db", "cache_names").cacheResults(cache);
+		Select unqualified = Query.select("value").from("cache_names").cacheResults(cache);
+
+		qualified.queryAndMapAll(db.dataSource(), MAPPER);
+		unqualified.queryAndMapAll(db.dataSource(), MAPPER);
+
+		Query.deleteFrom("cache_names").where("value", 1).update(db.dataSource());
+
+		qualified.queryAndMapAll(db.dataSource(), MAPPER);
+		Assertions.assertEquals(3, cache.getMisses());
+
+		Query.deleteFrom("db", "cache_names").where("value", 1).update(db.dataSource());
+
+		unqualified.queryAndMapAll(db.dataSource(), MAPPER);
+		Assertions.assertEquals(4, cache.getMisses());
+
+		// Names reported manually may be quoted and differ in case
+		QueryResultCache.invalidate("`DB`.`Cache_Names`");
+
+		qualified.queryAndMapAll(db.dataSource(), MAPPER);
+		unqualified.queryAndMapAll(db.dataSource(), MAPPER);
+		Assertions.assertEquals(6, cache.getMisses());
+		Assertions.assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	void testArrayParamsAreComparedByContent() throws SQLException {
+		StubDatabase db = new StubDatabase().rows(new Object[] {1});
+		QueryResultCache cache = new QueryResultCache();
+
+		Query.select("value").from("cache_arrays").where("hash", new byte[] {1, 2}).cacheResults(cache).queryAndMapAll(db.dataSource(), MAPPER);
+		Query.select("value").from("cache_arrays").where("hash", new byte[] {1, 2}).cacheResults(cache).queryAndMapAll(db.dataSource(), MAPPER);
+		Query.select("value").from("cache_arrays").where("hash", new byte[] {1, 3}).cacheResults(cache).queryAndMapAll(db.dataSource(), MAPPER);
+
+		Assertions.assertEquals(1, cache.getHits());
+		Assertions.assertEquals(2, cache.getMisses());
+		Assertions.assertEquals(2, db.getExecutions().size());
+	}
+
+}
@@ -0,0 +1,189 @@
+package me.saharnooby.lib.query.cache;
+
+import me.saharnooby.lib.query.StubDatabase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author saharNooby
+ * @since 21:45 16.10.2026
+ */
+class StatementCacheTest {
+
+	private static final int KEYS = PreparedStatement.NO_GENERATED_KEYS;
+
+	@Test
+	void testHitsAndMisses() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+		StatementCache cache = StatementCache.attach(con, 4);
+
+		try {
+			Assertions.assertSame(cache, StatementCache.forConnection(con));
+
+			for (int i = 0; i < 3; i++) {
+				try (PreparedStatement s = StatementCache.prepare(con, "SELECT 1;", KEYS)) {
+					s.setLong(1, i);
+					s.executeQuery().close();
+				}
+			}
+
+			Assertions.assertEquals(1, db.statementsPrepared.get());
+			Assertions.assertEquals(2, cache.getHits());
+			Assertions.assertEquals(1, cache.getMisses());
+			Assertions.assertEquals(1, cache.size());
+
+			// Parameters are cleared when a statement is returned to the cache
+			Assertions.assertEquals(Collections.singletonList(2L), db.getExecutions().get(2).params);
+
+			try (PreparedStatement s = StatementCache.prepare(con, "SELECT 1;", PreparedStatement.RETURN_GENERATED_KEYS)) {
+				Assertions.assertFalse(s.isClosed());
+			}
+
+			Assertions.assertEquals(2, cache.getMisses());
+			Assertions.assertEquals(2, cache.size());
+		} finally {
+			StatementCache.detach(con);
+		}
+
+		Assertions.assertNull(StatementCache.forConnection(con));
+		Assertions.assertEquals(2, db.statementsClosed.get());
+	}
+
+	@Test
+	void testEviction() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+		StatementCache cache = StatementCache.attach(con, 2);
+
+		try {
+			for (String sql : Arrays.asList("A", "B", "A", "C")) {
+				StatementCache.prepare(con, sql, KEYS).close();
+			}
+
+			// B is the least recently used statement
+			Assertions.assertEquals(2, cache.size());
+			Assertions.assertEquals(1, db.statementsClosed.get());
+
+			StatementCache.prepare(con, "A", KEYS).close();
+			StatementCache.prepare(con, "C", KEYS).close();
+
+			Assertions.assertEquals(3, db.statementsPrepared.get());
+		} finally {
+			cache.close();
+		}
+	}
+
+	@Test
+	void testNestedUse() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+		StatementCache cache = StatementCache.attach(con, 4);
+
+		try {
+			try (PreparedStatement outer = StatementCache.prepare(con, "SELECT 1;", KEYS)) {
+				outer.setInt(1, 1);
+
+				try (PreparedStatement inner = StatementCache.prepare(con, "SELECT 1;", KEYS)) {
+					inner.setInt(1, 2);
+					inner.executeQuery().close();
+				}
+
+				outer.executeQuery().close();
+			}
+
+			// The statement in use was not shared, so the outer query kept its parameters
+			Assertions.assertEquals(2, db.statementsPrepared.get());
+			Assertions.assertEquals(Collections.singletonList(2), db.getExecutions().get(0).params);
+			Assertions.assertEquals(Collections.singletonList(1), db.getExecutions().get(1).params);
+
+			// Only one idle statement is kept for the same SQL text
+			Assertions.assertEquals(1, cache.size());
+			Assertions.assertEquals(1, db.statementsClosed.get());
+		} finally {
+			cache.close();
+		}
+	}
+
+	@Test
+	void testReleaseAfterAddBatch() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+		try (StatementCache ignored = StatementCache.attach(con, 4)) {
+			PreparedStatement s = StatementCache.prepare(con, "INSERT;", KEYS);
+			s.setInt(1, 1);
+			s.addBatch();
+			s.close();
+
+			Assertions.assertTrue(s.isClosed());
+			Assertions.assertThrows(SQLException.class, () -> s.setInt(1, 2));
+
+			try (PreparedStatement reused = StatementCache.prepare(con, "INSERT;", KEYS)) {
+				reused.setInt(1, 2);
+				reused.addBatch();
+				reused.executeBatch();
+			}
+
+			// The batch of the released statement was cleared
+			Assertions.assertEquals(1, db.statementsPrepared.get());
+			Assertions.assertEquals(1, db.getExecutions().size());
+			Assertions.assertEquals(Collections.singletonList(2), db.getExecutions().get(0).params);
+		}
+	}
+
+	@Test
+	void testModifiedStatementsAreNotReused() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+
+		try (StatementCache cache = StatementCache.attach(con, 4)) {
+			try (PreparedStatement s = StatementCache.prepare(con, "SELECT 1;", KEYS)) {
+				s.setFetchSize(Integer.MIN_VALUE);
+				s.executeQuery().close();
+			}
+
+			// The statement with a changed fetch size was closed instead of being returned
+			Assertions.assertEquals(0, cache.size());
+			Assertions.assertEquals(1, db.statementsClosed.get());
+
+			try (PreparedStatement s = StatementCache.prepare(con, "SELECT 1;", KEYS)) {
+				s.executeQuery().close();
+			}
+
+			Assertions.assertEquals(0, db.getExecutions().get(1).fetchSize);
+			Assertions.assertEquals(2, db.statementsPrepared.get());
+			Assertions.assertEquals(1, cache.size());
+		}
+
+		Assertions.assertNull(StatementCache.forConnection(con));
+		Assertions.assertEquals(2, db.statementsClosed.get());
+	}
+
+	@Test
+	void testUnreachableCachesAreDetached() throws InterruptedException {
+		StubDatabase db = new StubDatabase();
+		Connection con = db.connection();
+
+		attachAndForget(con);
+
+		// The cache is referenced only weakly, so it is detached when the caller drops it
+		for (int i = 0; i < 100 && StatementCache.forConnection(con) != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		Assertions.assertNull(StatementCache.forConnection(con));
+	}
+
+	private static void attachAndForget(Connection con) {
+		Assertions.assertNotNull(StatementCache.attach(con, 4));
+		Assertions.assertNotNull(StatementCache.forConnection(con));
+	}
+
+}
@@ -0,0 +1,147 @@
+package me.saharnooby.lib.query.listener;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.batch.BatchBuilder;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author saharNooby
+ * @since 23:58 16.10.2026
+ */
+class SlowQueryLogTest {
+
+	private static List<String> columns(String sql) {
+		return SlowQueryLog.placeholderColumns(sql);
+	}
+
+	@Test
+	void testComparisons() {
+		Assertions.assertEquals(
+				Arrays.asList("a", "b", "c", "d", "d", "e"),
+				columns("SELECT * FROM `t` WHERE `a` = ? AND `t`.`b` >= ? AND `c` NOT LIKE ? AND `d` IN (?, ?) AND `e` <> ?;")
+		);
+
+		// The placeholder is not the whole value of the column
+		Assertions.assertEquals(
+				Arrays.asList("a", null, null, null, null),
+				columns("SELECT * FROM `t` WHERE `a` = ? OR ? = `password` OR `b` = 1 + ? OR `c` = ? * 2 OR `d` BETWEEN ? AND 5;")
+		);
+
+		// Raw SQL and string literals containing placeholder characters
+		Assertions.assertEquals(Arrays.asList(null, "b"), columns("SELECT * FROM t WHERE a = ? AND `b` = ? AND `c` = 'what?' AND `d` = 'it''s?';"));
+	}
+
+	@Test
+	void testUpdate() {
+		Assertions.assertEquals(
+				Arrays.asList("a", null, "c"),
+				columns(Query.update("t").value("a", 1).valueExpr("b", "1 + ?", 2).where("c", 3).getSQL())
+		);
+	}
+
+	@Test
+	void testInsert() {
+		Assertions.assertEquals(
+				Arrays.asList("a", "password", "a", "password", "password"),
+				columns("INSERT INTO `t` (`a`, `password`) VALUES (?, ?), (?, ?) ON DUPLICATE KEY UPDATE `password` = ?;")
+		);
+
+		// Value expressions with extra placeholders don't shift columns of following values
+		Assertions.assertEquals(
+				Arrays.asList(null, null, "c"),
+				columns(Query.insertInto("t").valueExpr("a", "CONCAT(?, ?)", 1, 2).value("c", 3).getSQL())
+		);
+
+		// Count of values does not match count of columns
+		Assertions.assertEquals(Arrays.asList(null, null), columns("INSERT INTO `t` (`a`) VALUES (?, ?);"));
+
+		Assertions.assertEquals(Arrays.asList("a", "b"), columns("INSERT INTO `t` SET `a` = ?, `b` = ?;"));
+	}
+
+	@Test
+	void testRecords() throws SQLException {
+		SlowQueryLog log = new SlowQueryLog(2).threshold(Duration.ZERO).redact("password").stackDepth(0);
+		StubDatabase db = new StubDatabase();
+
+		QueryListeners.register(log);
+
+		try {
+			Query.update("t").value("password", "secret").valueExpr("b", "? + 1", 5).where("a", 1).update(db.dataSource());
+			Query.of("UPDATE t SET x = ?", "raw").update(db.dataSource());
+			Query.deleteFrom("t").where("a", 2).update(db.dataSource());
+		} finally {
+			QueryListeners.unregister(log);
+		}
+
+		List<SlowQueryLog.Record> records = log.dump();
+
+		// The oldest record was overwritten
+		Assertions.assertEquals(2, records.size());
+		Assertions.assertEquals(Arrays.asList("<redacted>"), records.get(0).getParams());
+		Assertions.assertEquals(Arrays.asList(2), records.get(1).getParams());
+
+		log.clear();
+		log.redactUnresolved(false);
+		QueryListeners.register(log);
+
+		try {
+			Query.update("t").value("password", "secret").valueExpr("b", "? + 1", 5).where("a", 1).update(db.dataSource());
+		} finally {
+			QueryListeners.unregister(log);
+		}
+
+		Assertions.assertEquals(Arrays.asList("<redacted>", 5, 1), log.dump().get(0).getParams());
+	}
+
+	@Test
+	void testParamsOfExecutedParts() throws SQLException {
+		SlowQueryLog log = new SlowQueryLog(10).threshold(Duration.ZERO).stackDepth(0);
+		StubDatabase db = new StubDatabase();
+
+		QueryListeners.register(log);
+
+		try {
+			Query.select("value").from("t").whereIn("id", Arrays.asList(1, 2, 3), 2).queryAndMapAll(db.dataSource(), set -> set.getInt(1));
+		} finally {
+			QueryListeners.unregister(log);
+		}
+
+		List<SlowQueryLog.Record> records = log.dump();
+
+		Assertions.assertEquals(2, records.size());
+		Assertions.assertEquals(Arrays.asList(1, 2), records.get(0).getParams());
+		Assertions.assertEquals(Arrays.asList(3), records.get(1).getParams());
+	}
+
+	@Test
+	void testBatchParams() throws SQLException {
+		SlowQueryLog log = new SlowQueryLog(10).threshold(Duration.ZERO).redact("password").stackDepth(0);
+		StubDatabase db = new StubDatabase();
+
+		QueryListeners.register(log);
+
+		try {
+			new BatchBuilder()
+					.add(Query.insertInto("t").value("a", 1L).value("password", "secret").valueExpr("b", "?", (Object) null))
+					.add(Query.insertInto("t").value("a", 2L).value("password", "other").valueExpr("b", "?", 3))
+					.execute(db.dataSource());
+		} finally {
+			QueryListeners.unregister(log);
+		}
+
+		SlowQueryLog.Record record = log.dump().get(0);
+
+		// Batches record values of the first parameter list
+		Assertions.assertEquals(QueryEvent.Kind.BATCH, record.getKind());
+		Assertions.assertEquals(Arrays.asList(1L, "<redacted>", null), record.getParams());
+		Assertions.assertTrue(record.toString().contains(" with first parameters [1, <redacted>, null]"));
+	}
+
+}
@@ -1,13 +1,27 @@
 package me.saharnooby.lib.query.query;
 
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.cache.QueryResultCache;
+import me.saharnooby.lib.query.query.impl.BulkInsert;
 import me.saharnooby.lib.query.query.impl.Delete;
 import me.saharnooby.lib.query.query.impl.Insert;
+import me.saharnooby.lib.query.query.impl.KeysetPagination;
 import me.saharnooby.lib.query.query.impl.Select;
 import me.saharnooby.lib.query.query.impl.Update;
+import me.saharnooby.lib.query.util.SQLUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * @author saharNooby
@@ -126,4 +140,255 @@ class QueryTest {
 		);
 	}
 
-}
\ No newline at end of file
+	@Test
+	void testOptionsReturnSelfType() {
+		Select select = Query.select("a").from("t").fetchSize(10).forwardOnly().streamRows().useCursor().where("b", 1);
+		Update update = Query.update("t").value("a", 1).fetchSize(10).where("b", 2);
+		Delete delete = Query.deleteFrom("t").forwardOnly().where("b", 3);
+		Select cached = Query.select("a").from("t").cacheResults(new QueryResultCache()).where("b", 4);
+
+		Assertions.assertEquals("SELECT `a` FROM `t` WHERE (`b` = ?) ;", select.getSQL());
+		Assertions.assertEquals(Collections.singletonList(1), update.getParams().subList(0, 1));
+		Assertions.assertEquals(Collections.singletonList(3), delete.getParams());
+		Assertions.assertEquals(Collections.singletonList(4), cached.getParams());
+	}
+
+	@Test
+	void testSQLCache() {
+		Select first = Query.select("a").from("t").where("c", 1);
+		Select second = Query.select("a").from("t").where("c", 2);
+
+		Assertions.assertSame(first.getSQL(), second.getSQL());
+		Assertions.assertNotEquals(first.getSQL(), Query.select("a").from("t").where("d", 1).getSQL());
+
+		// Column conditions and equal SQL expressions render the same text
+		Assertions.assertEquals(first.getSQL(), Query.select("a").from("t").whereExpr("`c` = ?", 1).getSQL());
+
+		// LIMIT is a part of the cached shape, OFFSET is rendered for each query
+		Assertions.assertSame(Query.select("a").from("t").where("c", 1).limit(10).getSQL(), Query.select("a").from("t").where("c", 2).limit(10).getSQL());
+		Assertions.assertEquals("SELECT `a` FROM `t` WHERE (`c` = ?) LIMIT 20 ;", Query.select("a").from("t").where("c", 1).limit(20).getSQL());
+		Assertions.assertEquals("SELECT `a` FROM `t` WHERE (`c` = ?) LIMIT 10 OFFSET 20 ;", first.limit(10).offset(20).getSQL());
+		Assertions.assertEquals("SELECT `a` FROM `t` WHERE (`c` = ?) LIMIT 10 OFFSET 30 ;", second.limit(10).offset(30).getSQL());
+	}
+
+	@Test
+	void testCompile() {
+		Param key = Param.slot();
+
+		CompiledQuery compiled = Query.insertInto("t")
+				.value("a", key)
+				.valueExpr("b", "1 + ?", 456)
+				.value("c", Param.slot())
+				.onDuplicateKeyUpdateExcept("a")
+				.compile();
+
+		Assertions.assertEquals(
+				"INSERT INTO `t` (`a`, `b`, `c`) VALUES (?, 1 + ?, ?) ON DUPLICATE KEY UPDATE `b` = 1 + ?, `c` = ?;",
+				compiled.getSQL()
+		);
+
+		Assertions.assertEquals(2, compiled.getSlotCount());
+		Assertions.assertEquals(Arrays.asList(1, 456, "x", 456, "x"), compiled.bind(1, "x").getParams());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> compiled.bind(1));
+
+		Object[] values = {1, "x"};
+		AbstractQuery bound = compiled.bind(values);
+		values[0] = 2;
+
+		Assertions.assertEquals(Arrays.asList(1, 456, "x", 456, "x"), bound.getParams());
+
+		// Writes of bound queries invalidate cached results
+		Assertions.assertEquals(Collections.singletonList("t"), bound.getTables());
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Query.select("a").from("t").whereIn("b", Arrays.asList(1, 2, 3), 2).compile());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Query.select("a").from("t").whereInTemporaryTable("b", Arrays.asList(1, 2, 3), "INT").compile());
+	}
+
+	@Test
+	void testForEachParam() throws SQLException {
+		AbstractQuery[] queries = {
+				Query.insertInto("t").value("a", 123).valueExpr("b", "1 + ?", 456).onDuplicateKeyUpdateExcept("a"),
+				Query.update("t").value("a", 123).valueExpr("b", "1 + ?", 456).where("c", "lol").whereExpr("`d` = ? * 5", 10),
+				Query.deleteFrom("t").where("c", "lol").whereExpr("`d` = ? * 5", 10),
+				Query.select("a").expr("? + 1", 1).from("t").where("c", "lol").orderByExpr("`a` * ?", 2),
+				Query.select("a").from("t").where("c", Param.slot()).compile().bind("lol")
+		};
+
+		for (AbstractQuery query : queries) {
+			List<Object> params = new ArrayList<>();
+
+			query.forEachParam((index, value) -> {
+				Assertions.assertEquals(params.size() + 1, index);
+				params.add(value);
+			});
+
+			Assertions.assertEquals(query.getParams(), params);
+		}
+	}
+
+	@Test
+	void testBulkInsert() {
+		BulkInsert insert = Query.bulkInsertInto("t").columns("a", "b").onDuplicateKeyUpdateExcept("a").maxParams(4);
+
+		for (int i = 0; i < 5; i++) {
+			insert.row(i, "v" + i);
+		}
+
+		List<AbstractQuery> statements = insert.statements();
+
+		Assertions.assertEquals(3, statements.size());
+		Assertions.assertEquals(
+				"INSERT INTO `t` (`a`, `b`) VALUES (?, ?), (?, ?) ON DUPLICATE KEY UPDATE `b` = VALUES(`b`);",
+				statements.get(0).getSQL()
+		);
+		Assertions.assertEquals(Arrays.asList(0, "v0", 1, "v1"), statements.get(0).getParams());
+		Assertions.assertEquals(
+				"INSERT INTO `t` (`a`, `b`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `b` = VALUES(`b`);",
+				statements.get(2).getSQL()
+		);
+
+		insert = Query.bulkInsertInto("db", "t").columns("a").ignore().maxPacketSize(100);
+
+		for (int i = 0; i < 3; i++) {
+			insert.row("x" + new String(new char[40]));
+		}
+
+		statements = insert.statements();
+
+		Assertions.assertEquals(3, statements.size());
+		Assertions.assertEquals("INSERT IGNORE INTO `db`.`t` (`a`) VALUES (?);", statements.get(0).getSQL());
+
+		insert = Query.bulkInsertInto("t").columns("a", "b", "c").onDuplicateKeyUpdateExcept("a").onDuplicateKeyIncrement("b").row(1, 2, 3);
+
+		Assertions.assertEquals(
+				"INSERT INTO `t` (`a`, `b`, `c`) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE `b` = `b` + VALUES(`b`), `c` = VALUES(`c`);",
+				insert.statements().get(0).getSQL()
+		);
+	}
+
+	@Test
+	void testBulkInsertTransaction() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		BulkInsert insert = Query.bulkInsertInto("t").columns("a").maxParams(2).row(1).row(2).row(3);
+
+		// Statements of a split insert are executed in a transaction, the stub also counts restoring auto-commit as a commit
+		Assertions.assertEquals(2, insert.update(db.dataSource()));
+		Assertions.assertEquals(2, db.getExecutions().size());
+		Assertions.assertEquals(2, db.commits.get());
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), db.getExecutions().stream().flatMap(e -> e.params.stream()).collect(Collectors.toList()));
+
+		// A failure rolls back statements executed before it
+		StubDatabase failing = new StubDatabase().failWhen(execution -> execution.params.contains(3));
+		Connection con = failing.connection();
+
+		Assertions.assertThrows(SQLException.class, () -> insert.update(con));
+		Assertions.assertEquals(2, failing.getExecutions().size());
+		Assertions.assertEquals(1, failing.rollbacks.get());
+		Assertions.assertTrue(con.getAutoCommit());
+
+		// A single statement does not need a transaction
+		StubDatabase single = new StubDatabase();
+		Query.bulkInsertInto("t").columns("a").row(1).update(single.dataSource());
+
+		Assertions.assertEquals(0, single.commits.get());
+	}
+
+	@Test
+	void testGetTables() {
+		Assertions.assertEquals(Collections.singletonList("db.t"), Query.select().all().from("db", "t").getTables());
+		Assertions.assertEquals(Collections.singletonList("t"), Query.update("t").value("a", 1).getTables());
+		Assertions.assertEquals(Collections.singletonList("t"), Query.deleteFrom("t").getTables());
+		Assertions.assertEquals(Collections.emptyList(), Query.select().expr("1").getTables());
+	}
+
+	@Test
+	void testFingerprint() {
+		Assertions.assertEquals(
+				"SELECT * FROM `t` WHERE `a` IN (?) AND `b` = ? AND `c2` = ?;",
+				SQLUtil.fingerprint("SELECT * FROM `t` WHERE `a` IN (?, ?, ?) AND `b` = 'x''y' AND `c2` = 12.5;")
+		);
+		Assertions.assertEquals(
+				"INSERT INTO `t` (`a`, `b`) VALUES (?);",
+				SQLUtil.fingerprint("INSERT INTO `t` (`a`, `b`) VALUES (?, ?), (?, ?), (?, ?);")
+		);
+	}
+
+	@Test
+	void testKeysetPagination() {
+		KeysetPagination pagination = Query.select().all().from("t").where("a", 1).paginateBy("b", 100).desc().thenBy("id");
+
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`a` = ?) ORDER BY `b` DESC, `id` ASC LIMIT 100 ;", pagination.firstPage().getSQL());
+
+		Select page = pagination.pageAfter(5, 10);
+
+		Assertions.assertEquals(
+				"SELECT * FROM `t` WHERE (`a` = ?) AND (`b` <= ? AND ((`b` < ?) OR (`b` = ? AND `id` > ?))) ORDER BY `b` DESC, `id` ASC LIMIT 100 ;",
+				page.getSQL()
+		);
+		Assertions.assertEquals(Arrays.asList(1, 5, 5, 5, 10), page.getParams());
+	}
+
+	@Test
+	void testWhereIn() {
+		Select select = Query.select().all().from("t").whereIn("id", Arrays.asList(1, 2, 3));
+
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`id` IN (?, ?, ?, ?)) ;", select.getSQL());
+		Assertions.assertEquals(Arrays.asList(1, 2, 3, 3), select.getParams());
+
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (0 = 1) ;", Query.select().all().from("t").whereIn("id", Collections.emptyList()).getSQL());
+
+		Select split = Query.select().all().from("t").whereIn("id", Arrays.asList(1, 2, 3, 4, 5), 2);
+
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`id` IN (?, ?)) ;", split.getSQL());
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Query.select().all().from("t").whereIn("id", Arrays.asList(1, null)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> Query.select().all().from("t").whereInTemporaryTable("id", Arrays.asList(1, null), "INT"));
+	}
+
+	@Test
+	void testWhereInParts() throws Exception {
+		// Each part returns its own parameters as rows
+		StubDatabase db = new StubDatabase().columns("id").rows(execution -> {
+			List<Object[]> rows = new ArrayList<>();
+
+			for (Object param : execution.params.subList(1, execution.params.size())) {
+				rows.add(new Object[] {param});
+			}
+
+			return rows;
+		});
+
+		Select select = Query.select().all().from("t").where("a", 0).whereIn("id", Arrays.asList(1, 2, 3, 4, 5), 2).fetchSize(50);
+
+		Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), select.queryAndMapAll(db.dataSource(), set -> set.getInt(1)));
+		Assertions.assertEquals(3, db.getExecutions().size());
+		Assertions.assertEquals(Arrays.asList(0, 5), db.getExecutions().get(2).params);
+
+		// Parts keep execution options of the query, and the query itself is not modified
+		Assertions.assertEquals(50, db.getExecutions().get(2).fetchSize);
+		Assertions.assertEquals(Arrays.asList(0, 1, 2), select.getParams());
+
+		// Parts of concurrent executions do not interfere
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<List<Integer>>> futures = new ArrayList<>();
+
+			for (int i = 0; i < 64; i++) {
+				futures.add(executor.submit(() -> select.queryAndMapAll(db.dataSource(), set -> set.getInt(1))));
+			}
+
+			for (Future<List<Integer>> future : futures) {
+				Assertions.assertEquals(Arrays.asList(1, 2, 3, 4, 5), future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Delete delete = Query.deleteFrom("t").whereIn("id", Arrays.asList(1, 2, 3), 2);
+
+		Assertions.assertEquals(2, delete.update(db.connection()));
+		Assertions.assertEquals(Collections.singletonList(3), db.getExecutions().get(db.getExecutions().size() - 1).params);
+	}
+
+}
@@ -0,0 +1,152 @@
+package me.saharnooby.lib.query.query.impl;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author saharNooby
+ * @since 23:10 16.10.2026
+ */
+class BatchLoaderTest {
+
+	private static final Executor DIRECT = Runnable::run;
+
+	/**
+	 * @return A database returning a row with name "n" + id for each requested id.
+	 */
+	private static StubDatabase database() {
+		return new StubDatabase().columns("id", "name").rows(execution -> {
+			List<Object[]> rows = new ArrayList<>();
+
+			// IN lists are padded by repeating the last value
+			for (Object id : new LinkedHashSet<>(execution.params)) {
+				if (((Long) id) > 0) {
+					rows.add(new Object[] {id, "n" + id});
+				}
+			}
+
+			return rows;
+		});
+	}
+
+	private static BatchLoader<Long, String> loader(StubDatabase db) {
+		return Query.select().all().from("users").fetchSize(50)
+				.batchLoader("id", db.dataSource(), set -> set.getLong("id"), set -> set.getString("name"))
+				.executor(DIRECT);
+	}
+
+	@Test
+	void testWindow() throws Exception {
+		StubDatabase db = database();
+		BatchLoader<Long, String> loader = loader(db).window(Duration.ofMillis(50));
+
+		CompletableFuture<Optional<String>> a = loader.load(1L);
+		CompletableFuture<Optional<String>> b = loader.load(2L);
+		CompletableFuture<Optional<String>> missing = loader.load(-1L);
+
+		Assertions.assertEquals(Optional.of("n1"), a.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Optional.of("n2"), b.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Optional.empty(), missing.get(5, TimeUnit.SECONDS));
+
+		// Keys requested within the window are loaded by a single query, which keeps options of the query
+		Assertions.assertEquals(1, db.getExecutions().size());
+		Assertions.assertEquals(new HashSet<>(Arrays.asList(1L, 2L, -1L)), new HashSet<>(db.getExecutions().get(0).params));
+		Assertions.assertEquals(50, db.getExecutions().get(0).fetchSize);
+		Assertions.assertEquals(0, loader.getPendingCount());
+	}
+
+	@Test
+	void testMaxBatchSize() {
+		StubDatabase db = database();
+		BatchLoader<Long, String> loader = loader(db).window(Duration.ofHours(1)).maxBatchSize(2);
+
+		CompletableFuture<Optional<String>> a = loader.load(1L);
+
+		Assertions.assertFalse(a.isDone());
+		Assertions.assertEquals(1, loader.getPendingCount());
+
+		// Reaching the max batch size dispatches the batch without waiting for the window
+		CompletableFuture<Optional<String>> b = loader.load(2L);
+
+		Assertions.assertEquals(Optional.of("n1"), a.join());
+		Assertions.assertEquals(Optional.of("n2"), b.join());
+		Assertions.assertEquals(1, db.getExecutions().size());
+
+		CompletableFuture<Optional<String>> c = loader.load(3L);
+
+		Assertions.assertFalse(c.isDone());
+
+		loader.flush();
+
+		Assertions.assertEquals(Optional.of("n3"), c.join());
+		Assertions.assertEquals(2, db.getExecutions().size());
+	}
+
+	@Test
+	void testDuplicateKeys() {
+		StubDatabase db = database();
+		BatchLoader<Long, String> loader = loader(db).window(Duration.ofHours(1));
+
+		List<CompletableFuture<Optional<String>>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			futures.add(loader.load(7L));
+		}
+
+		loader.flush();
+
+		// The key is loaded once, every caller receives the row
+		for (CompletableFuture<Optional<String>> future : futures) {
+			Assertions.assertEquals(Optional.of("n7"), future.join());
+		}
+
+		Assertions.assertEquals(Collections.singletonList(7L), db.getExecutions().get(0).params);
+	}
+
+	@Test
+	void testFailure() {
+		StubDatabase db = database().failWhen(execution -> true);
+		BatchLoader<Long, String> loader = loader(db).window(Duration.ofHours(1));
+
+		CompletableFuture<Optional<String>> a = loader.load(1L);
+		CompletableFuture<Optional<String>> b = loader.load(1L);
+		CompletableFuture<Optional<String>> c = loader.load(2L);
+
+		loader.flush();
+
+		for (CompletableFuture<Optional<String>> future : Arrays.asList(a, b, c)) {
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class, future::get);
+			Assertions.assertTrue(e.getCause() instanceof SQLException);
+		}
+
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testRejectedExecution() {
+		StubDatabase db = database();
+		BatchLoader<Long, String> loader = loader(db).window(Duration.ofHours(1)).executor(task -> {
+			throw new RejectedExecutionException();
+		});
+
+		CompletableFuture<Optional<String>> a = loader.load(1L);
+
+		loader.flush();
+
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class, a::get);
+		Assertions.assertTrue(e.getCause() instanceof RejectedExecutionException);
+		Assertions.assertTrue(db.getExecutions().isEmpty());
+	}
+
+}
@@ -0,0 +1,68 @@
+package me.saharnooby.lib.query.query.impl;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author saharNooby
+ * @since 21:05 16.10.2026
+ */
+class KeysetPaginationTest {
+
+	@Test
+	void testPages() {
+		// Rows with ids from 1 to 5, pages of 2 rows
+		StubDatabase db = new StubDatabase().columns("id").rows(execution -> {
+			long after = execution.params.size() > 1 ? ((Number) execution.params.get(1)).longValue() : 0;
+			List<Object[]> rows = new ArrayList<>();
+
+			for (long id = after + 1; id <= Math.min(5, after + 2); id++) {
+				rows.add(new Object[] {id});
+			}
+
+			return rows;
+		});
+
+		List<Long> ids = Query.select("id").from("t").where("a", 1).fetchSize(50)
+				.paginateBy("id", 2)
+				.stream(db.dataSource(), set -> set.getLong(1))
+				.collect(Collectors.toList());
+
+		Assertions.assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L), ids);
+		Assertions.assertEquals(3, db.getExecutions().size());
+		Assertions.assertEquals(3, db.connectionsClosed.get());
+
+		// Pages keep execution options of the query
+		for (StubDatabase.Execution execution : db.getExecutions()) {
+			Assertions.assertEquals(50, execution.fetchSize);
+		}
+	}
+
+	@Test
+	void testPageKeepsOptions() throws SQLException {
+		StubDatabase db = new StubDatabase();
+
+		Query.select().all().from("t").streamRows().paginateBy("id", 10).pageAfter(5).queryAndMapAll(db.dataSource(), set -> set.getLong(1));
+
+		Assertions.assertEquals(Integer.MIN_VALUE, db.getExecutions().get(0).fetchSize);
+	}
+
+	@Test
+	void testSplitInListIsRejected() {
+		Select select = Query.select().all().from("t").whereIn("id", Arrays.asList(1, 2, 3), 2);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> select.paginateBy("id", 10));
+
+		// A list executed in a single part is allowed
+		Query.select().all().from("t").whereIn("id", Arrays.asList(1, 2, 3)).paginateBy("id", 10);
+	}
+
+}
@@ -0,0 +1,114 @@
+package me.saharnooby.lib.query.query.impl;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author saharNooby
+ * @since 22:40 16.10.2026
+ */
+class ParallelScanTest {
+
+	@Test
+	void testSplitPoints() throws SQLException {
+		StubDatabase db = new StubDatabase().columns("min", "max").rows(new Object[] {0L, 100L});
+
+		List<Select> queries = Query.select().all().from("t").where("a", 1).fetchSize(50)
+				.parallelScan("id").partitions(4)
+				.partitionQueries(db.dataSource());
+
+		Assertions.assertEquals("SELECT MIN(`id`), MAX(`id`) FROM `t` WHERE (`a` = ?) ;", db.getSQL().get(0));
+		Assertions.assertEquals(4, queries.size());
+
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`a` = ?) AND (`id` < ? OR `id` IS NULL) ;", queries.get(0).getSQL());
+		Assertions.assertEquals(Arrays.asList(1, 25L), queries.get(0).getParams());
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`a` = ?) AND (`id` >= ? AND `id` < ?) ;", queries.get(1).getSQL());
+		Assertions.assertEquals(Arrays.asList(1, 25L, 50L), queries.get(1).getParams());
+		Assertions.assertEquals(Arrays.asList(1, 50L, 75L), queries.get(2).getParams());
+		Assertions.assertEquals("SELECT * FROM `t` WHERE (`a` = ?) AND (`id` >= ?) ;", queries.get(3).getSQL());
+		Assertions.assertEquals(Arrays.asList(1, 75L), queries.get(3).getParams());
+
+		// Partitions keep execution options of the query
+		queries.get(0).queryAndMapAll(db.dataSource(), set -> set.getObject(1));
+
+		Assertions.assertEquals(50, db.getExecutions().get(1).fetchSize);
+	}
+
+	@Test
+	void testNoRows() throws SQLException {
+		StubDatabase db = new StubDatabase().columns("min", "max").rows(new Object[] {null, null});
+
+		List<Select> queries = Query.select().all().from("t").parallelScan("id").partitions(4).partitionQueries(db.dataSource());
+
+		Assertions.assertEquals(1, queries.size());
+		Assertions.assertEquals("SELECT * FROM `t` ;", queries.get(0).getSQL());
+	}
+
+	@Test
+	void testInterpolation() {
+		// Integer points are rounded down
+		Assertions.assertEquals(3L, ParallelScan.interpolate(0L, 10L, 1, 3));
+		Assertions.assertEquals(6L, ParallelScan.interpolate(0L, 10L, 2, 3));
+		Assertions.assertEquals(-5L, ParallelScan.interpolate(-10, 0, 1, 2));
+
+		// Interpolation of longs does not lose precision near the bounds of the type
+		Assertions.assertEquals(Long.MAX_VALUE - 1, ParallelScan.interpolate(Long.MAX_VALUE - 2, Long.MAX_VALUE, 1, 2));
+		Assertions.assertEquals(-1L, ParallelScan.interpolate(Long.MIN_VALUE, Long.MAX_VALUE, 1, 2));
+
+		// BIGINT UNSIGNED values exceed the range of long
+		BigInteger max = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		Assertions.assertEquals(max.shiftRight(1), ParallelScan.interpolate(BigInteger.ZERO, max, 1, 2));
+		Assertions.assertEquals(max.subtract(BigInteger.ONE), ParallelScan.interpolate(max.subtract(BigInteger.valueOf(2)), max, 1, 2));
+
+		Assertions.assertEquals(LocalDate.of(2020, 1, 11), ParallelScan.interpolate(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 21), 1, 2));
+		Assertions.assertThrows(IllegalStateException.class, () -> ParallelScan.interpolate("a", "b", 1, 2));
+	}
+
+	@Test
+	void testSplitInListIsRejected() {
+		Select select = Query.select().all().from("t").whereIn("id", Arrays.asList(1, 2, 3), 2);
+
+		Assertions.assertThrows(IllegalStateException.class, () -> select.parallelScan("id"));
+	}
+
+	@Test
+	void testRejectedExecution() throws SQLException {
+		StubDatabase db = new StubDatabase();
+		AtomicInteger submitted = new AtomicInteger();
+		List<Runnable> tasks = new ArrayList<>();
+
+		// Accepts the first partition, then rejects
+		Executor executor = task -> {
+			if (submitted.incrementAndGet() > 1) {
+				throw new RejectedExecutionException();
+			}
+
+			tasks.add(task);
+		};
+
+		ParallelScan scan = Query.select().all().from("t").parallelScan("id").splitPoints(10).executor(executor).queueSize(1);
+
+		Assertions.assertThrows(RejectedExecutionException.class, () -> scan.stream(db.dataSource(), set -> set.getObject(1)));
+
+		// The accepted partition sees that the stream was cancelled and stops without waiting for the consumer
+		db.columns("id").rows(new Object[] {1}, new Object[] {2}, new Object[] {3});
+		tasks.get(0).run();
+
+		Assertions.assertEquals(Collections.singletonList("SELECT * FROM `t` WHERE (`id` < ? OR `id` IS NULL) ;"), db.getSQL());
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+}
@@ -0,0 +1,203 @@
+package me.saharnooby.lib.query.reactive;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.listener.QueryEvent;
+import me.saharnooby.lib.query.listener.QueryListener;
+import me.saharnooby.lib.query.listener.QueryListeners;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * @author saharNooby
+ * @since 23:55 16.10.2026
+ */
+class QueryPublisherTest {
+
+	private static final class TestSubscriber implements Subscriber<Long> {
+
+		final List<Long> values = new ArrayList<>();
+		Subscription subscription;
+		Throwable error;
+		boolean completed;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(Long value) {
+			this.values.add(value);
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+		}
+
+	}
+
+	private static StubDatabase database() {
+		return new StubDatabase().rows(new Object[] {1L}, new Object[] {2L}, new Object[] {3L});
+	}
+
+	private static TestSubscriber subscribe(StubDatabase db) {
+		TestSubscriber subscriber = new TestSubscriber();
+		QueryPublisher.of(Query.select("value").from("t"), db.dataSource(), set -> set.getLong(1), Runnable::run).subscribe(subscriber);
+		return subscriber;
+	}
+
+	@Test
+	void testDemand() {
+		StubDatabase db = database();
+		List<QueryEvent> events = new ArrayList<>();
+		QueryListener listener = events::add;
+		QueryListeners.register(listener);
+
+		try {
+			TestSubscriber subscriber = subscribe(db);
+
+			// The query is executed on the first request
+			Assertions.assertEquals(0, db.connectionsOpened.get());
+
+			subscriber.subscription.request(2);
+
+			Assertions.assertEquals(Arrays.asList(1L, 2L), subscriber.values);
+			Assertions.assertFalse(subscriber.completed);
+			Assertions.assertEquals(0, db.connectionsClosed.get());
+
+			subscriber.subscription.request(5);
+
+			Assertions.assertEquals(Arrays.asList(1L, 2L, 3L), subscriber.values);
+			Assertions.assertTrue(subscriber.completed);
+			Assertions.assertNull(subscriber.error);
+			Assertions.assertEquals(1, db.connectionsClosed.get());
+			Assertions.assertEquals(1, db.statementsClosed.get());
+		} finally {
+			QueryListeners.unregister(listener);
+		}
+
+		// Rows read by the publisher are counted
+		Assertions.assertEquals(1, events.size());
+		Assertions.assertEquals(3, events.get(0).getRows());
+		Assertions.assertFalse(events.get(0).isFailed());
+	}
+
+	@Test
+	void testCancellation() {
+		StubDatabase db = database();
+		TestSubscriber subscriber = subscribe(db);
+
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+
+		Assertions.assertEquals(Arrays.asList(1L), subscriber.values);
+		Assertions.assertFalse(subscriber.completed);
+		Assertions.assertNull(subscriber.error);
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+		Assertions.assertEquals(1, db.resultSetsClosed.get());
+	}
+
+	@Test
+	void testError() {
+		StubDatabase db = database().failWhen(e -> true);
+		TestSubscriber subscriber = subscribe(db);
+
+		subscriber.subscription.request(1);
+
+		Assertions.assertTrue(subscriber.error instanceof SQLException);
+		Assertions.assertTrue(subscriber.values.isEmpty());
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testInvalidRequest() {
+		StubDatabase db = database();
+		TestSubscriber subscriber = subscribe(db);
+
+		subscriber.subscription.request(0);
+
+		Assertions.assertTrue(subscriber.error instanceof IllegalArgumentException);
+		Assertions.assertEquals(0, db.connectionsOpened.get());
+	}
+
+	@Test
+	void testRejectedExecution() {
+		TestSubscriber subscriber = new TestSubscriber();
+
+		QueryPublisher.of(Query.select("value").from("t"), database().dataSource(), set -> set.getLong(1), task -> {
+			throw new RejectedExecutionException();
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		Assertions.assertTrue(subscriber.error instanceof RejectedExecutionException);
+	}
+
+	@Test
+	void testRejectedExecutionAfterCancellation() {
+		StubDatabase db = database();
+		TestSubscriber subscriber = new TestSubscriber();
+		boolean[] reject = {false};
+
+		QueryPublisher.of(Query.select("value").from("t"), db.dataSource(), set -> set.getLong(1), task -> {
+			if (reject[0]) {
+				throw new RejectedExecutionException();
+			}
+
+			task.run();
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		reject[0] = true;
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+
+		// No signals are sent after cancellation, but the connection is still released
+		Assertions.assertEquals(Arrays.asList(1L), subscriber.values);
+		Assertions.assertNull(subscriber.error);
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testRejectedExecutionReleasesConnection() {
+		StubDatabase db = database();
+		TestSubscriber subscriber = new TestSubscriber();
+		boolean[] reject = {false};
+
+		QueryPublisher.of(Query.select("value").from("t"), db.dataSource(), set -> set.getLong(1), task -> {
+			if (reject[0]) {
+				throw new RejectedExecutionException();
+			}
+
+			task.run();
+		}).subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		reject[0] = true;
+		subscriber.subscription.request(1);
+		subscriber.subscription.request(1);
+
+		Assertions.assertEquals(Arrays.asList(1L), subscriber.values);
+		Assertions.assertTrue(subscriber.error instanceof RejectedExecutionException);
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+}
@@ -0,0 +1,127 @@
+package me.saharnooby.lib.query.set;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author saharNooby
+ * @since 22:35 16.10.2026
+ */
+class BeanMapperTest {
+
+	enum Status {
+
+		ACTIVE, BANNED
+
+	}
+
+	static final class User {
+
+		long id;
+		private String name;
+		Integer score;
+		Status status;
+		final String ignored = "ignored";
+
+		public void setUserName(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return this.id + " " + this.name + " " + this.score + " " + this.status;
+		}
+
+	}
+
+	private static ResultSet query(StubDatabase db) throws SQLException {
+		return Query.select("id").from("t").query(db.connection()).set();
+	}
+
+	private static StubDatabase users() {
+		return new StubDatabase()
+				.columns("ID", "user_name", "score", "status", "extra")
+				.rows(new Object[] {1L, "a", 10, "ACTIVE", "x"}, new Object[] {2L, "b", null, "BANNED", "y"});
+	}
+
+	@Test
+	void testMapping() throws SQLException {
+		List<User> users = Query.select("id").from("t").queryAndMapAll(users().dataSource(), ResultSetMapper.of(User.class));
+
+		// Columns match properties ignoring case and underscores, extra columns and final fields are ignored
+		Assertions.assertEquals("[1 a 10 ACTIVE, 2 b null BANNED]", users.toString());
+		Assertions.assertEquals("ignored", users.get(0).ignored);
+	}
+
+	@Test
+	void testPlanIsResolvedOncePerResultSet() throws SQLException {
+		AtomicInteger metadataCalls = new AtomicInteger();
+		ResultSet set = query(users());
+
+		ResultSet counting = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+			if (method.getName().equals("getMetaData")) {
+				metadataCalls.incrementAndGet();
+			}
+
+			try {
+				return method.invoke(set, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+
+		List<User> users = new ResultSetWrapper(counting).mapAll(ResultSetMapper.of(User.class));
+
+		Assertions.assertEquals(2, users.size());
+		Assertions.assertEquals(1, metadataCalls.get());
+	}
+
+	@Test
+	void testInterleavedResultSets() throws SQLException {
+		ResultSet first = query(users());
+		ResultSet second = query(new StubDatabase()
+				.columns("user_name", "id")
+				.rows(new Object[] {"c", 3L}, new Object[] {"d", 4L}));
+
+		ResultSetMapper<User> mapper = ResultSetMapper.of(User.class);
+		ResultSetMapper<User> firstMapper = mapper.forResultSet(first);
+		ResultSetMapper<User> secondMapper = mapper.forResultSet(second);
+
+		List<String> users = new ArrayList<>();
+
+		while (first.next() && second.next()) {
+			users.add(firstMapper.map(first).toString());
+			users.add(secondMapper.map(second).toString());
+			// Mapping without binding resolves the plan for each row
+			users.add(mapper.map(second).toString());
+		}
+
+		Assertions.assertEquals(Arrays.asList(
+				"1 a 10 ACTIVE", "3 c null null", "3 c null null",
+				"2 b null BANNED", "4 d null null", "4 d null null"
+		), users);
+	}
+
+	@Test
+	void testMappersAreShared() {
+		Assertions.assertSame(ResultSetMapper.of(User.class), ResultSetMapper.of(User.class));
+	}
+
+	@Test
+	void testInvalidClass() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ResultSetMapper.of(Runnable.class));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> ResultSetMapper.of(int.class));
+	}
+
+}
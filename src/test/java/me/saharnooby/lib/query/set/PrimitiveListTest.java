@@ -0,0 +1,96 @@
+package me.saharnooby.lib.query.set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author saharNooby
+ * @since 22:10 16.10.2026
+ */
+class PrimitiveListTest {
+
+	@Test
+	void testLongList() {
+		LongList list = new LongList(0);
+		Assertions.assertTrue(list.isEmpty());
+
+		for (int i = 0; i < 100; i++) {
+			list.add(i * 10_000_000_000L);
+		}
+
+		Assertions.assertEquals(100, list.size());
+		Assertions.assertFalse(list.isEmpty());
+		Assertions.assertEquals(990_000_000_000L, list.get(99));
+
+		long[] array = list.toArray();
+		Assertions.assertEquals(100, array.length);
+		Assertions.assertEquals(10_000_000_000L, array[1]);
+
+		// The array is a copy
+		array[1] = -1;
+		Assertions.assertEquals(10_000_000_000L, list.get(1));
+
+		Assertions.assertEquals(49_500_000_000_000L, list.stream().sum());
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new LongList(-1));
+	}
+
+	@Test
+	void testIntList() {
+		IntList list = new IntList(1);
+
+		for (int i = 0; i < 100; i++) {
+			list.add(i);
+		}
+
+		Assertions.assertEquals(100, list.size());
+		Assertions.assertEquals(42, list.get(42));
+		Assertions.assertArrayEquals(new int[] {0, 1, 2}, Arrays.copyOf(list.toArray(), 3));
+		Assertions.assertEquals(4950, list.stream().sum());
+		Assertions.assertEquals("[]", new IntList().toString());
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(100));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new IntList(-1));
+	}
+
+	@Test
+	void testDoubleList() {
+		DoubleList list = new DoubleList();
+
+		for (int i = 0; i < 20; i++) {
+			list.add(i / 2.0);
+		}
+
+		Assertions.assertEquals(20, list.size());
+		Assertions.assertEquals(9.5, list.get(19));
+		Assertions.assertEquals(20, list.toArray().length);
+		Assertions.assertEquals(95.0, list.stream().sum());
+		Assertions.assertEquals("[0.0, 0.5]", toString(list, 2));
+
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(20));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new DoubleList(-1));
+	}
+
+	@Test
+	void testGrowth() {
+		Assertions.assertEquals(16, PrimitiveLists.grow(0));
+		Assertions.assertEquals(24, PrimitiveLists.grow(16));
+		Assertions.assertEquals(Integer.MAX_VALUE - 8, PrimitiveLists.grow(Integer.MAX_VALUE - 100));
+		Assertions.assertThrows(OutOfMemoryError.class, () -> PrimitiveLists.grow(Integer.MAX_VALUE - 8));
+	}
+
+	private static String toString(DoubleList list, int count) {
+		DoubleList copy = new DoubleList(count);
+
+		for (int i = 0; i < count; i++) {
+			copy.add(list.get(i));
+		}
+
+		return copy.toString();
+	}
+
+}
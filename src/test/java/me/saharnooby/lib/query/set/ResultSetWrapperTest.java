@@ -0,0 +1,185 @@
+package me.saharnooby.lib.query.set;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.listener.QueryEvent;
+import me.saharnooby.lib.query.listener.QueryListener;
+import me.saharnooby.lib.query.listener.QueryListeners;
+import me.saharnooby.lib.query.query.Query;
+import me.saharnooby.lib.query.query.impl.Select;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author saharNooby
+ * @since 21:55 16.10.2026
+ */
+class ResultSetWrapperTest {
+
+	private static StubDatabase database() {
+		return new StubDatabase().rows(new Object[] {1}, new Object[] {2}, new Object[] {3});
+	}
+
+	@Test
+	void testStreamIsLazy() throws SQLException {
+		StubDatabase db = database();
+
+		try (Stream<Integer> stream = Query.select("value").from("t").queryAndStream(db.dataSource(), set -> set.getInt(1))) {
+			Iterator<Integer> it = stream.iterator();
+
+			Assertions.assertEquals(1, (int) it.next());
+			Assertions.assertEquals(0, db.resultSetsClosed.get());
+			Assertions.assertEquals(0, db.connectionsClosed.get());
+		}
+
+		// Closing the stream before reading all rows closes everything
+		Assertions.assertEquals(1, db.resultSetsClosed.get());
+		Assertions.assertEquals(1, db.statementsClosed.get());
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testStreamIsClosedAfterLastRow() throws SQLException {
+		StubDatabase db = database();
+
+		Stream<Integer> stream = Query.select("value").from("t").queryAndStream(db.dataSource(), set -> set.getInt(1));
+
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), stream.collect(Collectors.toList()));
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+
+		stream.close();
+
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testStreamWrapsExceptions() throws SQLException {
+		StubDatabase db = database();
+
+		try (Stream<Integer> stream = Query.select("value").from("t").queryAndStream(db.dataSource(), set -> {
+			throw new SQLException("Mapper failed");
+		})) {
+			UncheckedSQLException e = Assertions.assertThrows(UncheckedSQLException.class, () -> stream.collect(Collectors.toList()));
+			Assertions.assertEquals("Mapper failed", e.getCause().getMessage());
+		}
+
+		Assertions.assertEquals(1, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testForEachClosesSet() throws SQLException {
+		StubDatabase db = database();
+		Connection con = db.connection();
+
+		ResultSetWrapper wrapper = Query.select("value").from("t").query(con);
+		int[] sum = {0};
+		wrapper.forEach(set -> sum[0] += set.getInt(1));
+
+		Assertions.assertEquals(6, sum[0]);
+		Assertions.assertEquals(3, wrapper.getRowCount());
+		Assertions.assertEquals(1, db.resultSetsClosed.get());
+		Assertions.assertEquals(1, db.statementsClosed.get());
+		Assertions.assertEquals(0, db.connectionsClosed.get());
+	}
+
+	@Test
+	void testCursor() throws SQLException {
+		StubDatabase db = database();
+		Connection con = db.connection();
+
+		ResultSetWrapper wrapper = Query.select("value").from("t").useCursor().fetchSize(100).query(con);
+
+		// Auto-commit is disabled while the cursor is open
+		Assertions.assertFalse(con.getAutoCommit());
+		Assertions.assertEquals(100, db.getExecutions().get(0).fetchSize);
+
+		List<Integer> values = wrapper.mapAll(set -> set.getInt(1));
+
+		Assertions.assertEquals(Arrays.asList(1, 2, 3), values);
+		Assertions.assertTrue(con.getAutoCommit());
+		Assertions.assertTrue(db.commits.get() > 0);
+		Assertions.assertEquals(0, db.rollbacks.get());
+	}
+
+	@Test
+	void testCursorIsNotUsedInTransaction() throws SQLException {
+		StubDatabase db = database();
+		Connection con = db.connection();
+		con.setAutoCommit(false);
+
+		Query.select("value").from("t").useCursor().query(con).mapAll(set -> set.getInt(1));
+
+		// The transaction of the caller is not committed
+		Assertions.assertFalse(con.getAutoCommit());
+		Assertions.assertEquals(0, db.commits.get());
+	}
+
+	@Test
+	void testCursorIsRolledBackOnError() {
+		StubDatabase db = database().failWhen(execution -> true);
+		Connection con = db.connection();
+
+		Assertions.assertThrows(SQLException.class, () -> Query.select("value").from("t").useCursor().query(con));
+
+		Assertions.assertEquals(1, db.rollbacks.get());
+		Assertions.assertEquals(1, db.statementsClosed.get());
+		Assertions.assertDoesNotThrow(() -> Assertions.assertTrue(con.getAutoCommit()));
+	}
+
+	@Test
+	void testStreamRows() throws SQLException {
+		StubDatabase db = database();
+
+		Query.select("value").from("t").streamRows().queryAndForEach(db.dataSource(), set -> {});
+
+		Assertions.assertEquals(Integer.MIN_VALUE, db.getExecutions().get(0).fetchSize);
+	}
+
+	@Test
+	void testListenersReceiveFailures() throws SQLException {
+		StubDatabase db = database();
+		List<QueryEvent> events = new ArrayList<>();
+		QueryListener listener = events::add;
+		QueryListeners.register(listener);
+
+		Select select = Query.select("value").from("t");
+		ResultSetMapper<Integer> failing = set -> {
+			if (set.getInt(1) == 2) {
+				throw new SQLException("Mapping failed");
+			}
+
+			return set.getInt(1);
+		};
+
+		try {
+			Assertions.assertEquals(Arrays.asList(1, 2, 3), select.queryAndMapAll(db.dataSource(), set -> set.getInt(1)));
+			Assertions.assertThrows(SQLException.class, () -> select.queryAndMapAll(db.dataSource(), failing));
+			Assertions.assertThrows(IllegalStateException.class, () -> select.queryAndForEach(db.dataSource(), set -> {
+				throw new IllegalStateException();
+			}));
+
+			try (Stream<Integer> stream = select.queryAndStream(db.dataSource(), failing)) {
+				Assertions.assertThrows(UncheckedSQLException.class, () -> stream.forEach(value -> {}));
+			}
+		} finally {
+			QueryListeners.unregister(listener);
+		}
+
+		Assertions.assertEquals(4, events.size());
+		Assertions.assertFalse(events.get(0).isFailed());
+		Assertions.assertEquals(3, events.get(0).getRows());
+		Assertions.assertEquals("Mapping failed", events.get(1).getError().getMessage());
+		Assertions.assertTrue(events.get(2).getError() instanceof IllegalStateException);
+		Assertions.assertEquals("Mapping failed", events.get(3).getError().getMessage());
+		Assertions.assertEquals(4, db.connectionsClosed.get());
+	}
+
+}
@@ -0,0 +1,83 @@
+package me.saharnooby.lib.query.set;
+
+import me.saharnooby.lib.query.StubDatabase;
+import me.saharnooby.lib.query.query.Query;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author saharNooby
+ * @since 22:20 16.10.2026
+ */
+class RowTest {
+
+	@Test
+	void testLabelsAreResolvedOnce() throws SQLException {
+		StubDatabase db = new StubDatabase()
+				.columns("id", "Name", "name", "score")
+				.rows(new Object[] {1L, "a", "x", 1.5}, new Object[] {2L, "b", "y", null});
+
+		ResultSet set = Query.select("id").from("t").query(db.connection()).set();
+		Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+		Row row = new Row(counting(set, calls));
+
+		List<String> values = new ArrayList<>();
+
+		while (set.next()) {
+			double score = row.getDouble("SCORE");
+			boolean scoreNull = row.wasNull();
+			values.add(row.getLong("id") + row.getString("name") + score + scoreNull);
+		}
+
+		// Labels are case-insensitive, the first of duplicate labels is used
+		Assertions.assertEquals(Arrays.asList("1a1.5false", "2b0.0true"), values);
+		Assertions.assertEquals(1, calls.get("getMetaData").get());
+		Assertions.assertNull(calls.get("findColumn"));
+		Assertions.assertEquals(2, row.index("name"));
+	}
+
+	@Test
+	void testUnknownLabel() throws SQLException {
+		StubDatabase db = new StubDatabase().columns("id").rows(new Object[] {1L});
+
+		ResultSet set = Query.select("id").from("t").query(db.connection()).set();
+		Row row = new Row(set);
+		set.next();
+
+		// Labels missing from the metadata are passed to the driver
+		Assertions.assertThrows(SQLException.class, () -> row.getLong("missing"));
+	}
+
+	@Test
+	void testMapAllRows() throws SQLException {
+		StubDatabase db = new StubDatabase().columns("id", "name").rows(new Object[] {1L, "a"}, new Object[] {2L, "b"});
+
+		List<String> values = Query.select("id", "name").from("t").queryAndMapAllRows(db.dataSource(), row -> row.getString("name") + row.getInt("id"));
+
+		Assertions.assertEquals(Arrays.asList("a1", "b2"), values);
+	}
+
+	private static ResultSet counting(ResultSet set, Map<String, AtomicInteger> calls) {
+		return (ResultSet) Proxy.newProxyInstance(RowTest.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+			calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+
+			try {
+				return method.invoke(set, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,86 @@
+package me.saharnooby.lib.query.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * @author saharNooby
+ * @since 23:50 16.10.2026
+ */
+class ExecutorUtilTest {
+
+	@Test
+	void testSupplyAsync() {
+		Assertions.assertEquals("a", ExecutorUtil.supplyAsync(() -> "a", Runnable::run).join());
+
+		CompletableFuture<Object> failed = ExecutorUtil.supplyAsync(() -> {
+			throw new SQLException("failed");
+		}, Runnable::run);
+
+		Assertions.assertTrue(Assertions.assertThrows(CompletionException.class, failed::join).getCause() instanceof SQLException);
+
+		CompletableFuture<Object> rejected = ExecutorUtil.supplyAsync(() -> "a", task -> {
+			throw new RejectedExecutionException();
+		});
+
+		Assertions.assertTrue(Assertions.assertThrows(CompletionException.class, rejected::join).getCause() instanceof RejectedExecutionException);
+	}
+
+	@Test
+	void testBoundedPool() throws Exception {
+		ThreadPoolExecutor pool = ExecutorUtil.newBoundedPool(2);
+		CountDownLatch release = new CountDownLatch(1);
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < 5; i++) {
+				futures.add(ExecutorUtil.supplyAsync(() -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+
+					return Thread.currentThread().getName();
+				}, pool));
+			}
+
+			// Tasks over the limit wait in the queue instead of starting new threads
+			Assertions.assertEquals(2, pool.getPoolSize());
+			Assertions.assertEquals(3, pool.getQueue().size());
+
+			release.countDown();
+
+			for (CompletableFuture<String> future : futures) {
+				Assertions.assertTrue(future.get(10, TimeUnit.SECONDS).startsWith("query-lib-"));
+			}
+
+			Assertions.assertEquals(2, pool.getLargestPoolSize());
+			Assertions.assertTrue(pool.allowsCoreThreadTimeOut());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testSetDefaultExecutor() {
+		Executor previous = ExecutorUtil.defaultExecutor();
+		Executor executor = Runnable::run;
+
+		try {
+			ExecutorUtil.setDefaultExecutor(executor);
+
+			Assertions.assertSame(executor, ExecutorUtil.defaultExecutor());
+		} finally {
+			ExecutorUtil.setDefaultExecutor(previous);
+		}
+
+		Assertions.assertSame(previous, ExecutorUtil.defaultExecutor());
+	}
+
+}
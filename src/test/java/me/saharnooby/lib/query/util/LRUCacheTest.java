@@ -0,0 +1,52 @@
+package me.saharnooby.lib.query.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author saharNooby
+ * @since 20:40 16.10.2026
+ */
+class LRUCacheTest {
+
+	@Test
+	void testEviction() {
+		// 2 entries per segment; keys 0, 16 and 32 are in the same segment
+		LRUCache<Integer, String> cache = new LRUCache<>(32);
+
+		Assertions.assertEquals("a", cache.putIfAbsent(0, "a"));
+		Assertions.assertEquals("b", cache.putIfAbsent(16, "b"));
+		Assertions.assertEquals("a", cache.putIfAbsent(0, "c"));
+
+		// 0 was used more recently than 16
+		Assertions.assertEquals("a", cache.get(0));
+
+		cache.putIfAbsent(32, "d");
+
+		Assertions.assertEquals("a", cache.get(0));
+		Assertions.assertNull(cache.get(16));
+		Assertions.assertEquals("d", cache.get(32));
+		Assertions.assertEquals(2, cache.size());
+
+		// Other segments are not affected
+		cache.putIfAbsent(1, "e");
+		Assertions.assertEquals(3, cache.size());
+
+		cache.clear();
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	@Test
+	void testSQLCacheShape() {
+		SQLCache.Shape first = new SQLCache.Shape(String.class).add("a").add(1).add(null);
+		SQLCache.Shape second = new SQLCache.Shape(String.class).add("a").add(1).add(null);
+
+		Assertions.assertEquals(first, second);
+		Assertions.assertEquals(first.hashCode(), second.hashCode());
+		Assertions.assertNotEquals(first, new SQLCache.Shape(String.class).add("a").add(1));
+		Assertions.assertNotEquals(first, new SQLCache.Shape(Integer.class).add("a").add(1).add(null));
+
+		Assertions.assertSame(SQLCache.get(first, () -> "x"), SQLCache.get(second, () -> "y"));
+	}
+
+}
@@ -0,0 +1,39 @@
+package me.saharnooby.lib.query.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author saharNooby
+ * @since 23:00 16.10.2026
+ */
+class SQLUtilTest {
+
+	@Test
+	void testEstimateSize() {
+		for (String s : new String[] {"", "abc", "été", "привет", "日本語", "a😀b"}) {
+			Assertions.assertEquals(s.getBytes(StandardCharsets.UTF_8).length, SQLUtil.estimateSize(s), s);
+		}
+
+		Assertions.assertEquals(6, SQLUtil.estimateSize(new StringBuilder("ééé")));
+		Assertions.assertEquals(3, SQLUtil.estimateSize(new byte[3]));
+		Assertions.assertEquals(8, SQLUtil.estimateSize(1L));
+		Assertions.assertEquals(1, SQLUtil.estimateSize(null));
+	}
+
+	@Test
+	void testFingerprintOfLongSQL() {
+		StringBuilder sql = new StringBuilder("INSERT INTO `t` (`a`, `b`) VALUES (1, 'x')");
+
+		for (int i = 0; i < 20000; i++) {
+			sql.append(", (").append(i).append(", 'y''z')");
+		}
+
+		// Long texts are not cached, but are fingerprinted the same way
+		Assertions.assertEquals("INSERT INTO `t` (`a`, `b`) VALUES (?);", SQLUtil.fingerprint(sql + ";"));
+		Assertions.assertEquals("INSERT INTO `t` (`a`, `b`) VALUES (?);", SQLUtil.fingerprint(sql + ";"));
+	}
+
+}